@@ -1,5 +1,7 @@
 package com.staffsystem.plugin;
 
+import com.staffsystem.plugin.api.DiscordWebhook;
+import com.staffsystem.plugin.api.QueryServer;
 import com.staffsystem.plugin.api.WebApiManager;
 import com.staffsystem.plugin.commands.*;
 import com.staffsystem.plugin.listeners.*;
@@ -9,7 +11,9 @@ import com.staffsystem.plugin.utils.MessageUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 public class StaffSystemPlugin extends JavaPlugin {
 
@@ -17,10 +21,18 @@ public class StaffSystemPlugin extends JavaPlugin {
     
     private DatabaseManager databaseManager;
     private PunishmentManager punishmentManager;
+    private ExpiryManager expiryManager;
+    private RecipientManager recipientManager;
+    private NotificationManager notificationManager;
+    private PlayerTicker playerTicker;
     private FreezeManager freezeManager;
+    private CommandPolicyManager commandPolicyManager;
     private StaffModeManager staffModeManager;
     private GuiManager guiManager;
     private WebApiManager webApiManager;
+    private QueryServer queryServer;
+    private DiscordWebhook discordWebhook;
+    private DigestManager digestManager;
     private MessageUtil messageUtil;
     
     @Override
@@ -61,9 +73,32 @@ public class StaffSystemPlugin extends JavaPlugin {
     
     @Override
     public void onDisable() {
-        // Save all data
+        // Deliver any broadcasts still waiting for the next window
+        if (notificationManager != null) {
+            notificationManager.flush();
+        }
+
+        // Save all data (freezes persist across restarts)
         if (freezeManager != null) {
-            freezeManager.unfreezeAll();
+            freezeManager.shutdown();
+        }
+
+        if (queryServer != null) {
+            queryServer.stop();
+        }
+
+        // Send the moderation digest collected so far
+        if (digestManager != null) {
+            digestManager.shutdown();
+        }
+
+        if (discordWebhook != null) {
+            discordWebhook.shutdown(5, TimeUnit.SECONDS);
+        }
+
+        // Send web API events still waiting for the next batch
+        if (webApiManager != null) {
+            webApiManager.shutdown();
         }
         
         // Close database connection
@@ -81,9 +116,24 @@ public class StaffSystemPlugin extends JavaPlugin {
         
         // Punishment manager
         punishmentManager = new PunishmentManager(this);
+
+        // Expiry manager
+        expiryManager = new ExpiryManager(this);
         
+        // Recipient manager
+        recipientManager = new RecipientManager(this);
+
+        // Notification manager
+        notificationManager = new NotificationManager(this);
+
+        // Per-player periodic tasks
+        playerTicker = new PlayerTicker(this);
+
         // Freeze manager
         freezeManager = new FreezeManager(this);
+
+        // Command policy manager
+        commandPolicyManager = new CommandPolicyManager(this);
         
         // Staff mode manager
         staffModeManager = new StaffModeManager(this);
@@ -95,6 +145,26 @@ public class StaffSystemPlugin extends JavaPlugin {
         if (getConfig().getBoolean("web-integration.enabled", false)) {
             webApiManager = new WebApiManager(this);
         }
+
+        // Discord webhook
+        String discordWebhookUrl = getConfig().getString("discord.webhook-url");
+        if (getConfig().getBoolean("discord.enabled", false) && DiscordWebhook.isConfigured(discordWebhookUrl)) {
+            discordWebhook = new DiscordWebhook(this, discordWebhookUrl);
+        }
+
+        // Moderation digests
+        if (getConfig().getBoolean("discord.enabled", false) && getConfig().getBoolean("discord.digest.enabled", false)) {
+            digestManager = new DigestManager(this);
+        }
+
+        // Read-only query API
+        if (getConfig().getBoolean("query-api.enabled", false)) {
+            try {
+                queryServer = new QueryServer(this);
+            } catch (IOException e) {
+                getLogger().severe("Failed to start the query API: " + e.getMessage());
+            }
+        }
     }
     
     private void registerCommands() {
@@ -122,9 +192,13 @@ public class StaffSystemPlugin extends JavaPlugin {
     
     private void registerListeners() {
         Bukkit.getPluginManager().registerEvents(new PlayerJoinListener(this), this);
-        Bukkit.getPluginManager().registerEvents(new PlayerChatListener(this), this);
-        Bukkit.getPluginManager().registerEvents(new PlayerMoveListener(this), this);
+        // On Paper, handle chat on AsyncChatEvent instead of the legacy event (restart to change)
+        PlayerChatListener chatListener = new PlayerChatListener(this);
+        if (!messageUtil.isAdventureEnabled() || !PaperChatListener.register(this, chatListener)) {
+            Bukkit.getPluginManager().registerEvents(chatListener, this);
+        }
         Bukkit.getPluginManager().registerEvents(new PlayerQuitListener(this), this);
+        Bukkit.getPluginManager().registerEvents(new PlayerWorldListener(this), this);
         Bukkit.getPluginManager().registerEvents(new InventoryClickListener(this), this);
         Bukkit.getPluginManager().registerEvents(new PlayerCommandListener(this), this);
     }
@@ -132,6 +206,8 @@ public class StaffSystemPlugin extends JavaPlugin {
     public void reload() {
         reloadConfig();
         messageUtil.reload();
+        commandPolicyManager.reload();
+        recipientManager.reload();
         getLogger().info("Configuration reloaded!");
     }
     
@@ -148,10 +224,30 @@ public class StaffSystemPlugin extends JavaPlugin {
         return punishmentManager;
     }
     
+    public ExpiryManager getExpiryManager() {
+        return expiryManager;
+    }
+    
+    public RecipientManager getRecipientManager() {
+        return recipientManager;
+    }
+
+    public NotificationManager getNotificationManager() {
+        return notificationManager;
+    }
+
+    public PlayerTicker getPlayerTicker() {
+        return playerTicker;
+    }
+
     public FreezeManager getFreezeManager() {
         return freezeManager;
     }
     
+    public CommandPolicyManager getCommandPolicyManager() {
+        return commandPolicyManager;
+    }
+
     public StaffModeManager getStaffModeManager() {
         return staffModeManager;
     }
@@ -164,6 +260,18 @@ public class StaffSystemPlugin extends JavaPlugin {
         return webApiManager;
     }
     
+    public QueryServer getQueryServer() {
+        return queryServer;
+    }
+    
+    public DiscordWebhook getDiscordWebhook() {
+        return discordWebhook;
+    }
+    
+    public DigestManager getDigestManager() {
+        return digestManager;
+    }
+    
     public MessageUtil getMessageUtil() {
         return messageUtil;
     }
@@ -0,0 +1,238 @@
+package com.staffsystem.plugin.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.staffsystem.plugin.StaffSystemPlugin;
+
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies punishments revoked on the web dashboard to this server. The feed is long-polled:
+ * the dashboard holds each request until a change arrives or the wait runs out, so a
+ * revocation is usually applied within one round trip of being made. Changes are applied
+ * in batches, and the cursor (the last change applied) is stored in sync_state afterwards,
+ * so changes made while the server was down are applied on the next start and a batch
+ * interrupted by a crash is applied again (which is harmless).
+ *
+ * Propagation delay is measured from the dashboard's clock to ours, so it includes any
+ * clock skew between the two machines.
+ */
+public class ChangeFeed {
+
+    // Punishments are always recorded as server "main" (see Punishment)
+    private static final String SERVER = "main";
+    private static final String CURSOR = "change-feed.cursor";
+
+    private final StaffSystemPlugin plugin;
+    private final OkHttpClient httpClient;
+    private final HttpUrl changesUrl;
+    private final Headers headers;
+    private final int batchSize;
+    private final long maxBackoffMillis;
+    private final ExecutorService executor;
+
+    private volatile boolean stopped;
+    private volatile Call call;
+
+    private volatile long cursor = -1;
+    private volatile long changesApplied;
+    private volatile long revocationsApplied;
+    private volatile long lastDelayMillis;
+    private volatile long maxDelayMillis;
+    private volatile long totalDelayMillis;
+    private volatile long delaysMeasured; // Changes that carried a changedAt
+    private volatile String lastError;
+
+    public ChangeFeed(StaffSystemPlugin plugin, OkHttpClient httpClient, String apiUrl, String apiKey) {
+        this.plugin = plugin;
+        int waitSeconds = Math.max(1, Math.min(25, plugin.getConfig().getInt("performance.change-feed.wait", 25)));
+        this.batchSize = Math.max(1, Math.min(500, plugin.getConfig().getInt("performance.change-feed.batch-size", 500)));
+        this.maxBackoffMillis = Math.max(1, plugin.getConfig().getLong("performance.change-feed.max-backoff", 60)) * 1000;
+
+        // A long-poll is held open for the whole wait; give it room beyond the usual read timeout
+        this.httpClient = httpClient.newBuilder()
+            .readTimeout(waitSeconds + 15, TimeUnit.SECONDS)
+            .build();
+        this.changesUrl = HttpUrl.get(apiUrl + "/sync/changes").newBuilder()
+            .addQueryParameter("server", SERVER)
+            .addQueryParameter("wait", String.valueOf(waitSeconds))
+            .addQueryParameter("limit", String.valueOf(batchSize))
+            .build();
+        this.headers = new Headers.Builder()
+            .add("Authorization", "Bearer " + apiKey)
+            .build();
+
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "StaffSystem-ChangeFeed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (plugin.getConfig().getBoolean("performance.change-feed.enabled", true)) {
+            executor.execute(this::run);
+        }
+    }
+
+    public void shutdown() {
+        stopped = true;
+        Call current = call;
+        if (current != null) {
+            current.cancel();
+        }
+        executor.shutdownNow();
+    }
+
+    private void run() {
+        long position = plugin.getDatabaseManager().getSyncState(CURSOR).join();
+        cursor = position;
+        int failures = 0;
+        while (!stopped) {
+            try {
+                position = poll(position);
+                failures = 0;
+                lastError = null;
+            } catch (IOException | RuntimeException e) {
+                if (stopped) {
+                    return;
+                }
+                lastError = e.getMessage();
+                if (failures++ == 0) {
+                    plugin.getLogger().warning("Could not read revocations from the web dashboard: " + e.getMessage() +
+                        "; retrying in the background");
+                }
+                try {
+                    Thread.sleep(Math.min(maxBackoffMillis, 1000L << Math.min(failures, 16)));
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait for the next batch of changes after position and apply it.
+     *
+     * @return The new position
+     */
+    private long poll(long position) throws IOException {
+        Request request = new Request.Builder()
+            .url(changesUrl.newBuilder().addQueryParameter("after", String.valueOf(position)).build())
+            .headers(headers)
+            .build();
+        Call current = httpClient.newCall(request);
+        call = current;
+        if (stopped) {
+            current.cancel();
+        }
+
+        JsonObject body;
+        try (Response response = current.execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("HTTP " + response.code());
+            }
+            body = JsonParser.parseString(response.body().string()).getAsJsonObject();
+        }
+
+        JsonArray changes = body.getAsJsonArray("changes");
+        long next = body.get("cursor").getAsLong();
+        if (changes.size() == 0) {
+            JsonElement latest = body.get("latest");
+            if (latest != null && latest.getAsLong() < position) {
+                // The dashboard lost changes we had applied; reapplying its feed from the start is harmless
+                plugin.getLogger().warning("The web dashboard's change feed ends at " + latest.getAsLong() +
+                    ", before change " + position + " applied here; reading it again from the start");
+                cursor = 0;
+                return 0;
+            }
+            return position;
+        }
+
+        List<Integer> revokedIds = new ArrayList<>();
+        long[] changedAt = new long[changes.size()];
+        for (int i = 0; i < changes.size(); i++) {
+            JsonObject change = changes.get(i).getAsJsonObject();
+            if ("REVOKE".equals(change.get("action").getAsString())) {
+                revokedIds.add(change.get("id").getAsInt());
+            }
+            JsonElement time = change.get("changedAt");
+            changedAt[i] = time != null ? time.getAsLong() : 0;
+        }
+
+        int revoked = revokedIds.isEmpty() ? 0 : plugin.getPunishmentManager().applyRemoteRevocations(revokedIds).join();
+        if (revoked < 0) {
+            throw new IOException("Could not apply revocations to the database");
+        }
+        if (!plugin.getDatabaseManager().setSyncState(CURSOR, next).join()) {
+            throw new IOException("Could not store the change feed cursor");
+        }
+        recordDelays(changedAt, System.currentTimeMillis());
+        changesApplied += changes.size();
+        revocationsApplied += revoked;
+        cursor = next;
+
+        if (revoked > 0) {
+            plugin.getLogger().info("Applied " + revoked + " punishments revoked on the web dashboard (" +
+                lastDelayMillis + "ms after the revocation)");
+        }
+        return next;
+    }
+
+    private void recordDelays(long[] changedAt, long now) {
+        for (long time : changedAt) {
+            if (time > 0) {
+                long delay = Math.max(0, now - time);
+                lastDelayMillis = delay;
+                maxDelayMillis = Math.max(maxDelayMillis, delay);
+                totalDelayMillis += delay;
+                delaysMeasured++;
+            }
+        }
+    }
+
+    /**
+     * @return The last change applied, or -1 before the cursor is loaded
+     */
+    public long getCursor() {
+        return cursor;
+    }
+
+    public long getChangesApplied() {
+        return changesApplied;
+    }
+
+    /**
+     * @return Revocations that deactivated a punishment here (the rest were already inactive)
+     */
+    public long getRevocationsApplied() {
+        return revocationsApplied;
+    }
+
+    public long getLastDelayMillis() {
+        return lastDelayMillis;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    public double getAverageDelayMillis() {
+        return delaysMeasured == 0 ? 0 : (double) totalDelayMillis / delaysMeasured;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
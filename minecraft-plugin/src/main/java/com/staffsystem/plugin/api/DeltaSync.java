@@ -0,0 +1,280 @@
+package com.staffsystem.plugin.api;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.managers.DatabaseManager;
+import com.staffsystem.plugin.models.Punishment;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Sends the dashboard every punishment inserted or updated since the last change it
+ * acknowledged, in large pages ordered by change_seq (a high-water mark). The dashboard
+ * stores the acknowledged sequence in the same transaction as each page, so an
+ * interrupted sync resumes after the last applied page, and a dashboard restored from a
+ * backup or newly installed is sent everything it is missing.
+ *
+ * Pages are paced so the dashboard is never flooded: at most max-rows-per-second, and
+ * idle for at least as long as the dashboard took to apply the previous page (with the
+ * default duty cycle). 429 and 503 answers are retried after their Retry-After.
+ */
+public class DeltaSync {
+
+    // Punishments are always recorded as server "main" (see Punishment)
+    private static final String SERVER = "main";
+    private static final String ACKNOWLEDGED = "delta-sync.acknowledged";
+    private static final int MAX_RETRIES = 5;
+
+    private final StaffSystemPlugin plugin;
+    private final WebhookBatcher batcher;
+    private final OkHttpClient httpClient;
+    private final HttpUrl cursorUrl;
+    private final HttpUrl pageUrl;
+    private final Headers headers;
+    private final int pageSize;
+    private final int maxRowsPerSecond;
+    private final double dutyCycle;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile long rowsSent;
+    private volatile long pagesSent;
+    private volatile long acknowledged = -1;
+    private volatile long lastRunMillis;
+    private volatile String lastError;
+
+    public DeltaSync(StaffSystemPlugin plugin, WebhookBatcher batcher, OkHttpClient httpClient,
+                     String apiUrl, String apiKey) {
+        this.plugin = plugin;
+        this.batcher = batcher;
+        this.httpClient = httpClient;
+        this.cursorUrl = HttpUrl.get(apiUrl + "/sync/cursor").newBuilder().addQueryParameter("server", SERVER).build();
+        this.pageUrl = HttpUrl.get(apiUrl + "/sync/punishments");
+        this.headers = new Headers.Builder()
+            .add("Authorization", "Bearer " + apiKey)
+            .build();
+        this.pageSize = Math.max(1, plugin.getConfig().getInt("performance.delta-sync.page-size", 1000));
+        this.maxRowsPerSecond = Math.max(1, plugin.getConfig().getInt("performance.delta-sync.max-rows-per-second", 5000));
+        this.dutyCycle = Math.max(0.05, Math.min(1, plugin.getConfig().getDouble("performance.delta-sync.max-duty-cycle", 0.5)));
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "StaffSystem-DeltaSync");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = plugin.getConfig().getLong("performance.delta-sync.interval", 60);
+        if (interval > 0) {
+            executor.scheduleWithFixedDelay(() -> {
+                if (running.compareAndSet(false, true)) {
+                    runExclusive(false);
+                }
+            }, 10, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Start a sync in the background.
+     *
+     * @param full Resend every punishment instead of the changes since the dashboard's cursor
+     * @return The number of rows sent, or -1 if a sync is already running or it failed
+     */
+    public CompletableFuture<Long> sync(boolean full) {
+        if (!running.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(-1L);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> runExclusive(full), executor);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            return CompletableFuture.completedFuture(-1L);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private long runExclusive(boolean full) {
+        long start = System.currentTimeMillis();
+        try {
+            long sent = run(full);
+            lastError = null;
+            if (sent > 0) {
+                plugin.getLogger().info("Synced " + sent + " changed punishments to the web dashboard");
+            }
+            return sent;
+        } catch (IOException | RuntimeException e) {
+            lastError = e.getMessage();
+            plugin.getLogger().warning("Punishment sync with the web dashboard stopped: " + e.getMessage() +
+                "; it will resume from the last acknowledged change");
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } finally {
+            lastRunMillis = System.currentTimeMillis() - start;
+            running.set(false);
+        }
+    }
+
+    private long run(boolean full) throws IOException, InterruptedException {
+        DatabaseManager database = plugin.getDatabaseManager();
+        long cursor = 0;
+        if (!full) {
+            // The two only disagree if either database was restored from a backup (or a
+            // page was applied just before a crash); resending from the lower one covers both
+            long remote = fetchCursor();
+            long local = database.getSyncState(ACKNOWLEDGED).join();
+            cursor = Math.min(remote, local);
+            if (remote != local) {
+                plugin.getLogger().info("Web dashboard acknowledged punishment changes up to " + remote +
+                    ", this server recorded " + local + "; resending from " + cursor);
+            }
+        }
+        acknowledged = cursor;
+
+        long sent = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Punishment> page = database.getPunishmentChanges(cursor, pageSize).join();
+            if (page == null) {
+                throw new IOException("Could not read changed punishments");
+            }
+            if (page.isEmpty()) {
+                break;
+            }
+
+            long to = page.get(page.size() - 1).getChangeSeq();
+            long started = System.nanoTime();
+            long next = sendPage(cursor, to, page);
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+            // A cursor other than ours means the dashboard is behind; continue from its position
+            if (next == to) {
+                sent += page.size();
+                rowsSent += page.size();
+                pagesSent++;
+            }
+            cursor = next;
+            acknowledged = cursor;
+            database.setSyncState(ACKNOWLEDGED, cursor).join();
+
+            long pauseMillis = Math.max(page.size() * 1000L / maxRowsPerSecond - elapsedMillis,
+                (long) (elapsedMillis * (1 - dutyCycle) / dutyCycle));
+            if (pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        }
+        return sent;
+    }
+
+    private long fetchCursor() throws IOException, InterruptedException {
+        Request request = new Request.Builder().url(cursorUrl).headers(headers).build();
+        return call(() -> request);
+    }
+
+    /**
+     * @return The dashboard's cursor after the page: to once applied, or its own position if it rejected a gap
+     */
+    private long sendPage(long from, long to, List<Punishment> page) throws IOException, InterruptedException {
+        return call(() -> {
+            EventPayload body = writer -> {
+                writer.beginObject(4);
+                writer.field("server", SERVER);
+                writer.field("from", from);
+                writer.field("to", to);
+                writer.name("rows");
+                writer.beginArray(page.size());
+                for (Punishment punishment : page) {
+                    WebApiManager.toSyncPayload(punishment).writeTo(writer);
+                }
+                writer.endArray();
+                writer.endObject();
+            };
+            return new Request.Builder()
+                .url(pageUrl)
+                .headers(headers)
+                .header("Content-Encoding", "gzip")
+                .post(new EncodedBody(batcher.getCodec(), body))
+                .build();
+        });
+    }
+
+    // Returns the "seq" of the response, retrying on 429/503 and falling back to JSON on 415
+    private long call(Supplier<Request> requests) throws IOException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            Request request = requests.get();
+            try (Response response = httpClient.newCall(request).execute()) {
+                int code = response.code();
+                if (response.isSuccessful() || code == 409) {
+                    JsonObject body = JsonParser.parseString(response.body().string()).getAsJsonObject();
+                    return body.get("seq").getAsLong();
+                }
+                if (code == 415 && request.body() instanceof EncodedBody encoded &&
+                    encoded.getCodec() != JsonEventCodec.INSTANCE) {
+                    batcher.setCodec(JsonEventCodec.INSTANCE);
+                    continue;
+                }
+                if ((code == 429 || code == 503) && attempt < MAX_RETRIES) {
+                    Thread.sleep(getRetryAfterMillis(response, attempt));
+                    continue;
+                }
+                throw new IOException("HTTP " + code);
+            }
+        }
+    }
+
+    private static long getRetryAfterMillis(Response response, int attempt) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter != null) {
+            try {
+                return Math.max(0, Math.min(300, Long.parseLong(retryAfter.trim()))) * 1000;
+            } catch (NumberFormatException e) {
+                // An HTTP date; fall back to our own backoff
+            }
+        }
+        return 5000L << Math.min(attempt, 5);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public long getRowsSent() {
+        return rowsSent;
+    }
+
+    public long getPagesSent() {
+        return pagesSent;
+    }
+
+    /**
+     * @return The last change the dashboard acknowledged, or -1 before the first sync
+     */
+    public long getAcknowledged() {
+        return acknowledged;
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
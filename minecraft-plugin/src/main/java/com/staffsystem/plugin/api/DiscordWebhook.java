@@ -0,0 +1,386 @@
+package com.staffsystem.plugin.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.models.Punishment;
+import com.staffsystem.plugin.utils.TimeUtil;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Posts notifications straight to a Discord webhook (discord.webhook-url) instead of
+ * relaying them through the web dashboard. Embeds are queued and sent by one thread,
+ * packed up to 10 to a message, so a burst of punishments becomes a few messages.
+ *
+ * Discord's rate limits are followed rather than discovered: when a response says the
+ * route has no requests left, sending pauses until the bucket resets, and a 429 is
+ * retried after its retry_after. Queued embeds keep accumulating meanwhile, which is
+ * what fills the messages under load.
+ */
+public class DiscordWebhook {
+
+    // Discord's limits for one webhook message
+    private static final int MAX_EMBEDS = 10;
+    private static final int MAX_MESSAGE_CHARS = 6000;
+    private static final int MAX_FIELD_CHARS = 1024;
+    private static final Set<String> TEXT_KEYS = Set.of("title", "description", "name", "value", "text");
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private final StaffSystemPlugin plugin;
+    private final OkHttpClient httpClient;
+    private final String url;
+    private final int maxQueue;
+    private final int maxRetries;
+    private final ScheduledExecutorService sender;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    // Guarded by this
+    private final Deque<JsonObject> queue = new ArrayDeque<>();
+    private boolean sending;
+    private boolean queueFullWarned;
+
+    // Only touched by the sender thread
+    private long blockedUntil;
+    private int failures;
+
+    private volatile long messagesSent;
+    private volatile long embedsSent;
+    private volatile long rateLimitedCount;
+    private volatile String lastError;
+
+    public DiscordWebhook(StaffSystemPlugin plugin, String url) {
+        this.plugin = plugin;
+        this.url = url;
+        this.maxQueue = Math.max(MAX_EMBEDS, plugin.getConfig().getInt("performance.discord.max-queue", 1000));
+        this.maxRetries = Math.max(0, plugin.getConfig().getInt("performance.discord.max-retries", 5));
+        this.httpClient = new OkHttpClient.Builder()
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .writeTimeout(10, TimeUnit.SECONDS)
+            .readTimeout(15, TimeUnit.SECONDS)
+            .build();
+
+        this.sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "StaffSystem-Discord");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Whether a configured webhook URL is a real one rather than empty or the shipped placeholder.
+     */
+    public static boolean isConfigured(String url) {
+        return url != null && url.startsWith("http") && !url.endsWith("/your-webhook-url");
+    }
+
+    public void sendPunishment(Punishment punishment) {
+        send(toEmbed(punishment));
+    }
+
+    public void sendFreeze(String playerName, String staffName, boolean frozen) {
+        JsonObject embed = new JsonObject();
+        embed.addProperty("title", "Player " + (frozen ? "Frozen" : "Unfrozen"));
+        embed.addProperty("color", frozen ? 0x00BFFF : 0x90EE90);
+        JsonArray fields = new JsonArray();
+        fields.add(field("Player", playerName, true));
+        fields.add(field("Staff", staffName, true));
+        embed.add("fields", fields);
+        embed.addProperty("timestamp", Instant.now().toString());
+        embed.add("footer", footer());
+        send(embed);
+    }
+
+    /**
+     * Queue an embed. Safe to call from any thread.
+     *
+     * @return False if the queue is full and the embed was dropped
+     */
+    public boolean send(JsonObject embed) {
+        synchronized (this) {
+            if (queue.size() >= maxQueue) {
+                droppedCount.incrementAndGet();
+                // Warn once per overflow rather than once per dropped embed
+                if (!queueFullWarned) {
+                    queueFullWarned = true;
+                    plugin.getLogger().warning("Discord notification queue is full; dropping new notifications");
+                }
+                return false;
+            }
+            queueFullWarned = false;
+            queue.add(embed);
+            if (sending) {
+                return true;
+            }
+            sending = true;
+        }
+        try {
+            sender.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; shutdown() reports what is left
+        }
+        return true;
+    }
+
+    /**
+     * Send what is queued, waiting up to the given time (including any rate limit pause).
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            while (isSending() && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sender.shutdownNow();
+        int left = getQueueSize();
+        if (left > 0) {
+            plugin.getLogger().warning("Timed out sending " + left + " queued Discord notifications");
+        }
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    private synchronized boolean isSending() {
+        return sending;
+    }
+
+    private void drain() {
+        while (true) {
+            long waitMillis = blockedUntil - System.currentTimeMillis();
+            if (waitMillis > 0) {
+                // Stays "sending"; embeds queued meanwhile go out together when the pause ends
+                sender.schedule(this::drain, waitMillis, TimeUnit.MILLISECONDS);
+                return;
+            }
+
+            List<JsonObject> batch = new ArrayList<>(MAX_EMBEDS);
+            synchronized (this) {
+                int chars = 0;
+                while (batch.size() < MAX_EMBEDS && !queue.isEmpty()) {
+                    int length = getTextLength(queue.peek());
+                    if (!batch.isEmpty() && chars + length > MAX_MESSAGE_CHARS) {
+                        break;
+                    }
+                    chars += length;
+                    batch.add(queue.poll());
+                }
+                if (batch.isEmpty()) {
+                    sending = false;
+                    return;
+                }
+            }
+
+            if (!post(batch)) {
+                synchronized (this) {
+                    for (int i = batch.size() - 1; i >= 0; i--) {
+                        queue.addFirst(batch.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return False if the batch should be sent again (after blockedUntil)
+     */
+    private boolean post(List<JsonObject> batch) {
+        JsonObject message = new JsonObject();
+        JsonArray embeds = new JsonArray(batch.size());
+        batch.forEach(embeds::add);
+        message.add("embeds", embeds);
+        Request request = new Request.Builder()
+            .url(url)
+            .post(RequestBody.create(message.toString(), JSON))
+            .build();
+
+        int code;
+        try (Response response = httpClient.newCall(request).execute()) {
+            code = response.code();
+            long now = System.currentTimeMillis();
+            if (code == 429) {
+                rateLimitedCount++;
+                blockedUntil = Math.max(blockedUntil, now + getRetryAfterMillis(response));
+                return false;
+            }
+            // Pause before the bucket runs dry instead of finding out with a 429
+            String remaining = response.header("X-RateLimit-Remaining");
+            String resetAfter = response.header("X-RateLimit-Reset-After");
+            if ("0".equals(remaining) && resetAfter != null) {
+                blockedUntil = Math.max(blockedUntil, now + parseSecondsMillis(resetAfter));
+            }
+            if (response.isSuccessful()) {
+                messagesSent++;
+                embedsSent += batch.size();
+                failures = 0;
+                lastError = null;
+                return true;
+            }
+        } catch (IOException e) {
+            return retryLater(batch, e.getMessage());
+        }
+
+        if (code >= 500) {
+            return retryLater(batch, "HTTP " + code);
+        }
+        // Malformed embeds or a deleted webhook; sending them again won't help
+        lastError = "HTTP " + code;
+        droppedCount.addAndGet(batch.size());
+        plugin.getLogger().warning("Discord rejected " + batch.size() + " notifications: HTTP " + code);
+        return true;
+    }
+
+    private boolean retryLater(List<JsonObject> batch, String error) {
+        lastError = error;
+        if (++failures > maxRetries) {
+            plugin.getLogger().warning("Giving up on " + batch.size() + " Discord notifications: " + error);
+            droppedCount.addAndGet(batch.size());
+            failures = 0;
+            return true;
+        }
+        blockedUntil = System.currentTimeMillis() + Math.min(60_000L, 1000L << Math.min(failures, 6));
+        return false;
+    }
+
+    private static long getRetryAfterMillis(Response response) {
+        // The body's retry_after has millisecond precision; the header is whole seconds
+        try {
+            String body = response.body() != null ? response.body().string() : "";
+            JsonElement retryAfter = JsonParser.parseString(body).getAsJsonObject().get("retry_after");
+            if (retryAfter != null) {
+                return (long) Math.ceil(retryAfter.getAsDouble() * 1000);
+            }
+        } catch (IOException | JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            // Fall back to the headers
+        }
+        String header = response.header("Retry-After");
+        return header != null ? parseSecondsMillis(header) : 5000;
+    }
+
+    private static long parseSecondsMillis(String seconds) {
+        try {
+            return Math.max(0, (long) Math.ceil(Double.parseDouble(seconds.trim()) * 1000));
+        } catch (NumberFormatException e) {
+            return 5000;
+        }
+    }
+
+    // The characters Discord counts towards a message's 6000
+    private static int getTextLength(JsonObject object) {
+        int length = 0;
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            JsonElement value = entry.getValue();
+            if (value.isJsonObject()) {
+                length += getTextLength(value.getAsJsonObject());
+            } else if (value.isJsonArray()) {
+                for (JsonElement element : value.getAsJsonArray()) {
+                    if (element.isJsonObject()) {
+                        length += getTextLength(element.getAsJsonObject());
+                    }
+                }
+            } else if (TEXT_KEYS.contains(entry.getKey()) && value.isJsonPrimitive()) {
+                length += value.getAsString().length();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * The same embed the web dashboard posts for a punishment.
+     */
+    public static JsonObject toEmbed(Punishment punishment) {
+        JsonObject embed = new JsonObject();
+        embed.addProperty("title", punishment.getType().name().replace('_', ' ') + " - " + punishment.getPlayerName());
+        embed.addProperty("color", getColor(punishment.getType()));
+        JsonArray fields = new JsonArray();
+        fields.add(field("Player", punishment.getPlayerName(), true));
+        fields.add(field("Staff", punishment.getStaffName(), true));
+        String reason = punishment.getReason();
+        fields.add(field("Reason", reason != null && !reason.isEmpty() ? reason : "No reason specified", false));
+        switch (punishment.getType()) {
+            case BAN, TEMP_BAN, MUTE, TEMP_MUTE -> fields.add(field("Duration", TimeUtil.formatDuration(punishment.getDuration()), true));
+            default -> {
+            }
+        }
+        embed.add("fields", fields);
+        embed.addProperty("timestamp", Instant.ofEpochMilli(punishment.getTimestamp()).toString());
+        embed.add("footer", footer());
+        return embed;
+    }
+
+    public static int getColor(Punishment.PunishmentType type) {
+        return switch (type) {
+            case BAN, TEMP_BAN -> 0xFF0000;
+            case MUTE, TEMP_MUTE -> 0xFFA500;
+            case KICK -> 0xFFFF00;
+            case WARN -> 0x90EE90;
+        };
+    }
+
+    public static JsonObject field(String name, String value, boolean inline) {
+        // Discord rejects empty or over-long field values
+        if (value == null || value.isEmpty()) {
+            value = "-";
+        } else if (value.length() > MAX_FIELD_CHARS) {
+            value = value.substring(0, MAX_FIELD_CHARS - 3) + "...";
+        }
+        JsonObject field = new JsonObject();
+        field.addProperty("name", name);
+        field.addProperty("value", value);
+        field.addProperty("inline", inline);
+        return field;
+    }
+
+    public static JsonObject footer() {
+        JsonObject footer = new JsonObject();
+        footer.addProperty("text", "StaffSystem");
+        return footer;
+    }
+
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getMessagesSent() {
+        return messagesSent;
+    }
+
+    public long getEmbedsSent() {
+        return embedsSent;
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimitedCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
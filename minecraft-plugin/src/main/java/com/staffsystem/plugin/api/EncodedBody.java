@@ -0,0 +1,91 @@
+package com.staffsystem.plugin.api;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.GzipSink;
+import okio.Okio;
+import okio.Sink;
+
+import java.io.IOException;
+
+/**
+ * A request body encoded by an {@link EventCodec} through a gzip stream into the request
+ * as it is written. Writing again (OkHttp retries) re-encodes the same payload.
+ * Send it with a Content-Encoding: gzip header.
+ */
+final class EncodedBody extends RequestBody {
+
+    private final EventCodec codec;
+    private final EventPayload payload;
+    private volatile long rawBytes;
+    private volatile long compressedBytes;
+
+    EncodedBody(EventCodec codec, EventPayload payload) {
+        this.codec = codec;
+        this.payload = payload;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return codec.getMediaType();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        CountingSink compressed = new CountingSink(sink);
+        CountingSink raw = new CountingSink(new GzipSink(compressed));
+        BufferedSink encoded = Okio.buffer(raw);
+
+        try (EventWriter writer = codec.newWriter(encoded)) {
+            payload.writeTo(writer);
+        }
+        // Finishes the gzip stream; the counting sink keeps OkHttp's sink open
+        encoded.close();
+
+        rawBytes = raw.count;
+        compressedBytes = compressed.count;
+    }
+
+    EventCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * @return Encoded size of the last write before compression
+     */
+    long getRawBytes() {
+        return rawBytes;
+    }
+
+    long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    private static final class CountingSink extends ForwardingSink {
+        private final boolean closeDelegate;
+        private long count;
+
+        private CountingSink(Sink delegate) {
+            super(delegate);
+            this.closeDelegate = !(delegate instanceof BufferedSink);
+        }
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            super.write(source, byteCount);
+            count += byteCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closeDelegate) {
+                super.close();
+            } else {
+                flush();
+            }
+        }
+    }
+}
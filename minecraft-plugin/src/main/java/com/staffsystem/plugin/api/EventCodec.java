@@ -0,0 +1,19 @@
+package com.staffsystem.plugin.api;
+
+import okhttp3.MediaType;
+import okio.BufferedSink;
+
+import java.io.IOException;
+
+/**
+ * A wire format for web API events, picked by content type.
+ */
+public interface EventCodec {
+
+    MediaType getMediaType();
+
+    /**
+     * @return A writer that encodes into the sink; closing it flushes but leaves the sink open
+     */
+    EventWriter newWriter(BufferedSink sink) throws IOException;
+}
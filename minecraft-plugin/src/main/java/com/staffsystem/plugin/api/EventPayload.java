@@ -0,0 +1,12 @@
+package com.staffsystem.plugin.api;
+
+import java.io.IOException;
+
+/**
+ * The body of a web API event, written straight to the request instead of built as a tree first.
+ */
+@FunctionalInterface
+public interface EventPayload {
+
+    void writeTo(EventWriter writer) throws IOException;
+}
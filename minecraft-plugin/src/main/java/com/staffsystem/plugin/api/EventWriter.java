@@ -0,0 +1,92 @@
+package com.staffsystem.plugin.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Streams a document in an {@link EventCodec}'s wire format. Containers declare their
+ * size up front because binary formats write it before the contents; every field
+ * counted must be written, with a null value if it is absent.
+ */
+public interface EventWriter extends Closeable {
+
+    void beginArray(int size) throws IOException;
+
+    void endArray() throws IOException;
+
+    void beginObject(int fields) throws IOException;
+
+    void endObject() throws IOException;
+
+    void name(String name) throws IOException;
+
+    /**
+     * Write a string, or null.
+     */
+    void value(String value) throws IOException;
+
+    void value(long value) throws IOException;
+
+    void value(double value) throws IOException;
+
+    void value(boolean value) throws IOException;
+
+    default void field(String name, String value) throws IOException {
+        name(name);
+        value(value);
+    }
+
+    default void field(String name, long value) throws IOException {
+        name(name);
+        value(value);
+    }
+
+    default void field(String name, boolean value) throws IOException {
+        name(name);
+        value(value);
+    }
+
+    /**
+     * Write a parsed JSON document, such as an outbox payload stored as text.
+     */
+    default void element(JsonElement element) throws IOException {
+        if (element.isJsonNull()) {
+            value((String) null);
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            beginObject(object.size());
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                name(entry.getKey());
+                element(entry.getValue());
+            }
+            endObject();
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            beginArray(array.size());
+            for (JsonElement child : array) {
+                element(child);
+            }
+            endArray();
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                value(primitive.getAsBoolean());
+            } else if (primitive.isNumber()) {
+                double number = primitive.getAsDouble();
+                if (number == Math.rint(number) && Math.abs(number) < 0x1p53) {
+                    value(primitive.getAsLong());
+                } else {
+                    value(number);
+                }
+            } else {
+                value(primitive.getAsString());
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.staffsystem.plugin.api;
+
+import com.google.gson.stream.JsonWriter;
+
+import okhttp3.MediaType;
+import okio.Buffer;
+import okio.BufferedSink;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON through Gson's streaming {@link JsonWriter}.
+ */
+public class JsonEventCodec implements EventCodec {
+
+    public static final JsonEventCodec INSTANCE = new JsonEventCodec();
+
+    private static final MediaType MEDIA_TYPE = MediaType.get("application/json; charset=utf-8");
+
+    @Override
+    public MediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public EventWriter newWriter(BufferedSink sink) {
+        // JsonWriter writes punctuation a char at a time, which OutputStreamWriter turns into
+        // an allocation per char; buffering hands it whole chunks instead
+        return new Writer(new JsonWriter(new BufferedWriter(
+            new OutputStreamWriter(sink.outputStream(), StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Render a payload as JSON text, e.g. to store it in the outbox.
+     */
+    public static String toJson(EventPayload payload) {
+        Buffer buffer = new Buffer();
+        try (EventWriter writer = INSTANCE.newWriter(buffer)) {
+            payload.writeTo(writer);
+        } catch (IOException e) {
+            // Writing to an in-memory buffer doesn't fail
+            throw new IllegalStateException(e);
+        }
+        return buffer.readUtf8();
+    }
+
+    private static final class Writer implements EventWriter {
+        private final JsonWriter json;
+
+        private Writer(JsonWriter json) {
+            this.json = json;
+        }
+
+        @Override
+        public void beginArray(int size) throws IOException {
+            json.beginArray();
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            json.endArray();
+        }
+
+        @Override
+        public void beginObject(int fields) throws IOException {
+            json.beginObject();
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            json.endObject();
+        }
+
+        @Override
+        public void name(String name) throws IOException {
+            json.name(name);
+        }
+
+        @Override
+        public void value(String value) throws IOException {
+            json.value(value);
+        }
+
+        @Override
+        public void value(long value) throws IOException {
+            json.value(value);
+        }
+
+        @Override
+        public void value(double value) throws IOException {
+            json.value(value);
+        }
+
+        @Override
+        public void value(boolean value) throws IOException {
+            json.value(value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Flush the writer chain into the sink without closing the sink itself
+            json.flush();
+        }
+    }
+}
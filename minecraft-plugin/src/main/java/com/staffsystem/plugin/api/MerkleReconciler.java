@@ -0,0 +1,395 @@
+package com.staffsystem.plugin.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.managers.DatabaseManager;
+import com.staffsystem.plugin.models.Punishment;
+import com.staffsystem.plugin.models.RangeDigest;
+import com.staffsystem.plugin.utils.PunishmentDigest;
+
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks that the dashboard's copy of the punishments table matches ours without sending
+ * the table. Both sides digest id ranges (row count plus XOR of row hashes, see
+ * {@link PunishmentDigest}); only ranges whose digests differ are split further, and only
+ * small differing ranges are compared row by row. Rows the dashboard is missing or holds
+ * a stale version of are pushed again as sync events.
+ *
+ * Rows the dashboard revoked, and rows only the dashboard has, are counted but left alone:
+ * the plugin never reactivates a punishment, and the dashboard keeps its own revocations.
+ */
+public class MerkleReconciler {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    // Punishments are always recorded as server "main" (see Punishment)
+    private static final String SERVER = "main";
+    private static final int RANGES_PER_REQUEST = 256;
+    private static final int PUSH_PAGE_SPAN = 500;
+
+    private final StaffSystemPlugin plugin;
+    private final WebApiManager webApiManager;
+    private final OkHttpClient httpClient;
+    private final HttpUrl merkleUrl;
+    private final HttpUrl rowsUrl;
+    private final String apiKey;
+    private final int fanout;
+    private final int leafSize;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Report lastReport;
+
+    public MerkleReconciler(StaffSystemPlugin plugin, WebApiManager webApiManager, OkHttpClient httpClient,
+                            String apiUrl, String apiKey) {
+        this.plugin = plugin;
+        this.webApiManager = webApiManager;
+        this.httpClient = httpClient;
+        this.merkleUrl = HttpUrl.get(apiUrl + "/sync/merkle");
+        this.rowsUrl = HttpUrl.get(apiUrl + "/sync/merkle/rows");
+        this.apiKey = apiKey;
+        this.fanout = Math.max(2, Math.min(64, plugin.getConfig().getInt("performance.reconcile.fanout", 16)));
+        this.leafSize = Math.max(1, plugin.getConfig().getInt("performance.reconcile.leaf-size", 64));
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "StaffSystem-Reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = plugin.getConfig().getLong("performance.reconcile.interval", 360);
+        if (interval > 0) {
+            executor.scheduleWithFixedDelay(() -> {
+                if (running.compareAndSet(false, true)) {
+                    runExclusive();
+                }
+            }, interval, interval, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Start a reconciliation in the background.
+     *
+     * @return The report, or null if one is already running or it failed
+     */
+    public CompletableFuture<Report> reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return CompletableFuture.supplyAsync(this::runExclusive, executor);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Report runExclusive() {
+        try {
+            Report report = run();
+            if (report != null) {
+                lastReport = report;
+                plugin.getLogger().info("Reconciled punishments with the web dashboard: " + report);
+            }
+            return report;
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().warning("Failed to reconcile punishments with the web dashboard: " + e.getMessage());
+            return null;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Report run() throws IOException {
+        DatabaseManager database = plugin.getDatabaseManager();
+        Report report = new Report();
+        long start = System.nanoTime();
+
+        // Round 1: whole-table digest; identical copies stop here
+        JsonObject summary = call(new Request.Builder()
+            .url(merkleUrl.newBuilder().addQueryParameter("server", SERVER).build()), report);
+        long maxId = Math.max(database.getMaxPunishmentId().join(), summary.get("maxId").getAsLong());
+        report.rounds = 1;
+
+        List<long[]> pending = new ArrayList<>();
+        List<long[]> leaves = new ArrayList<>();
+        List<long[]> missing = new ArrayList<>();
+        if (maxId > 0) {
+            List<List<RangeDigest>> root = database.getRangeDigests(List.<long[]>of(new long[]{1, maxId + 1}), 1).join();
+            if (root == null) {
+                return null;
+            }
+            RangeDigest remoteRoot = new RangeDigest(1, maxId + 1, summary.get("count").getAsInt(),
+                PunishmentDigest.fromHex(summary.get("hash").getAsString()));
+            compare(root.get(0).get(0), remoteRoot, pending, leaves, missing, report);
+        }
+
+        // Descend into differing ranges one tree level per round
+        while (!pending.isEmpty()) {
+            report.rounds++;
+            List<long[]> next = new ArrayList<>();
+            for (List<long[]> chunk : partition(pending)) {
+                List<List<RangeDigest>> local = database.getRangeDigests(chunk, fanout).join();
+                List<List<RangeDigest>> remote = fetchRangeDigests(chunk, report);
+                if (local == null) {
+                    return null;
+                }
+                for (int i = 0; i < chunk.size(); i++) {
+                    for (int j = 0; j < local.get(i).size(); j++) {
+                        compare(local.get(i).get(j), remote.get(i).get(j), next, leaves, missing, report);
+                    }
+                }
+            }
+            pending = next;
+        }
+
+        // Compare small ranges row by row
+        List<Punishment> stale = new ArrayList<>();
+        for (List<long[]> chunk : partition(leaves)) {
+            report.rounds++;
+            Map<Long, long[]> remoteRows = fetchRows(chunk, report);
+            for (long[] leaf : chunk) {
+                for (Punishment punishment : database.getPunishmentsInIdRange(leaf[0], leaf[1]).join()) {
+                    long[] remote = remoteRows.remove((long) punishment.getId());
+                    if (remote == null) {
+                        stale.add(punishment);
+                    } else if (remote[0] == PunishmentDigest.hash(punishment)) {
+                        continue;
+                    } else if (remote[1] == 0 && punishment.isActive() &&
+                               remote[0] == PunishmentDigest.hash(punishment, false)) {
+                        report.revokedOnDashboard++;
+                    } else {
+                        stale.add(punishment);
+                    }
+                }
+            }
+            report.dashboardOnly += remoteRows.size();
+        }
+
+        push(stale, report);
+        for (long[] range : missing) {
+            for (long low = range[0]; low < range[1]; low += PUSH_PAGE_SPAN) {
+                push(database.getPunishmentsInIdRange(low, Math.min(range[1], low + PUSH_PAGE_SPAN)).join(), report);
+            }
+        }
+
+        report.durationMillis = (System.nanoTime() - start) / 1_000_000;
+        return report;
+    }
+
+    private void compare(RangeDigest local, RangeDigest remote, List<long[]> next, List<long[]> leaves,
+                         List<long[]> missing, Report report) {
+        report.rangesCompared++;
+        if (local.matches(remote)) {
+            return;
+        }
+
+        long[] range = {local.getLow(), local.getHigh()};
+        if (remote.getCount() == 0) {
+            missing.add(range); // Nothing to compare against; send the whole range
+        } else if (local.getCount() == 0) {
+            report.dashboardOnly += remote.getCount();
+        } else if (local.getHigh() - local.getLow() <= leafSize) {
+            leaves.add(range);
+        } else {
+            next.add(range);
+        }
+    }
+
+    private void push(List<Punishment> punishments, Report report) {
+        if (punishments.isEmpty()) {
+            return;
+        }
+        // Wait for each page so a large repair can't pile up in the batcher's queue
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(punishments.size());
+        for (Punishment punishment : punishments) {
+            results.add(webApiManager.syncPunishment(punishment));
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            if (result.join()) {
+                report.rowsPushed++;
+            } else {
+                report.pushFailures++;
+            }
+        }
+    }
+
+    private List<List<RangeDigest>> fetchRangeDigests(List<long[]> ranges, Report report) throws IOException {
+        JsonObject body = new JsonObject();
+        body.addProperty("server", SERVER);
+        body.addProperty("fanout", fanout);
+        body.add("ranges", toJson(ranges));
+        JsonArray result = call(post(merkleUrl, body, report), report).getAsJsonArray("ranges");
+        if (result == null || result.size() != ranges.size()) {
+            throw new IOException("Dashboard returned digests for the wrong ranges");
+        }
+
+        List<List<RangeDigest>> digests = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            long[] bounds = RangeDigest.split(ranges.get(i)[0], ranges.get(i)[1], fanout);
+            JsonArray children = result.get(i).getAsJsonArray();
+            if (children.size() != bounds.length - 1) {
+                throw new IOException("Dashboard split a range differently");
+            }
+            List<RangeDigest> list = new ArrayList<>(children.size());
+            for (int j = 0; j < children.size(); j++) {
+                JsonArray child = children.get(j).getAsJsonArray();
+                list.add(new RangeDigest(bounds[j], bounds[j + 1], child.get(0).getAsInt(),
+                    PunishmentDigest.fromHex(child.get(1).getAsString())));
+            }
+            digests.add(list);
+        }
+        return digests;
+    }
+
+    /**
+     * @return Row hash and active flag (1 or 0) by punishment id
+     */
+    private Map<Long, long[]> fetchRows(List<long[]> ranges, Report report) throws IOException {
+        JsonObject body = new JsonObject();
+        body.addProperty("server", SERVER);
+        body.add("ranges", toJson(ranges));
+        JsonArray rows = call(post(rowsUrl, body, report), report).getAsJsonArray("rows");
+
+        Map<Long, long[]> result = new HashMap<>();
+        for (JsonElement element : rows) {
+            JsonArray row = element.getAsJsonArray();
+            result.put(row.get(0).getAsLong(),
+                new long[]{PunishmentDigest.fromHex(row.get(1).getAsString()), row.get(2).getAsLong()});
+        }
+        return result;
+    }
+
+    private Request.Builder post(HttpUrl url, JsonObject body, Report report) {
+        String json = body.toString();
+        report.bytesSent += json.length();
+        return new Request.Builder().url(url).post(RequestBody.create(json, JSON));
+    }
+
+    private JsonObject call(Request.Builder request, Report report) throws IOException {
+        request.header("Authorization", "Bearer " + apiKey);
+        try (Response response = httpClient.newCall(request.build()).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("HTTP " + response.code());
+            }
+            String body = response.body().string();
+            report.bytesReceived += body.length();
+            return JsonParser.parseString(body).getAsJsonObject();
+        }
+    }
+
+    private static JsonArray toJson(List<long[]> ranges) {
+        JsonArray array = new JsonArray(ranges.size());
+        for (long[] range : ranges) {
+            JsonArray pair = new JsonArray(2);
+            pair.add(range[0]);
+            pair.add(range[1]);
+            array.add(pair);
+        }
+        return array;
+    }
+
+    private static List<List<long[]>> partition(List<long[]> ranges) {
+        List<List<long[]>> chunks = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i += RANGES_PER_REQUEST) {
+            chunks.add(ranges.subList(i, Math.min(ranges.size(), i + RANGES_PER_REQUEST)));
+        }
+        return chunks;
+    }
+
+    /**
+     * What a reconciliation found and did. Byte counts are request and response bodies.
+     */
+    public static final class Report {
+        private int rounds;
+        private long rangesCompared;
+        private long rowsPushed;
+        private long pushFailures;
+        private long revokedOnDashboard;
+        private long dashboardOnly;
+        private long bytesSent;
+        private long bytesReceived;
+        private long durationMillis;
+
+        public boolean isInSync() {
+            return rowsPushed == 0 && pushFailures == 0 && revokedOnDashboard == 0 && dashboardOnly == 0;
+        }
+
+        // Getters
+        public int getRounds() {
+            return rounds;
+        }
+
+        public long getRangesCompared() {
+            return rangesCompared;
+        }
+
+        public long getRowsPushed() {
+            return rowsPushed;
+        }
+
+        public long getPushFailures() {
+            return pushFailures;
+        }
+
+        public long getRevokedOnDashboard() {
+            return revokedOnDashboard;
+        }
+
+        public long getDashboardOnly() {
+            return dashboardOnly;
+        }
+
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return (isInSync() ? "in sync" : rowsPushed + " rows pushed (" + pushFailures + " failed), " +
+                revokedOnDashboard + " revoked on the dashboard, " + dashboardOnly + " only on the dashboard") +
+                "; " + rangesCompared + " ranges in " + rounds + " round trips, " +
+                (bytesSent + bytesReceived) + " bytes, " + durationMillis + "ms";
+        }
+    }
+}
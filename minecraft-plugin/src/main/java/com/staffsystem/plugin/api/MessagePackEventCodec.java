@@ -0,0 +1,135 @@
+package com.staffsystem.plugin.api;
+
+import okhttp3.MediaType;
+import okio.BufferedSink;
+import okio.Utf8;
+
+import java.io.IOException;
+
+/**
+ * MessagePack (msgpack.org), written directly to the sink. Integers use the smallest
+ * encoding that fits, which keeps ids, durations and flags to one to five bytes.
+ */
+public class MessagePackEventCodec implements EventCodec {
+
+    public static final MessagePackEventCodec INSTANCE = new MessagePackEventCodec();
+
+    private static final MediaType MEDIA_TYPE = MediaType.get("application/msgpack");
+
+    @Override
+    public MediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public EventWriter newWriter(BufferedSink sink) {
+        return new Writer(sink);
+    }
+
+    private static final class Writer implements EventWriter {
+        private final BufferedSink sink;
+
+        private Writer(BufferedSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void beginArray(int size) throws IOException {
+            if (size < 16) {
+                sink.writeByte(0x90 | size);
+            } else if (size < 0x10000) {
+                sink.writeByte(0xdc).writeShort(size);
+            } else {
+                sink.writeByte(0xdd).writeInt(size);
+            }
+        }
+
+        @Override
+        public void endArray() {
+            // Sized up front
+        }
+
+        @Override
+        public void beginObject(int fields) throws IOException {
+            if (fields < 16) {
+                sink.writeByte(0x80 | fields);
+            } else if (fields < 0x10000) {
+                sink.writeByte(0xde).writeShort(fields);
+            } else {
+                sink.writeByte(0xdf).writeInt(fields);
+            }
+        }
+
+        @Override
+        public void endObject() {
+            // Sized up front
+        }
+
+        @Override
+        public void name(String name) throws IOException {
+            value(name);
+        }
+
+        @Override
+        public void value(String value) throws IOException {
+            if (value == null) {
+                sink.writeByte(0xc0);
+                return;
+            }
+
+            long length = Utf8.size(value);
+            if (length < 32) {
+                sink.writeByte(0xa0 | (int) length);
+            } else if (length < 0x100) {
+                sink.writeByte(0xd9).writeByte((int) length);
+            } else if (length < 0x10000) {
+                sink.writeByte(0xda).writeShort((int) length);
+            } else {
+                sink.writeByte(0xdb).writeInt((int) length);
+            }
+            sink.writeUtf8(value);
+        }
+
+        @Override
+        public void value(long value) throws IOException {
+            if (value >= 0) {
+                if (value < 0x80) {
+                    sink.writeByte((int) value);
+                } else if (value < 0x100) {
+                    sink.writeByte(0xcc).writeByte((int) value);
+                } else if (value < 0x10000) {
+                    sink.writeByte(0xcd).writeShort((int) value);
+                } else if (value < 0x100000000L) {
+                    sink.writeByte(0xce).writeInt((int) value);
+                } else {
+                    sink.writeByte(0xcf).writeLong(value);
+                }
+            } else if (value >= -32) {
+                sink.writeByte((int) value);
+            } else if (value >= Byte.MIN_VALUE) {
+                sink.writeByte(0xd0).writeByte((int) value);
+            } else if (value >= Short.MIN_VALUE) {
+                sink.writeByte(0xd1).writeShort((int) value);
+            } else if (value >= Integer.MIN_VALUE) {
+                sink.writeByte(0xd2).writeInt((int) value);
+            } else {
+                sink.writeByte(0xd3).writeLong(value);
+            }
+        }
+
+        @Override
+        public void value(double value) throws IOException {
+            sink.writeByte(0xcb).writeLong(Double.doubleToLongBits(value));
+        }
+
+        @Override
+        public void value(boolean value) throws IOException {
+            sink.writeByte(value ? 0xc3 : 0xc2);
+        }
+
+        @Override
+        public void close() throws IOException {
+            sink.emit();
+        }
+    }
+}
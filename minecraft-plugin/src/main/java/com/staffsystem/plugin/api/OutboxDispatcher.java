@@ -0,0 +1,194 @@
+package com.staffsystem.plugin.api;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.models.OutboxEntry;
+import com.staffsystem.plugin.utils.CircuitBreaker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the outbox table into the {@link WebhookBatcher} on its own thread, so delivery
+ * never waits on a gameplay thread. An entry is deleted only once the dashboard has
+ * accepted it (at-least-once delivery; the dashboard drops repeats by idempotency key).
+ * Failed entries are retried with exponential backoff and jitter until max-attempts,
+ * after which they stay in the table as dead letters for /ss outbox. A circuit breaker
+ * pauses delivery while the dashboard keeps failing.
+ */
+public class OutboxDispatcher {
+
+    private final StaffSystemPlugin plugin;
+    private final WebhookBatcher batcher;
+    private final CircuitBreaker breaker;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean wakeScheduled = new AtomicBoolean();
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private volatile long delivered;
+    private volatile long failedAttempts;
+
+    public OutboxDispatcher(StaffSystemPlugin plugin, WebhookBatcher batcher) {
+        this.plugin = plugin;
+        this.batcher = batcher;
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("performance.outbox.batch-size", 100));
+        this.maxAttempts = Math.max(1, plugin.getConfig().getInt("performance.outbox.max-attempts", 12));
+        this.initialBackoffMillis = Math.max(100, plugin.getConfig().getLong("performance.outbox.initial-backoff", 5) * 1000);
+        this.maxBackoffMillis = Math.max(initialBackoffMillis,
+            plugin.getConfig().getLong("performance.outbox.max-backoff", 600) * 1000);
+        this.breaker = new CircuitBreaker(
+            plugin.getConfig().getInt("performance.outbox.breaker.failure-threshold", 3),
+            plugin.getConfig().getLong("performance.outbox.breaker.open-duration", 30) * 1000);
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "StaffSystem-Outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long pollInterval = Math.max(100, plugin.getConfig().getLong("performance.outbox.poll-interval", 1000));
+        executor.scheduleWithFixedDelay(this::drain, 0, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Deliver new entries now instead of at the next poll. Safe to call from any thread.
+     */
+    public void wake() {
+        if (wakeScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                wakeScheduled.set(false); // Shutting down; entries stay in the table
+            }
+        }
+    }
+
+    /**
+     * Stop polling and wait for the delivery in progress. Undelivered entries stay in the
+     * table and are sent after the next start.
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout, unit)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        wakeScheduled.set(false);
+        try {
+            while (breaker.allowRequest() && !executor.isShutdown()) {
+                // A half-open breaker gets one small trial batch
+                int limit = breaker.getState() == CircuitBreaker.State.HALF_OPEN ? 1 : batchSize;
+                List<OutboxEntry> entries = plugin.getDatabaseManager().getDueOutboxEntries(limit).join();
+                if (entries.isEmpty() || !deliver(entries) || entries.size() < limit) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("Outbox delivery failed: " + e.getMessage());
+        }
+    }
+
+    private boolean deliver(List<OutboxEntry> entries) {
+        List<OutboxEntry> sendable = new ArrayList<>(entries.size());
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(entries.size());
+        for (OutboxEntry entry : entries) {
+            JsonElement payload;
+            try {
+                payload = JsonParser.parseString(entry.getPayload());
+            } catch (JsonParseException e) {
+                // Can never succeed, so don't let it hold up the rest
+                markFailed(List.of(entry), "Unreadable payload", true);
+                continue;
+            }
+            sendable.add(entry);
+            results.add(batcher.submit(entry.getIdempotencyKey(), entry.getEvent(), writer -> writer.element(payload)));
+        }
+        if (sendable.isEmpty()) {
+            return true;
+        }
+
+        boolean success;
+        try {
+            success = CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> results.stream().allMatch(CompletableFuture::join))
+                .get(2, TimeUnit.MINUTES);
+        } catch (TimeoutException | ExecutionException e) {
+            success = false;
+        } catch (InterruptedException e) {
+            // Shutting down; the entries stay due and go out after the next start
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        if (success) {
+            breaker.recordSuccess();
+            plugin.getDatabaseManager().deleteOutboxEntries(sendable).join();
+            delivered += sendable.size();
+        } else {
+            breaker.recordFailure();
+            String error = batcher.getLastError();
+            markFailed(sendable, error != null ? error : "Delivery timed out", false);
+            if (breaker.getState() == CircuitBreaker.State.OPEN) {
+                plugin.getLogger().warning("Web API keeps failing; pausing outbox delivery for " +
+                    breaker.getRemainingOpenMillis() / 1000 + "s");
+            }
+        }
+        return success;
+    }
+
+    private void markFailed(List<OutboxEntry> entries, String error, boolean permanent) {
+        long now = System.currentTimeMillis();
+        long[] nextAttempts = new long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            nextAttempts[i] = now + getBackoffMillis(entries.get(i).getAttempts());
+        }
+        plugin.getDatabaseManager().markOutboxEntriesFailed(entries, nextAttempts, error,
+            permanent ? 0 : maxAttempts).join();
+        failedAttempts += entries.size();
+    }
+
+    // Exponential backoff with +/-20% jitter, so a recovering dashboard isn't hit by every entry at once
+    private long getBackoffMillis(int attempts) {
+        long backoff = initialBackoffMillis << Math.min(attempts, 30);
+        if (backoff <= 0 || backoff > maxBackoffMillis) {
+            backoff = maxBackoffMillis;
+        }
+        return (long) (backoff * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getDeliveredCount() {
+        return delivered;
+    }
+
+    public long getFailedAttemptCount() {
+        return failedAttempts;
+    }
+}
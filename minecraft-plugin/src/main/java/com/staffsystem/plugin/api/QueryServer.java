@@ -0,0 +1,313 @@
+package com.staffsystem.plugin.api;
+
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.managers.PunishmentManager;
+import com.staffsystem.plugin.models.Punishment;
+import com.staffsystem.plugin.models.Punishment.PunishmentType;
+import com.staffsystem.plugin.utils.BoundedCache;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small read-only HTTP API so the Discord bot and the dashboard can ask this server,
+ * the source of truth, whether a player is banned or muted instead of trusting their own
+ * copies. Lookups are answered from PunishmentManager's history cache, so repeat requests
+ * never reach SQLite. Every response carries an ETag of its body; a client that sends it
+ * back in If-None-Match gets an empty 304 while nothing has changed.
+ *
+ * GET /v1/players/{uuid}                      active ban and mute
+ * GET /v1/players/{uuid}/history?page=&size=  punishment history, newest first
+ * GET /v1/stats                               active bans and cache statistics
+ */
+public class QueryServer {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final StaffSystemPlugin plugin;
+    private final String token;
+    private final long statsTtlMillis;
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+
+    private volatile int activeBans = -1;
+    private volatile long activeBansLoadedAt;
+
+    public QueryServer(StaffSystemPlugin plugin) throws IOException {
+        this.plugin = plugin;
+        this.token = plugin.getConfig().getString("query-api.token", "");
+        this.statsTtlMillis = Math.max(0, plugin.getConfig().getLong("performance.query-api.stats-ttl", 10)) * 1000;
+        String bind = plugin.getConfig().getString("query-api.bind", "127.0.0.1");
+        int port = plugin.getConfig().getInt("query-api.port", 8765);
+        int threads = Math.max(1, plugin.getConfig().getInt("performance.query-api.threads", 4));
+        int queue = Math.max(1, plugin.getConfig().getInt("performance.query-api.queue", 64));
+
+        // Once every thread is busy and the queue is full, the accepting thread handles the
+        // request itself, which stops it accepting more until it is done
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queue), runnable -> {
+                Thread thread = new Thread(runnable, "StaffSystem-Query");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        // The JDK server writes headers and body separately; without TCP_NODELAY the body waits
+        // for the client's delayed ACK (~40ms). The property is JVM-wide and read once, by the
+        // first server created, so it also applies to other plugins' servers and is opt-in.
+        if (plugin.getConfig().getBoolean("performance.query-api.tcp-nodelay", false) &&
+            System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(bind, port), 0);
+        server.createContext("/v1/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        plugin.getLogger().info("Query API listening on " + bind + ":" + server.getAddress().getPort());
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return The port the server is bound to (useful when configured as 0)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            // The JDK server closes the connection after a 304 or HEAD reply (no body) unless the
+            // request has been read to the end; drain it first so clients can keep the connection
+            exchange.getRequestBody().close();
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                sendError(exchange, 405, "Method not allowed");
+                return;
+            }
+            if (!isAuthorized(exchange)) {
+                sendError(exchange, 401, "Invalid token");
+                return;
+            }
+
+            String[] path = exchange.getRequestURI().getPath().substring("/v1/".length()).split("/");
+            if (path.length == 1 && path[0].equals("stats")) {
+                sendJson(exchange, getStats());
+            } else if (path.length >= 2 && path.length <= 3 && path[0].equals("players")) {
+                UUID playerUuid = parseUuid(path[1]);
+                if (playerUuid == null) {
+                    sendError(exchange, 400, "Invalid player UUID");
+                    return;
+                }
+                List<Punishment> history = plugin.getPunishmentManager().getPunishmentHistory(playerUuid).join();
+                if (path.length == 2) {
+                    sendJson(exchange, getStatus(playerUuid, history));
+                } else if (path[2].equals("history")) {
+                    String query = exchange.getRequestURI().getRawQuery();
+                    int page = Math.max(1, getIntParameter(query, "page", 1));
+                    int size = Math.max(1, Math.min(MAX_PAGE_SIZE, getIntParameter(query, "size", 20)));
+                    sendJson(exchange, getHistoryPage(playerUuid, history, page, size));
+                } else {
+                    sendError(exchange, 404, "Not found");
+                }
+            } else {
+                sendError(exchange, 404, "Not found");
+            }
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("Query API request failed: " + e.getMessage());
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private EventPayload getStatus(UUID playerUuid, List<Punishment> history) {
+        Punishment ban = findActive(history, PunishmentType.BAN, PunishmentType.TEMP_BAN);
+        Punishment mute = findActive(history, PunishmentType.MUTE, PunishmentType.TEMP_MUTE);
+        return writer -> {
+            writer.beginObject(5);
+            writer.field("playerUuid", playerUuid.toString());
+            writer.field("banned", ban != null);
+            writer.name("ban");
+            writeOptional(writer, ban);
+            writer.field("muted", mute != null);
+            writer.name("mute");
+            writeOptional(writer, mute);
+            writer.endObject();
+        };
+    }
+
+    private EventPayload getHistoryPage(UUID playerUuid, List<Punishment> history, int page, int size) {
+        int from = (int) Math.min(history.size(), (long) (page - 1) * size);
+        List<Punishment> punishments = history.subList(from, Math.min(history.size(), from + size));
+        return writer -> {
+            writer.beginObject(5);
+            writer.field("playerUuid", playerUuid.toString());
+            writer.field("page", page);
+            writer.field("size", size);
+            writer.field("total", history.size());
+            writer.name("punishments");
+            writer.beginArray(punishments.size());
+            for (Punishment punishment : punishments) {
+                WebApiManager.toSyncPayload(punishment).writeTo(writer);
+            }
+            writer.endArray();
+            writer.endObject();
+        };
+    }
+
+    private EventPayload getStats() {
+        // The only figure that needs a query; recount at most once per stats-ttl
+        long now = System.currentTimeMillis();
+        if (activeBans < 0 || now - activeBansLoadedAt >= statsTtlMillis) {
+            activeBans = plugin.getDatabaseManager().getActiveBanCount().join();
+            activeBansLoadedAt = now;
+        }
+
+        PunishmentManager punishmentManager = plugin.getPunishmentManager();
+        BoundedCache<UUID, List<Punishment>> historyCache = punishmentManager.getHistoryCache();
+        int bans = activeBans;
+        return writer -> {
+            writer.beginObject(5);
+            writer.field("activeBans", bans);
+            writer.field("mutedOnline", punishmentManager.getMuteCache().size());
+            writer.field("pendingExpiries", plugin.getExpiryManager().getPendingCount());
+            writer.field("cachedHistories", historyCache.size());
+            writer.name("historyHitRate");
+            writer.value(historyCache.getHitRate());
+            writer.endObject();
+        };
+    }
+
+    // History is newest first, so the first match is the one in force
+    private static Punishment findActive(List<Punishment> history, PunishmentType permanent, PunishmentType temporary) {
+        for (Punishment punishment : history) {
+            if ((punishment.getType() == permanent || punishment.getType() == temporary) &&
+                punishment.isActive() && !punishment.isExpired()) {
+                return punishment;
+            }
+        }
+        return null;
+    }
+
+    private static void writeOptional(EventWriter writer, Punishment punishment) throws IOException {
+        if (punishment != null) {
+            WebApiManager.toSyncPayload(punishment).writeTo(writer);
+        } else {
+            writer.value((String) null);
+        }
+    }
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        if (token.isEmpty()) {
+            return true;
+        }
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null && MessageDigest.isEqual(
+            header.getBytes(StandardCharsets.UTF_8), ("Bearer " + token).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void sendJson(HttpExchange exchange, EventPayload payload) throws IOException {
+        byte[] body = JsonEventCodec.toJson(payload).getBytes(StandardCharsets.UTF_8);
+        String etag = "\"" + hash(body) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        // Clients may keep responses but must revalidate them; a 304 costs no body
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+
+        if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        send(exchange, 200, body);
+    }
+
+    private static void sendError(HttpExchange exchange, int code, String message) throws IOException {
+        String body = JsonEventCodec.toJson(writer -> {
+            writer.beginObject(1);
+            writer.field("error", message);
+            writer.endObject();
+        });
+        send(exchange, code, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int code, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(code, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals(etag) || trimmed.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JRE ships SHA-256
+        }
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return value.length() == 36 ? UUID.fromString(value) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int getIntParameter(String query, String name, int defaultValue) {
+        if (query == null) {
+            return defaultValue;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith(name + "=")) {
+                try {
+                    return Integer.parseInt(parameter.substring(name.length() + 1));
+                } catch (NumberFormatException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        return defaultValue;
+    }
+}
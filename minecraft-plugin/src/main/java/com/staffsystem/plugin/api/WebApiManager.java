@@ -1,148 +1,228 @@
 package com.staffsystem.plugin.api;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
 import com.staffsystem.plugin.StaffSystemPlugin;
 import com.staffsystem.plugin.models.Punishment;
 
 import okhttp3.*;
 
 import java.io.IOException;
+import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 public class WebApiManager {
 
     private final StaffSystemPlugin plugin;
     private final OkHttpClient httpClient;
-    private final Gson gson;
     private final String apiUrl;
     private final String apiKey;
+    private final WebhookBatcher batcher;
+    private final OutboxDispatcher outboxDispatcher;
+    private final MerkleReconciler reconciler;
+    private final DeltaSync deltaSync;
+    private final ChangeFeed changeFeed;
 
     public WebApiManager(StaffSystemPlugin plugin) {
         this.plugin = plugin;
-        this.gson = new Gson();
         this.apiUrl = plugin.getConfig().getString("web-integration.api-url", "http://localhost:3000/api");
         this.apiKey = plugin.getConfig().getString("web-integration.api-key", "");
 
+        // Caps how many enqueued (async) calls, such as webhook batches, run at once. Synchronous
+        // calls from the reconciler, delta sync and the change feed's long poll bypass the cap
+        int maxInFlight = WebhookBatcher.getMaxInFlight(plugin);
+        Dispatcher dispatcher = new Dispatcher(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "StaffSystem-WebApi");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        dispatcher.setMaxRequests(maxInFlight);
+        dispatcher.setMaxRequestsPerHost(maxInFlight);
+
         this.httpClient = new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
             .connectTimeout(10, TimeUnit.SECONDS)
             .writeTimeout(10, TimeUnit.SECONDS)
             .readTimeout(30, TimeUnit.SECONDS)
+            // Keep idle connections for less than the dashboard's keep-alive timeout so a
+            // batch never lands on a socket the server has already closed
+            .connectionPool(new ConnectionPool(maxInFlight, 55, TimeUnit.SECONDS))
             .build();
 
+        this.batcher = new WebhookBatcher(plugin, httpClient, apiUrl + "/webhook/batch", apiKey);
+        this.outboxDispatcher = new OutboxDispatcher(plugin, batcher);
+        this.reconciler = new MerkleReconciler(plugin, this, httpClient, apiUrl, apiKey);
+        this.deltaSync = new DeltaSync(plugin, batcher, httpClient, apiUrl, apiKey);
+        this.changeFeed = new ChangeFeed(plugin, httpClient, apiUrl, apiKey);
+        negotiateCodec();
+
         plugin.getLogger().info("Web API Manager initialized. API URL: " + apiUrl);
     }
 
+    /**
+     * Queue a punishment notification in the outbox. Completes once it is stored; delivery
+     * happens in the background. Punishments saved with notifyWeb already have one queued.
+     */
     public CompletableFuture<Boolean> sendPunishmentNotification(Punishment punishment) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                JsonObject json = new JsonObject();
-                json.addProperty("type", "punishment");
-                json.addProperty("punishmentType", punishment.getType().name());
-                json.addProperty("playerUuid", punishment.getPlayerUuid().toString());
-                json.addProperty("playerName", punishment.getPlayerName());
-                json.addProperty("staffUuid", punishment.getStaffUuid().toString());
-                json.addProperty("staffName", punishment.getStaffName());
-                json.addProperty("reason", punishment.getReason());
-                json.addProperty("duration", punishment.getDuration());
-                json.addProperty("timestamp", punishment.getTimestamp());
-                json.addProperty("server", punishment.getServer());
-
-                RequestBody body = RequestBody.create(
-                    gson.toJson(json),
-                    MediaType.parse("application/json; charset=utf-8")
-                );
-
-                Request request = new Request.Builder()
-                    .url(apiUrl + "/webhook/punishment")
-                    .addHeader("Authorization", "Bearer " + apiKey)
-                    .addHeader("Content-Type", "application/json")
-                    .post(body)
-                    .build();
-
-                try (Response response = httpClient.newCall(request).execute()) {
-                    return response.isSuccessful();
-                }
-            } catch (IOException e) {
-                plugin.getLogger().warning("Failed to send punishment notification to web API: " + e.getMessage());
-                return false;
-            }
+        return queue("punishment", toPunishmentPayload(punishment, false, false));
+    }
+
+    /**
+     * Queue a moderation digest (see DigestManager) in the outbox. Completes once it is stored.
+     */
+    public CompletableFuture<Boolean> sendDigestNotification(EventPayload digest) {
+        return queue("digest", digest);
+    }
+
+    /**
+     * Queue a freeze notification in the outbox. Completes once it is stored.
+     *
+     * @param postedToDiscord The plugin's own webhook posted it; the dashboard does not post it again
+     */
+    public CompletableFuture<Boolean> sendFreezeNotification(String playerName, String staffName, boolean frozen,
+                                                             boolean postedToDiscord) {
+        long timestamp = System.currentTimeMillis();
+        return queue("freeze", writer -> {
+            writer.beginObject(6);
+            writer.field("type", "freeze");
+            writer.field("playerName", playerName);
+            writer.field("staffName", staffName);
+            writer.field("frozen", frozen);
+            writer.field("timestamp", timestamp);
+            writer.field("postedToDiscord", postedToDiscord);
+            writer.endObject();
         });
     }
 
-    public CompletableFuture<Boolean> sendFreezeNotification(String playerName, String staffName, boolean frozen) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                JsonObject json = new JsonObject();
-                json.addProperty("type", "freeze");
-                json.addProperty("playerName", playerName);
-                json.addProperty("staffName", staffName);
-                json.addProperty("frozen", frozen);
-                json.addProperty("timestamp", System.currentTimeMillis());
-
-                RequestBody body = RequestBody.create(
-                    gson.toJson(json),
-                    MediaType.parse("application/json; charset=utf-8")
-                );
-
-                Request request = new Request.Builder()
-                    .url(apiUrl + "/webhook/freeze")
-                    .addHeader("Authorization", "Bearer " + apiKey)
-                    .addHeader("Content-Type", "application/json")
-                    .post(body)
-                    .build();
-
-                try (Response response = httpClient.newCall(request).execute()) {
-                    return response.isSuccessful();
-                }
-            } catch (IOException e) {
-                plugin.getLogger().warning("Failed to send freeze notification to web API: " + e.getMessage());
-                return false;
+    public CompletableFuture<Boolean> syncPunishment(Punishment punishment) {
+        return batcher.submit("sync", toSyncPayload(punishment));
+    }
+
+    /**
+     * The full row, as the dashboard's sync upsert expects it.
+     */
+    public static EventPayload toSyncPayload(Punishment punishment) {
+        return writer -> {
+            writer.beginObject(12);
+            writer.field("id", punishment.getId());
+            writer.field("playerUuid", punishment.getPlayerUuid().toString());
+            writer.field("playerName", punishment.getPlayerName());
+            writer.field("staffUuid", punishment.getStaffUuid().toString());
+            writer.field("staffName", punishment.getStaffName());
+            writer.field("type", punishment.getType().name());
+            writer.field("reason", punishment.getReason());
+            writer.field("timestamp", punishment.getTimestamp());
+            writer.field("duration", punishment.getDuration());
+            writer.field("expiration", punishment.getExpiration());
+            writer.field("active", punishment.isActive());
+            writer.field("server", punishment.getServer());
+            writer.endObject();
+        };
+    }
+
+    /**
+     * @param digested        The punishment is included in a later digest; the dashboard records it
+     *                        without posting it to Discord
+     * @param postedToDiscord The plugin's own webhook posted it; the dashboard does not post it again
+     */
+    public static EventPayload toPunishmentPayload(Punishment punishment, boolean digested, boolean postedToDiscord) {
+        return writer -> {
+            writer.beginObject(13);
+            writer.field("id", punishment.getId());
+            writer.field("type", "punishment");
+            writer.field("punishmentType", punishment.getType().name());
+            writer.field("playerUuid", punishment.getPlayerUuid().toString());
+            writer.field("playerName", punishment.getPlayerName());
+            writer.field("staffUuid", punishment.getStaffUuid().toString());
+            writer.field("staffName", punishment.getStaffName());
+            writer.field("reason", punishment.getReason());
+            writer.field("duration", punishment.getDuration());
+            writer.field("timestamp", punishment.getTimestamp());
+            writer.field("server", punishment.getServer());
+            writer.field("digested", digested);
+            writer.field("postedToDiscord", postedToDiscord);
+            writer.endObject();
+        };
+    }
+
+    private CompletableFuture<Boolean> queue(String event, EventPayload payload) {
+        return plugin.getDatabaseManager().addOutboxEntry(event, JsonEventCodec.toJson(payload)).thenApply(stored -> {
+            if (stored) {
+                outboxDispatcher.wake();
             }
+            return stored;
         });
     }
 
-    public CompletableFuture<Boolean> syncPunishment(Punishment punishment) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                JsonObject json = new JsonObject();
-                json.addProperty("id", punishment.getId());
-                json.addProperty("playerUuid", punishment.getPlayerUuid().toString());
-                json.addProperty("playerName", punishment.getPlayerName());
-                json.addProperty("staffUuid", punishment.getStaffUuid().toString());
-                json.addProperty("staffName", punishment.getStaffName());
-                json.addProperty("type", punishment.getType().name());
-                json.addProperty("reason", punishment.getReason());
-                json.addProperty("timestamp", punishment.getTimestamp());
-                json.addProperty("duration", punishment.getDuration());
-                json.addProperty("expiration", punishment.getExpiration());
-                json.addProperty("active", punishment.isActive());
-                json.addProperty("server", punishment.getServer());
-
-                RequestBody body = RequestBody.create(
-                    gson.toJson(json),
-                    MediaType.parse("application/json; charset=utf-8")
-                );
-
-                Request request = new Request.Builder()
-                    .url(apiUrl + "/punishments/sync")
-                    .addHeader("Authorization", "Bearer " + apiKey)
-                    .addHeader("Content-Type", "application/json")
-                    .post(body)
-                    .build();
-
-                try (Response response = httpClient.newCall(request).execute()) {
-                    return response.isSuccessful();
+    /**
+     * Pick the batch format from performance.webhooks.codec. With "auto", MessagePack is
+     * used once the dashboard's status endpoint lists it among its accepted content types.
+     */
+    private void negotiateCodec() {
+        String configured = plugin.getConfig().getString("performance.webhooks.codec", "auto").toLowerCase(Locale.ROOT);
+        if (configured.equals("msgpack")) {
+            batcher.setCodec(MessagePackEventCodec.INSTANCE);
+            return;
+        }
+        if (!configured.equals("auto")) {
+            return;
+        }
+
+        Request request = new Request.Builder().url(apiUrl + "/status").build();
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        return;
+                    }
+                    JsonElement codecs = JsonParser.parseString(response.body().string()).getAsJsonObject().get("codecs");
+                    String msgpack = MessagePackEventCodec.INSTANCE.getMediaType().toString();
+                    if (codecs != null && codecs.isJsonArray() && codecs.getAsJsonArray().contains(new JsonPrimitive(msgpack))) {
+                        batcher.setCodec(MessagePackEventCodec.INSTANCE);
+                        plugin.getLogger().info("Web API accepts MessagePack; using it for event batches");
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // Keep JSON
                 }
-            } catch (IOException e) {
-                plugin.getLogger().warning("Failed to sync punishment to web API: " + e.getMessage());
-                return false;
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                // Dashboard unreachable for now; keep JSON, which every version accepts
             }
         });
     }
 
+    public WebhookBatcher getBatcher() {
+        return batcher;
+    }
+
+    public OutboxDispatcher getOutboxDispatcher() {
+        return outboxDispatcher;
+    }
+
+    public MerkleReconciler getReconciler() {
+        return reconciler;
+    }
+
+    public DeltaSync getDeltaSync() {
+        return deltaSync;
+    }
+
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
     public void shutdown() {
+        changeFeed.shutdown();
+        deltaSync.shutdown();
+        reconciler.shutdown();
+        outboxDispatcher.shutdown(5, TimeUnit.SECONDS);
+        batcher.shutdown(5, TimeUnit.SECONDS);
         httpClient.dispatcher().executorService().shutdown();
         httpClient.connectionPool().evictAll();
     }
@@ -0,0 +1,339 @@
+package com.staffsystem.plugin.api;
+
+import com.staffsystem.plugin.StaffSystemPlugin;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects web API events and posts them to the dashboard's batch endpoint as one
+ * gzip-compressed array, once batch-size events are waiting or max-delay has passed.
+ * Events are encoded by the current {@link EventCodec} straight into the request body
+ * while OkHttp writes it, so no intermediate tree or string is built.
+ * Batches are sent with OkHttp's asynchronous enqueue over the client's keep-alive pool;
+ * at most max-in-flight are outstanding, and while they are, new events keep filling the
+ * next batch instead of queueing more requests. No thread waits on a response.
+ */
+public class WebhookBatcher {
+
+    private static final int UNSUPPORTED_MEDIA_TYPE = 415;
+
+    private final StaffSystemPlugin plugin;
+    private final OkHttpClient httpClient;
+    private final HttpUrl url;
+    private final Headers headers;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    private final Queue<PendingEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService sender;
+    private final Semaphore inFlight;
+
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong batchesFailed = new AtomicLong();
+    private final AtomicLong eventsSent = new AtomicLong();
+    private final AtomicLong rawBytes = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private volatile String lastError;
+    private volatile EventCodec codec = JsonEventCodec.INSTANCE;
+
+    // Wall-clock time with at least one batch in flight, for throughput
+    private int activeCalls;
+    private long busySince;
+    private long busyNanos;
+
+    public WebhookBatcher(StaffSystemPlugin plugin, OkHttpClient httpClient, String url, String apiKey) {
+        this.plugin = plugin;
+        this.httpClient = httpClient;
+        this.url = HttpUrl.get(url);
+        this.headers = new Headers.Builder()
+            .add("Authorization", "Bearer " + apiKey)
+            .add("Content-Encoding", "gzip")
+            .build();
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("performance.webhooks.batch-size", 50));
+        this.maxInFlight = getMaxInFlight(plugin);
+        this.inFlight = new Semaphore(maxInFlight);
+
+        long maxDelayMillis = Math.max(10, plugin.getConfig().getLong("performance.webhooks.max-delay", 1000));
+        this.sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "StaffSystem-WebhookSender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sender.scheduleWithFixedDelay(this::flushAll, maxDelayMillis, maxDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The configured limit on concurrent batch requests, shared with the HTTP client's dispatcher.
+     */
+    public static int getMaxInFlight(StaffSystemPlugin plugin) {
+        return Math.max(1, plugin.getConfig().getInt("performance.webhooks.max-in-flight", 4));
+    }
+
+    /**
+     * Queue an event for the next batch. Safe to call from any thread.
+     *
+     * @param event The event name the dashboard dispatches on, e.g. "punishment"
+     * @return Completes with true once the batch holding the event is accepted
+     */
+    public CompletableFuture<Boolean> submit(String event, EventPayload payload) {
+        return submit(null, event, payload);
+    }
+
+    /**
+     * @param id Idempotency key; the dashboard ignores an event whose key it has already seen
+     */
+    public CompletableFuture<Boolean> submit(String id, String event, EventPayload payload) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        pending.add(new PendingEvent(id, event, payload, result));
+
+        // A full batch goes out straight away instead of waiting for the timer
+        if (pendingCount.incrementAndGet() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::flushAll);
+            } catch (RuntimeException e) {
+                flushScheduled.set(false); // Shutting down; shutdown() sends the rest
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Send whatever is queued, then wait up to the given time for every request in flight
+     * to finish. Requests still running after that are cancelled.
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        sender.execute(this::flushAll);
+        sender.shutdown();
+        try {
+            boolean drained = sender.awaitTermination(timeout, unit)
+                && inFlight.tryAcquire(maxInFlight, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (drained) {
+                inFlight.release(maxInFlight);
+            } else {
+                plugin.getLogger().warning("Timed out waiting for queued web API events to be sent");
+                sender.shutdownNow();
+                httpClient.dispatcher().cancelAll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Events queued after the final flush are dropped
+        PendingEvent event;
+        while ((event = pending.poll()) != null) {
+            event.result.complete(false);
+        }
+    }
+
+    private void flushAll() {
+        flushScheduled.set(false);
+        try {
+            while (pendingCount.get() > 0) {
+                // Wait for a free slot first, so events arriving meanwhile join this batch
+                inFlight.acquire();
+                List<PendingEvent> batch = new ArrayList<>(Math.min(batchSize, pendingCount.get()));
+                PendingEvent event;
+                while (batch.size() < batchSize && (event = pending.poll()) != null) {
+                    batch.add(event);
+                }
+                if (batch.isEmpty()) {
+                    inFlight.release();
+                    return;
+                }
+                pendingCount.addAndGet(-batch.size());
+                send(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // An array of { id, event, payload }
+    private static void writeBatch(EventWriter writer, List<PendingEvent> batch) throws IOException {
+        writer.beginArray(batch.size());
+        for (PendingEvent event : batch) {
+            writer.beginObject(event.id != null ? 3 : 2);
+            if (event.id != null) {
+                writer.field("id", event.id);
+            }
+            writer.field("event", event.event);
+            writer.name("payload");
+            event.payload.writeTo(writer);
+            writer.endObject();
+        }
+        writer.endArray();
+    }
+
+    // Called with an in-flight permit held; the permit is released when the call completes
+    private void send(List<PendingEvent> batch) {
+        EncodedBody body = new EncodedBody(codec, writer -> writeBatch(writer, batch));
+        Request request = new Request.Builder()
+            .url(url)
+            .headers(headers)
+            .post(body)
+            .build();
+
+        long start = startCall();
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (response.isSuccessful()) {
+                        long latency = System.nanoTime() - start;
+                        batchesSent.incrementAndGet();
+                        eventsSent.addAndGet(batch.size());
+                        rawBytes.addAndGet(body.getRawBytes());
+                        compressedBytes.addAndGet(body.getCompressedBytes());
+                        totalLatencyNanos.addAndGet(latency);
+                        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+                        complete(batch, true);
+                    } else if (response.code() == UNSUPPORTED_MEDIA_TYPE && body.getCodec() != JsonEventCodec.INSTANCE) {
+                        // The dashboard doesn't read this format; fall back to JSON and resend on the same permit
+                        plugin.getLogger().warning("Web API does not accept " + body.getCodec().getMediaType() +
+                            "; falling back to JSON");
+                        codec = JsonEventCodec.INSTANCE;
+                        finishCall();
+                        send(batch);
+                    } else {
+                        lastError = "HTTP " + response.code();
+                        plugin.getLogger().warning("Web API rejected a batch of " + batch.size() +
+                            " events: HTTP " + response.code());
+                        complete(batch, false);
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+                plugin.getLogger().warning("Failed to send " + batch.size() + " events to web API: " + e.getMessage());
+                complete(batch, false);
+            }
+        });
+    }
+
+    private void complete(List<PendingEvent> batch, boolean success) {
+        if (!success) {
+            batchesFailed.incrementAndGet();
+        }
+        finishCall();
+        for (PendingEvent event : batch) {
+            event.result.complete(success);
+        }
+        // Released last, so shutdown() can't return before callers have seen the result
+        inFlight.release();
+    }
+
+    private synchronized long startCall() {
+        long now = System.nanoTime();
+        if (activeCalls++ == 0) {
+            busySince = now;
+        }
+        return now;
+    }
+
+    private synchronized void finishCall() {
+        if (--activeCalls == 0) {
+            busyNanos += System.nanoTime() - busySince;
+        }
+    }
+
+    public EventCodec getCodec() {
+        return codec;
+    }
+
+    public void setCodec(EventCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * @return Why the most recent failed batch failed, or null if none has
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    public int getInFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    public long getBatchesSent() {
+        return batchesSent.get();
+    }
+
+    public long getBatchesFailed() {
+        return batchesFailed.get();
+    }
+
+    public long getEventsSent() {
+        return eventsSent.get();
+    }
+
+    public double getAverageLatencyMillis() {
+        long batches = batchesSent.get();
+        return batches == 0 ? 0 : totalLatencyNanos.get() / 1_000_000.0 / batches;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Events delivered per second while at least one batch was in flight.
+     */
+    public synchronized double getThroughput() {
+        long busy = busyNanos + (activeCalls > 0 ? System.nanoTime() - busySince : 0);
+        return busy == 0 ? 0 : eventsSent.get() * 1_000_000_000.0 / busy;
+    }
+
+    /**
+     * Uncompressed over compressed payload size, across all delivered batches.
+     */
+    public double getCompressionRatio() {
+        long compressed = compressedBytes.get();
+        return compressed == 0 ? 0 : (double) rawBytes.get() / compressed;
+    }
+
+    private static final class PendingEvent {
+        private final String id;
+        private final String event;
+        private final EventPayload payload;
+        private final CompletableFuture<Boolean> result;
+
+        private PendingEvent(String id, String event, EventPayload payload, CompletableFuture<Boolean> result) {
+            this.id = id;
+            this.event = event;
+            this.payload = payload;
+            this.result = result;
+        }
+    }
+}
@@ -38,14 +38,12 @@ public class BanCommand implements CommandExecutor {
 
     private void handleBan(Player staff, String[] args) {
         if (!staff.hasPermission("staffsystem.ban")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(staff, "no-permission");
             return;
         }
 
         if (args.length < 1) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("ban.usage")));
+            plugin.getMessageUtil().send(staff, "ban.usage");
             return;
         }
 
@@ -73,15 +71,13 @@ public class BanCommand implements CommandExecutor {
         // Check if target is staff
         if (target != null && target.hasPermission("staffsystem.staff") && 
             !staff.hasPermission("staffsystem.admin")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("cannot-punish-staff")));
+            plugin.getMessageUtil().send(staff, "cannot-punish-staff");
             return;
         }
 
         // Check self-punishment
         if (target != null && target.getUniqueId().equals(staff.getUniqueId())) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("cannot-punish-self")));
+            plugin.getMessageUtil().send(staff, "cannot-punish-self");
             return;
         }
 
@@ -93,9 +89,7 @@ public class BanCommand implements CommandExecutor {
             plugin.getPunishmentManager().ban(target, staff, finalReason, finalDuration)
                 .thenAccept(success -> {
                     if (success) {
-                        staff.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("ban.success")
-                                .replace("{player}", targetName)));
+                        plugin.getMessageUtil().send(staff, "ban.success", "player", targetName);
                     }
                 });
         } else {
@@ -105,9 +99,7 @@ public class BanCommand implements CommandExecutor {
             plugin.getPunishmentManager().banOffline(offlineTarget, staff, finalReason, finalDuration)
                 .thenAccept(success -> {
                     if (success) {
-                        staff.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("ban.success")
-                                .replace("{player}", targetName)));
+                        plugin.getMessageUtil().send(staff, "ban.success", "player", targetName);
                     }
                 });
         }
@@ -115,14 +107,12 @@ public class BanCommand implements CommandExecutor {
 
     private void handleTempBan(Player staff, String[] args) {
         if (!staff.hasPermission("staffsystem.tempban")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(staff, "no-permission");
             return;
         }
 
         if (args.length < 2) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("tempban.usage")));
+            plugin.getMessageUtil().send(staff, "tempban.usage");
             return;
         }
 
@@ -130,8 +120,7 @@ public class BanCommand implements CommandExecutor {
         long duration = TimeUtil.parseDuration(args[1]);
         
         if (duration <= 0) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("invalid-duration")));
+            plugin.getMessageUtil().send(staff, "invalid-duration");
             return;
         }
 
@@ -144,8 +133,7 @@ public class BanCommand implements CommandExecutor {
         // Check if target is staff
         if (target != null && target.hasPermission("staffsystem.staff") && 
             !staff.hasPermission("staffsystem.admin")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("cannot-punish-staff")));
+            plugin.getMessageUtil().send(staff, "cannot-punish-staff");
             return;
         }
 
@@ -153,10 +141,8 @@ public class BanCommand implements CommandExecutor {
             plugin.getPunishmentManager().ban(target, staff, reason, duration)
                 .thenAccept(success -> {
                     if (success) {
-                        staff.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("tempban.success")
-                                .replace("{player}", targetName)
-                                .replace("{duration}", TimeUtil.formatDuration(duration))));
+                        plugin.getMessageUtil().send(staff, "tempban.success",
+                            "player", targetName, "duration", TimeUtil.formatDuration(duration));
                     }
                 });
         } else {
@@ -165,10 +151,8 @@ public class BanCommand implements CommandExecutor {
             plugin.getPunishmentManager().banOffline(offlineTarget, staff, reason, duration)
                 .thenAccept(success -> {
                     if (success) {
-                        staff.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("tempban.success")
-                                .replace("{player}", targetName)
-                                .replace("{duration}", TimeUtil.formatDuration(duration))));
+                        plugin.getMessageUtil().send(staff, "tempban.success",
+                            "player", targetName, "duration", TimeUtil.formatDuration(duration));
                     }
                 });
         }
@@ -176,14 +160,12 @@ public class BanCommand implements CommandExecutor {
 
     private void handleUnban(Player staff, String[] args) {
         if (!staff.hasPermission("staffsystem.unban")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(staff, "no-permission");
             return;
         }
 
         if (args.length < 1) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("unban.usage")));
+            plugin.getMessageUtil().send(staff, "unban.usage");
             return;
         }
 
@@ -192,13 +174,9 @@ public class BanCommand implements CommandExecutor {
         plugin.getPunishmentManager().unban(targetName, staff)
             .thenAccept(success -> {
                 if (success) {
-                    staff.sendMessage(plugin.getMessageUtil().color(
-                        plugin.getMessageUtil().getMessage("unban.success")
-                            .replace("{player}", targetName)));
+                    plugin.getMessageUtil().send(staff, "unban.success", "player", targetName);
                 } else {
-                    staff.sendMessage(plugin.getMessageUtil().color(
-                        plugin.getMessageUtil().getMessage("unban.not-banned")
-                            .replace("{player}", targetName)));
+                    plugin.getMessageUtil().send(staff, "unban.not-banned", "player", targetName);
                 }
             });
     }
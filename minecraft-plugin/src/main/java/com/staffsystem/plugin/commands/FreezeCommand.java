@@ -24,14 +24,12 @@ public class FreezeCommand implements CommandExecutor {
         }
 
         if (!staff.hasPermission("staffsystem.freeze")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(staff, "no-permission");
             return true;
         }
 
         if (args.length < 1) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("freeze.usage")));
+            plugin.getMessageUtil().send(staff, "freeze.usage");
             return true;
         }
 
@@ -39,22 +37,19 @@ public class FreezeCommand implements CommandExecutor {
         Player target = Bukkit.getPlayer(targetName);
 
         if (target == null) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("player-offline")));
+            plugin.getMessageUtil().send(staff, "player-offline");
             return true;
         }
 
         // Check if target has bypass permission
         if (target.hasPermission("staffsystem.bypass.freeze")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("cannot-punish-staff")));
+            plugin.getMessageUtil().send(staff, "cannot-punish-staff");
             return true;
         }
 
         // Check self-freeze
         if (target.getUniqueId().equals(staff.getUniqueId())) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("cannot-punish-self")));
+            plugin.getMessageUtil().send(staff, "cannot-punish-self");
             return true;
         }
 
@@ -62,13 +57,9 @@ public class FreezeCommand implements CommandExecutor {
         plugin.getFreezeManager().toggleFreeze(target, staff);
 
         if (wasFrozen) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("freeze.unfrozen")
-                    .replace("{player}", targetName)));
+            plugin.getMessageUtil().send(staff, "freeze.unfrozen", "player", targetName);
         } else {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("freeze.frozen")
-                    .replace("{player}", targetName)));
+            plugin.getMessageUtil().send(staff, "freeze.frozen", "player", targetName);
         }
 
         return true;
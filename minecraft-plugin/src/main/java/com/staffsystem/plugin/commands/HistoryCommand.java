@@ -29,14 +29,12 @@ public class HistoryCommand implements CommandExecutor {
         }
 
         if (!staff.hasPermission("staffsystem.history")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(staff, "no-permission");
             return true;
         }
 
         if (args.length < 1) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("history.usage")));
+            plugin.getMessageUtil().send(staff, "history.usage");
             return true;
         }
 
@@ -44,7 +42,7 @@ public class HistoryCommand implements CommandExecutor {
         @SuppressWarnings("deprecation")
         OfflinePlayer target = Bukkit.getOfflinePlayer(targetName);
 
-        plugin.getDatabaseManager().getPunishmentHistory(target.getUniqueId())
+        plugin.getPunishmentManager().getPunishmentHistory(target.getUniqueId())
             .thenAccept(punishments -> {
                 Bukkit.getScheduler().runTask(plugin, () -> {
                     displayHistory(staff, target, punishments);
@@ -58,13 +56,10 @@ public class HistoryCommand implements CommandExecutor {
         String targetName = target.getName() != null ? target.getName() : target.getUniqueId().toString();
         
         // Send header
-        staff.sendMessage(plugin.getMessageUtil().color(
-            plugin.getMessageUtil().getMessage("history.header")
-                .replace("{player}", targetName)));
+        plugin.getMessageUtil().send(staff, "history.header", "player", targetName);
 
         if (punishments.isEmpty()) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("history.no-history")));
+            plugin.getMessageUtil().send(staff, "history.no-history");
         } else {
             for (Punishment punishment : punishments) {
                 String typeName = punishment.getType().name().replace("_", " ");
@@ -73,32 +68,22 @@ public class HistoryCommand implements CommandExecutor {
                     status = "&7Expired";
                 }
 
-                staff.sendMessage(plugin.getMessageUtil().color(
-                    plugin.getMessageUtil().getMessage("history.entry")
-                        .replace("{id}", String.valueOf(punishment.getId()))
-                        .replace("{type}", typeName)
-                        .replace("{reason}", punishment.getReason())));
+                plugin.getMessageUtil().send(staff, "history.entry",
+                    "id", String.valueOf(punishment.getId()), "type", typeName, "reason", punishment.getReason());
                 
-                staff.sendMessage(plugin.getMessageUtil().color(
-                    plugin.getMessageUtil().getMessage("history.entry-date")
-                        .replace("{date}", TimeUtil.formatDate(punishment.getTimestamp()))));
+                plugin.getMessageUtil().send(staff, "history.entry-date",
+                    "date", TimeUtil.formatDate(punishment.getTimestamp()));
                 
-                staff.sendMessage(plugin.getMessageUtil().color(
-                    plugin.getMessageUtil().getMessage("history.entry-staff")
-                        .replace("{staff}", punishment.getStaffName())));
+                plugin.getMessageUtil().send(staff, "history.entry-staff", "staff", punishment.getStaffName());
                 
-                staff.sendMessage(plugin.getMessageUtil().color(
-                    plugin.getMessageUtil().getMessage("history.entry-duration")
-                        .replace("{duration}", TimeUtil.formatDuration(punishment.getDuration()))));
+                plugin.getMessageUtil().send(staff, "history.entry-duration",
+                    "duration", TimeUtil.formatDuration(punishment.getDuration()));
                 
-                staff.sendMessage(plugin.getMessageUtil().color(
-                    plugin.getMessageUtil().getMessage("history.entry-active")
-                        .replace("{status}", status)));
+                plugin.getMessageUtil().send(staff, "history.entry-active", "status", status);
             }
         }
 
         // Send footer
-        staff.sendMessage(plugin.getMessageUtil().color(
-            plugin.getMessageUtil().getMessage("history.footer")));
+        plugin.getMessageUtil().send(staff, "history.footer");
     }
 }
@@ -38,14 +38,12 @@ public class MuteCommand implements CommandExecutor {
 
     private void handleMute(Player staff, String[] args) {
         if (!staff.hasPermission("staffsystem.mute")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(staff, "no-permission");
             return;
         }
 
         if (args.length < 1) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("mute.usage")));
+            plugin.getMessageUtil().send(staff, "mute.usage");
             return;
         }
 
@@ -73,15 +71,13 @@ public class MuteCommand implements CommandExecutor {
         // Check if target is staff
         if (target != null && target.hasPermission("staffsystem.staff") && 
             !staff.hasPermission("staffsystem.admin")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("cannot-punish-staff")));
+            plugin.getMessageUtil().send(staff, "cannot-punish-staff");
             return;
         }
 
         // Check self-punishment
         if (target != null && target.getUniqueId().equals(staff.getUniqueId())) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("cannot-punish-self")));
+            plugin.getMessageUtil().send(staff, "cannot-punish-self");
             return;
         }
 
@@ -93,9 +89,7 @@ public class MuteCommand implements CommandExecutor {
             plugin.getPunishmentManager().mute(target, staff, finalReason, finalDuration)
                 .thenAccept(success -> {
                     if (success) {
-                        staff.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("mute.success")
-                                .replace("{player}", targetName)));
+                        plugin.getMessageUtil().send(staff, "mute.success", "player", targetName);
                     }
                 });
         } else {
@@ -105,9 +99,7 @@ public class MuteCommand implements CommandExecutor {
             plugin.getPunishmentManager().muteOffline(offlineTarget, staff, finalReason, finalDuration)
                 .thenAccept(success -> {
                     if (success) {
-                        staff.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("mute.success")
-                                .replace("{player}", targetName)));
+                        plugin.getMessageUtil().send(staff, "mute.success", "player", targetName);
                     }
                 });
         }
@@ -115,14 +107,12 @@ public class MuteCommand implements CommandExecutor {
 
     private void handleTempMute(Player staff, String[] args) {
         if (!staff.hasPermission("staffsystem.tempmute")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(staff, "no-permission");
             return;
         }
 
         if (args.length < 2) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("tempmute.usage")));
+            plugin.getMessageUtil().send(staff, "tempmute.usage");
             return;
         }
 
@@ -130,8 +120,7 @@ public class MuteCommand implements CommandExecutor {
         long duration = TimeUtil.parseDuration(args[1]);
         
         if (duration <= 0) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("invalid-duration")));
+            plugin.getMessageUtil().send(staff, "invalid-duration");
             return;
         }
 
@@ -144,8 +133,7 @@ public class MuteCommand implements CommandExecutor {
         // Check if target is staff
         if (target != null && target.hasPermission("staffsystem.staff") && 
             !staff.hasPermission("staffsystem.admin")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("cannot-punish-staff")));
+            plugin.getMessageUtil().send(staff, "cannot-punish-staff");
             return;
         }
 
@@ -153,10 +141,8 @@ public class MuteCommand implements CommandExecutor {
             plugin.getPunishmentManager().mute(target, staff, reason, duration)
                 .thenAccept(success -> {
                     if (success) {
-                        staff.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("mute.success")
-                                .replace("{player}", targetName)
-                                .replace("{duration}", TimeUtil.formatDuration(duration))));
+                        plugin.getMessageUtil().send(staff, "mute.success",
+                            "player", targetName, "duration", TimeUtil.formatDuration(duration));
                     }
                 });
         } else {
@@ -165,10 +151,8 @@ public class MuteCommand implements CommandExecutor {
             plugin.getPunishmentManager().muteOffline(offlineTarget, staff, reason, duration)
                 .thenAccept(success -> {
                     if (success) {
-                        staff.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("mute.success")
-                                .replace("{player}", targetName)
-                                .replace("{duration}", TimeUtil.formatDuration(duration))));
+                        plugin.getMessageUtil().send(staff, "mute.success",
+                            "player", targetName, "duration", TimeUtil.formatDuration(duration));
                     }
                 });
         }
@@ -176,14 +160,12 @@ public class MuteCommand implements CommandExecutor {
 
     private void handleUnmute(Player staff, String[] args) {
         if (!staff.hasPermission("staffsystem.unmute")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(staff, "no-permission");
             return;
         }
 
         if (args.length < 1) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("unmute.usage")));
+            plugin.getMessageUtil().send(staff, "unmute.usage");
             return;
         }
 
@@ -193,20 +175,15 @@ public class MuteCommand implements CommandExecutor {
             .thenAccept(success -> {
                 Bukkit.getScheduler().runTask(plugin, () -> {
                     if (success) {
-                        staff.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("unmute.success")
-                                .replace("{player}", targetName)));
+                        plugin.getMessageUtil().send(staff, "unmute.success", "player", targetName);
                         
                         // Notify player if online
                         Player target = Bukkit.getPlayer(targetName);
                         if (target != null) {
-                            target.sendMessage(plugin.getMessageUtil().color(
-                                plugin.getMessageUtil().getMessage("unmute.player-notify")));
+                            plugin.getMessageUtil().send(target, "unmute.player-notify");
                         }
                     } else {
-                        staff.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("unmute.not-muted")
-                                .replace("{player}", targetName)));
+                        plugin.getMessageUtil().send(staff, "unmute.not-muted", "player", targetName);
                     }
                 });
             });
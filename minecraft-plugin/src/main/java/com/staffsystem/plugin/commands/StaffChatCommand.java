@@ -23,8 +23,7 @@ public class StaffChatCommand implements CommandExecutor {
         }
 
         if (!staff.hasPermission("staffsystem.staffchat")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(staff, "no-permission");
             return true;
         }
 
@@ -23,8 +23,7 @@ public class StaffCommand implements CommandExecutor {
         }
 
         if (!player.hasPermission("staffsystem.staff")) {
-            player.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(player, "no-permission");
             return true;
         }
 
@@ -1,6 +1,18 @@
 package com.staffsystem.plugin.commands;
 
 import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.api.ChangeFeed;
+import com.staffsystem.plugin.api.DeltaSync;
+import com.staffsystem.plugin.api.DiscordWebhook;
+import com.staffsystem.plugin.api.MerkleReconciler;
+import com.staffsystem.plugin.api.OutboxDispatcher;
+import com.staffsystem.plugin.api.WebhookBatcher;
+import com.staffsystem.plugin.managers.DigestManager;
+import com.staffsystem.plugin.managers.RecipientManager.Audience;
+import com.staffsystem.plugin.models.OutboxEntry;
+import com.staffsystem.plugin.utils.BoundedCache;
+import com.staffsystem.plugin.utils.CircuitBreaker;
+import com.staffsystem.plugin.utils.TimeUtil;
 
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -18,8 +30,7 @@ public class StaffSystemCommand implements CommandExecutor {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!sender.hasPermission("staffsystem.admin")) {
-            sender.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(sender, "no-permission");
             return true;
         }
 
@@ -33,12 +44,15 @@ public class StaffSystemCommand implements CommandExecutor {
         switch (subCommand) {
             case "reload" -> {
                 plugin.reload();
-                sender.sendMessage(plugin.getMessageUtil().color(
-                    plugin.getMessageUtil().getMessage("config-reloaded")));
+                plugin.getMessageUtil().send(sender, "config-reloaded");
             }
             case "info" -> sendInfo(sender);
+            case "cache" -> sendCacheStats(sender);
+            case "outbox" -> handleOutbox(sender, args.length > 1 ? args[1].toLowerCase() : "");
+            case "reconcile" -> handleReconcile(sender);
+            case "sync" -> handleSync(sender, args.length > 1 && args[1].equalsIgnoreCase("full"));
             default -> {
-                sender.sendMessage(plugin.getMessageUtil().color("&cUnknown subcommand. Use /ss reload or /ss info"));
+                sender.sendMessage(plugin.getMessageUtil().color("&cUnknown subcommand. Use /ss reload, /ss info, /ss cache, /ss outbox, /ss reconcile or /ss sync"));
             }
         }
 
@@ -65,6 +79,164 @@ public class StaffSystemCommand implements CommandExecutor {
         sender.sendMessage(plugin.getMessageUtil().color("&e/history &7- View punishment history"));
         sender.sendMessage(plugin.getMessageUtil().color("&e/staffchat &7- Toggle staff chat"));
         sender.sendMessage(plugin.getMessageUtil().color("&e/ss reload &7- Reload configuration"));
+        sender.sendMessage(plugin.getMessageUtil().color("&e/ss cache &7- Show cache statistics"));
+        sender.sendMessage(plugin.getMessageUtil().color("&e/ss outbox [retry|purge] &7- Show undelivered web notifications"));
+        sender.sendMessage(plugin.getMessageUtil().color("&e/ss reconcile &7- Check the dashboard's copy of punishments"));
+        sender.sendMessage(plugin.getMessageUtil().color("&e/ss sync [full] &7- Send changed (or all) punishments to the dashboard"));
         sender.sendMessage(plugin.getMessageUtil().color("&8&m----------------------------------------"));
     }
+
+    private void sendCacheStats(CommandSender sender) {
+        sender.sendMessage(plugin.getMessageUtil().color("&8&m----------------------------------------"));
+        sender.sendMessage(plugin.getMessageUtil().color("&6&lStaffSystem &7- Cache Statistics"));
+        sender.sendMessage(plugin.getMessageUtil().color("&eMutes&7: &f" +
+            plugin.getPunishmentManager().getMuteCache().size() + " &7online players tracked"));
+        sendCacheLine(sender, "Histories", plugin.getPunishmentManager().getHistoryCache());
+        sendCacheLine(sender, "GUI targets", plugin.getGuiManager().getSelectedTargetCache());
+        sender.sendMessage(plugin.getMessageUtil().color("&7Pending expiries: &e" +
+            plugin.getExpiryManager().getPendingCount()));
+        sender.sendMessage(plugin.getMessageUtil().color("&7Freeze move listener: &e" +
+            (plugin.getFreezeManager().isMoveListenerRegistered() ? "active" : "idle")));
+        sender.sendMessage(plugin.getMessageUtil().color("&7Online staff: &e" +
+            plugin.getRecipientManager().getRecipients(Audience.STAFF).size() + " &7(staff chat &e" +
+            plugin.getRecipientManager().getRecipients(Audience.STAFF_CHAT).size() + "&7, admin &e" +
+            plugin.getRecipientManager().getRecipients(Audience.ADMIN).size() + "&7, pending re-checks &e" +
+            plugin.getRecipientManager().getPendingChecks() + "&7)"));
+        if (plugin.getWebApiManager() != null) {
+            WebhookBatcher batcher = plugin.getWebApiManager().getBatcher();
+            sender.sendMessage(plugin.getMessageUtil().color(String.format(
+                "&eWeb API&7: &f%d &7events in &f%d &7batches (&f%d &7failed, &f%d &7queued, &f%d &7in flight), " +
+                    "latency &f%.1f&7ms avg / &f%.1f&7ms max, &f%.0f &7events/s, gzip &f%.1fx",
+                batcher.getEventsSent(), batcher.getBatchesSent(), batcher.getBatchesFailed(),
+                batcher.getPendingCount(), batcher.getInFlightCount(), batcher.getAverageLatencyMillis(), batcher.getMaxLatencyMillis(),
+                batcher.getThroughput(), batcher.getCompressionRatio())));
+            ChangeFeed changeFeed = plugin.getWebApiManager().getChangeFeed();
+            sender.sendMessage(plugin.getMessageUtil().color(String.format(
+                "&eChange feed&7: at change &f%d&7, &f%d &7revocations applied, delay &f%.0f&7ms avg / &f%d&7ms max%s",
+                changeFeed.getCursor(), changeFeed.getRevocationsApplied(), changeFeed.getAverageDelayMillis(),
+                changeFeed.getMaxDelayMillis(), changeFeed.getLastError() != null ? " &c(" + changeFeed.getLastError() + ")" : "")));
+        }
+        if (plugin.getDiscordWebhook() != null) {
+            DiscordWebhook discord = plugin.getDiscordWebhook();
+            sender.sendMessage(plugin.getMessageUtil().color(String.format(
+                "&eDiscord&7: &f%d &7notifications in &f%d &7messages (&f%d &7queued, &f%d &7rate limited, &f%d &7dropped)",
+                discord.getEmbedsSent(), discord.getMessagesSent(), discord.getQueueSize(),
+                discord.getRateLimitedCount(), discord.getDroppedCount())));
+        }
+        if (plugin.getDigestManager() != null) {
+            DigestManager digest = plugin.getDigestManager();
+            sender.sendMessage(plugin.getMessageUtil().color(String.format(
+                "&eDigest&7: &f%d &7punishments in &f%d &7digests (last &f%d&7), &f%d &7waiting for the next one",
+                digest.getPunishmentsDigested(), digest.getDigestsSent(), digest.getLastDigestSize(),
+                digest.getPendingCount())));
+        }
+        sender.sendMessage(plugin.getMessageUtil().color("&8&m----------------------------------------"));
+    }
+
+    private void handleOutbox(CommandSender sender, String action) {
+        if (plugin.getWebApiManager() == null) {
+            sender.sendMessage(plugin.getMessageUtil().color("&cWeb integration is disabled."));
+            return;
+        }
+
+        switch (action) {
+            case "retry" -> plugin.getDatabaseManager().retryDeadOutboxEntries().thenAccept(count -> {
+                sender.sendMessage(plugin.getMessageUtil().color("&aRequeued &e" + count + " &adead letters."));
+                plugin.getWebApiManager().getOutboxDispatcher().wake();
+            });
+            case "purge" -> plugin.getDatabaseManager().purgeDeadOutboxEntries().thenAccept(count ->
+                sender.sendMessage(plugin.getMessageUtil().color("&aDeleted &e" + count + " &adead letters.")));
+            default -> sendOutbox(sender);
+        }
+    }
+
+    private void sendOutbox(CommandSender sender) {
+        OutboxDispatcher dispatcher = plugin.getWebApiManager().getOutboxDispatcher();
+        CircuitBreaker breaker = dispatcher.getBreaker();
+
+        plugin.getDatabaseManager().getOutboxCounts().thenCombine(
+            plugin.getDatabaseManager().getDeadOutboxEntries(10), (counts, deadLetters) -> {
+                sender.sendMessage(plugin.getMessageUtil().color("&8&m----------------------------------------"));
+                sender.sendMessage(plugin.getMessageUtil().color("&6&lStaffSystem &7- Web Outbox"));
+                sender.sendMessage(plugin.getMessageUtil().color("&7Pending: &e" + counts[0] +
+                    " &7Dead letters: &c" + counts[1]));
+                sender.sendMessage(plugin.getMessageUtil().color("&7Delivered: &e" + dispatcher.getDeliveredCount() +
+                    " &7Failed attempts: &e" + dispatcher.getFailedAttemptCount()));
+
+                String state = switch (breaker.getState()) {
+                    case CLOSED -> "&aclosed";
+                    case HALF_OPEN -> "&etesting";
+                    case OPEN -> "&copen &7(retry in " + breaker.getRemainingOpenMillis() / 1000 + "s)";
+                };
+                sender.sendMessage(plugin.getMessageUtil().color("&7Circuit breaker: " + state +
+                    " &7- opened &e" + breaker.getTimesOpened() + " &7times"));
+
+                for (OutboxEntry entry : deadLetters) {
+                    sender.sendMessage(plugin.getMessageUtil().color("&c#" + entry.getId() + " &7" + entry.getEvent() +
+                        " from &f" + TimeUtil.formatDate(entry.getCreatedAt()) + " &7after &e" + entry.getAttempts() +
+                        " &7attempts: &f" + entry.getLastError()));
+                }
+                if (counts[1] > 0) {
+                    sender.sendMessage(plugin.getMessageUtil().color("&7Use &e/ss outbox retry &7or &e/ss outbox purge"));
+                }
+                sender.sendMessage(plugin.getMessageUtil().color("&8&m----------------------------------------"));
+                return null;
+            });
+    }
+
+    private void handleReconcile(CommandSender sender) {
+        if (plugin.getWebApiManager() == null) {
+            sender.sendMessage(plugin.getMessageUtil().color("&cWeb integration is disabled."));
+            return;
+        }
+
+        MerkleReconciler reconciler = plugin.getWebApiManager().getReconciler();
+        if (reconciler.isRunning()) {
+            sender.sendMessage(plugin.getMessageUtil().color("&cA reconciliation is already running."));
+            return;
+        }
+
+        sender.sendMessage(plugin.getMessageUtil().color("&7Comparing punishments with the web dashboard..."));
+        reconciler.reconcile().thenAccept(report -> {
+            if (report == null) {
+                sender.sendMessage(plugin.getMessageUtil().color("&cReconciliation failed; see the console."));
+                return;
+            }
+            sender.sendMessage(plugin.getMessageUtil().color((report.isInSync() ? "&a" : "&e") +
+                "Reconciled: &f" + report));
+        });
+    }
+
+    private void handleSync(CommandSender sender, boolean full) {
+        if (plugin.getWebApiManager() == null) {
+            sender.sendMessage(plugin.getMessageUtil().color("&cWeb integration is disabled."));
+            return;
+        }
+
+        DeltaSync deltaSync = plugin.getWebApiManager().getDeltaSync();
+        if (deltaSync.isRunning()) {
+            sender.sendMessage(plugin.getMessageUtil().color("&cA sync is already running (dashboard has acknowledged change &e" +
+                deltaSync.getAcknowledged() + "&c)."));
+            return;
+        }
+
+        sender.sendMessage(plugin.getMessageUtil().color("&7Sending " + (full ? "all" : "changed") +
+            " punishments to the web dashboard..."));
+        deltaSync.sync(full).thenAccept(sent -> {
+            if (sent < 0) {
+                sender.sendMessage(plugin.getMessageUtil().color("&cSync stopped: &f" + deltaSync.getLastError() +
+                    "&c. It resumes from the last acknowledged change."));
+                return;
+            }
+            sender.sendMessage(plugin.getMessageUtil().color("&aSent &e" + sent + " &apunishments in &e" +
+                deltaSync.getLastRunMillis() + "ms&a; dashboard is at change &e" + deltaSync.getAcknowledged()));
+        });
+    }
+
+    private void sendCacheLine(CommandSender sender, String name, BoundedCache<?, ?> cache) {
+        sender.sendMessage(plugin.getMessageUtil().color(String.format(
+            "&e%s&7: &f%d&7/&f%d &7entries, hit rate &f%.1f%% &7(%d hits, %d misses, %d evictions)",
+            name, cache.size(), cache.getMaximumSize(), cache.getHitRate() * 100,
+            cache.getHitCount(), cache.getMissCount(), cache.getEvictionCount())));
+    }
 }
@@ -24,14 +24,12 @@ public class WarnCommand implements CommandExecutor {
         }
 
         if (!staff.hasPermission("staffsystem.warn")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("no-permission")));
+            plugin.getMessageUtil().send(staff, "no-permission");
             return true;
         }
 
         if (args.length < 1) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("warn.usage")));
+            plugin.getMessageUtil().send(staff, "warn.usage");
             return true;
         }
 
@@ -39,22 +37,19 @@ public class WarnCommand implements CommandExecutor {
         Player target = Bukkit.getPlayer(targetName);
 
         if (target == null) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("player-offline")));
+            plugin.getMessageUtil().send(staff, "player-offline");
             return true;
         }
 
         // Check if target is staff
         if (target.hasPermission("staffsystem.staff") && !staff.hasPermission("staffsystem.admin")) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("cannot-punish-staff")));
+            plugin.getMessageUtil().send(staff, "cannot-punish-staff");
             return true;
         }
 
         // Check self-punishment
         if (target.getUniqueId().equals(staff.getUniqueId())) {
-            staff.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("cannot-punish-self")));
+            plugin.getMessageUtil().send(staff, "cannot-punish-self");
             return true;
         }
 
@@ -65,9 +60,7 @@ public class WarnCommand implements CommandExecutor {
         plugin.getPunishmentManager().warn(target, staff, reason)
             .thenAccept(success -> {
                 if (success) {
-                    staff.sendMessage(plugin.getMessageUtil().color(
-                        plugin.getMessageUtil().getMessage("warn.success")
-                            .replace("{player}", targetName)));
+                    plugin.getMessageUtil().send(staff, "warn.success", "player", targetName);
                 }
             });
 
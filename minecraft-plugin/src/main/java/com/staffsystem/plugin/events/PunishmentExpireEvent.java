@@ -0,0 +1,33 @@
+package com.staffsystem.plugin.events;
+
+import com.staffsystem.plugin.models.Punishment;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Called on the main thread when a temporary ban or mute reaches its expiration.
+ */
+public class PunishmentExpireEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Punishment punishment;
+
+    public PunishmentExpireEvent(Punishment punishment) {
+        this.punishment = punishment;
+    }
+
+    public Punishment getPunishment() {
+        return punishment;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -174,9 +174,7 @@ public class InventoryClickListener implements Listener {
                         plugin.getFreezeManager().toggleFreeze(targetPlayer, player);
                         
                         String messageKey = wasFrozen ? "freeze.unfrozen" : "freeze.frozen";
-                        player.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage(messageKey)
-                                .replace("{player}", target.getName())));
+                        plugin.getMessageUtil().send(player, messageKey, "player", target.getName());
                         
                         // Refresh GUI
                         plugin.getGuiManager().openOnlinePlayersGui(player, "FREEZE");
@@ -268,9 +266,7 @@ public class InventoryClickListener implements Listener {
                         plugin.getFreezeManager().toggleFreeze(targetPlayer, player);
                         
                         String messageKey = wasFrozen ? "freeze.unfrozen" : "freeze.frozen";
-                        player.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage(messageKey)
-                                .replace("{player}", target.getName())));
+                        plugin.getMessageUtil().send(player, messageKey, "player", target.getName());
                         
                         // Refresh GUI
                         plugin.getGuiManager().openPunishmentGui(player, target);
@@ -279,7 +275,7 @@ public class InventoryClickListener implements Listener {
             }
             case WRITABLE_BOOK -> {
                 // View history
-                plugin.getDatabaseManager().getPunishmentHistory(target.getUniqueId())
+                plugin.getPunishmentManager().getPunishmentHistory(target.getUniqueId())
                     .thenAccept(punishments -> {
                         Bukkit.getScheduler().runTask(plugin, () -> {
                             plugin.getGuiManager().openHistoryGui(player, target, punishments);
@@ -300,9 +296,7 @@ public class InventoryClickListener implements Listener {
                 } else {
                     plugin.getPunishmentManager().banOffline(target, staff, reason, duration);
                 }
-                staff.sendMessage(plugin.getMessageUtil().color(
-                    plugin.getMessageUtil().getMessage("ban.success")
-                        .replace("{player}", targetName)));
+                plugin.getMessageUtil().send(staff, "ban.success", "player", targetName);
             }
             case "mute" -> {
                 if (target.isOnline()) {
@@ -310,16 +304,12 @@ public class InventoryClickListener implements Listener {
                 } else {
                     plugin.getPunishmentManager().muteOffline(target, staff, reason, duration);
                 }
-                staff.sendMessage(plugin.getMessageUtil().color(
-                    plugin.getMessageUtil().getMessage("mute.success")
-                        .replace("{player}", targetName)));
+                plugin.getMessageUtil().send(staff, "mute.success", "player", targetName);
             }
             case "kick" -> {
                 if (target.isOnline()) {
                     plugin.getPunishmentManager().kick(target.getPlayer(), staff, reason);
-                    staff.sendMessage(plugin.getMessageUtil().color(
-                        plugin.getMessageUtil().getMessage("kick.success")
-                            .replace("{player}", targetName)));
+                    plugin.getMessageUtil().send(staff, "kick.success", "player", targetName);
                 } else {
                     staff.sendMessage(plugin.getMessageUtil().color("&cPlayer is not online!"));
                 }
@@ -327,9 +317,7 @@ public class InventoryClickListener implements Listener {
             case "warn" -> {
                 if (target.isOnline()) {
                     plugin.getPunishmentManager().warn(target.getPlayer(), staff, reason);
-                    staff.sendMessage(plugin.getMessageUtil().color(
-                        plugin.getMessageUtil().getMessage("warn.success")
-                            .replace("{player}", targetName)));
+                    plugin.getMessageUtil().send(staff, "warn.success", "player", targetName);
                 } else {
                     staff.sendMessage(plugin.getMessageUtil().color("&cPlayer is not online!"));
                 }
@@ -0,0 +1,77 @@
+package com.staffsystem.plugin.listeners;
+
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.utils.AdventureBridge;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerEvent;
+import org.bukkit.plugin.EventExecutor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Paper's AsyncChatEvent, registered by class name so the plugin still loads on Spigot.
+ * Delegates to {@link PlayerChatListener#handleChat}; the chat text is only serialized
+ * from its component when staff chat needs it.
+ */
+public class PaperChatListener implements Listener, EventExecutor {
+
+    private static final String EVENT_CLASS = "io.papermc.paper.event.player.AsyncChatEvent";
+
+    private final Class<? extends Event> eventClass;
+    private final MethodHandle message; // (AsyncChatEvent) -> Component
+    private final PlayerChatListener chatListener;
+
+    private PaperChatListener(Class<? extends Event> eventClass, MethodHandle message, PlayerChatListener chatListener) {
+        this.eventClass = eventClass;
+        this.message = message;
+        this.chatListener = chatListener;
+    }
+
+    /**
+     * @return Whether the Paper event exists and the listener was registered
+     */
+    public static boolean register(StaffSystemPlugin plugin, PlayerChatListener chatListener) {
+        try {
+            Class<? extends Event> eventClass = Class.forName(EVENT_CLASS).asSubclass(Event.class);
+            Class<?> component = Class.forName("net.kyori.adventure.text.Component");
+            MethodHandle message = MethodHandles.publicLookup()
+                .findVirtual(eventClass, "message", MethodType.methodType(component))
+                .asType(MethodType.methodType(Object.class, Event.class));
+
+            PaperChatListener listener = new PaperChatListener(eventClass, message, chatListener);
+            Bukkit.getPluginManager().registerEvent(eventClass, listener, EventPriority.HIGHEST, listener, plugin, true);
+            plugin.getLogger().info("Using Paper's AsyncChatEvent for chat handling");
+            return true;
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void execute(Listener listener, Event event) throws EventException {
+        if (!eventClass.isInstance(event)) {
+            return;
+        }
+
+        PlayerEvent chatEvent = (PlayerEvent) event;
+        if (chatListener.handleChat(chatEvent.getPlayer(), () -> getPlainMessage(event))) {
+            ((Cancellable) event).setCancelled(true);
+        }
+    }
+
+    private String getPlainMessage(Event event) {
+        try {
+            return AdventureBridge.toPlainText((Object) message.invokeExact(event));
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to read chat message", e);
+        }
+    }
+}
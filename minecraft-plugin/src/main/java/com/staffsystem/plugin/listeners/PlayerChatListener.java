@@ -9,6 +9,8 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 
+import java.util.function.Supplier;
+
 public class PlayerChatListener implements Listener {
 
     private final StaffSystemPlugin plugin;
@@ -19,30 +21,37 @@ public class PlayerChatListener implements Listener {
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onPlayerChat(AsyncPlayerChatEvent event) {
-        Player player = event.getPlayer();
-        
+        if (handleChat(event.getPlayer(), event::getMessage)) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Shared by the Spigot and Paper chat events.
+     *
+     * @param message Supplies the plain chat text; only called for staff chat
+     * @return Whether the chat message should be cancelled
+     */
+    public boolean handleChat(Player player, Supplier<String> message) {
         // Check if player has staff chat enabled
         if (plugin.getStaffModeManager().isStaffChatEnabled(player.getUniqueId())) {
-            event.setCancelled(true);
-            plugin.getStaffModeManager().sendStaffChat(player, event.getMessage());
-            return;
+            plugin.getStaffModeManager().sendStaffChat(player, message.get());
+            return true;
         }
         
         // Check for mute using cache (non-blocking)
         Punishment mute = plugin.getPunishmentManager().getCachedMute(player.getUniqueId());
         
-        if (mute != null && !mute.isExpired()) {
-            event.setCancelled(true);
-            
-            player.sendMessage(plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("mute.attempt-blocked")));
+        if (mute != null) {
+            plugin.getMessageUtil().send(player, "mute.attempt-blocked");
             
             if (!mute.isPermanent()) {
-                player.sendMessage(plugin.getMessageUtil().color(
-                    plugin.getMessageUtil().getMessage("mute.attempt-remaining")
-                        .replace("{remaining}", formatRemainingTime(mute.getRemainingTime()))));
+                plugin.getMessageUtil().send(player, "mute.attempt-remaining",
+                    "remaining", formatRemainingTime(mute.getRemainingTime()));
             }
+            return true;
         }
+        return false;
     }
 
     private String formatRemainingTime(long milliseconds) {
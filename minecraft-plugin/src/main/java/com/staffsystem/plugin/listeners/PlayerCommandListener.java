@@ -19,15 +19,12 @@ public class PlayerCommandListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
         Player player = event.getPlayer();
-        String command = event.getMessage().split(" ")[0].toLowerCase();
         
-        // Check if player is frozen
-        if (plugin.getFreezeManager().isFrozen(player.getUniqueId())) {
-            if (!plugin.getFreezeManager().canUseCommand(player, command)) {
-                event.setCancelled(true);
-                player.sendMessage(plugin.getMessageUtil().color(
-                    plugin.getMessageUtil().getMessage("freeze.command-blocked")));
-            }
+        // Check freeze and mute command policies
+        String blockedMessage = plugin.getCommandPolicyManager().getBlockedMessage(player, event.getMessage());
+        if (blockedMessage != null) {
+            event.setCancelled(true);
+            plugin.getMessageUtil().send(player, blockedMessage);
         }
     }
 }
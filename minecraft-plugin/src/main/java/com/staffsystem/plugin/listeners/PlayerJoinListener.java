@@ -1,7 +1,7 @@
 package com.staffsystem.plugin.listeners;
 
 import com.staffsystem.plugin.StaffSystemPlugin;
-import com.staffsystem.plugin.models.Punishment;
+import com.staffsystem.plugin.utils.MessageBundle;
 
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -10,6 +10,8 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 
+import java.util.concurrent.CompletableFuture;
+
 public class PlayerJoinListener implements Listener {
 
     private final StaffSystemPlugin plugin;
@@ -21,20 +23,40 @@ public class PlayerJoinListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerLogin(PlayerLoginEvent event) {
         Player player = event.getPlayer();
-        
+
+        // Skip the database entirely for players the ban filter rules out
+        if (!plugin.getPunishmentManager().mightBeBanned(player.getUniqueId())) {
+            return;
+        }
+
         // Check for active ban (synchronously check database)
         plugin.getPunishmentManager().getActiveBan(player.getUniqueId())
-            .thenAccept(ban -> {
-                if (ban != null && !ban.isExpired()) {
-                    String kickMessage = formatBanMessage(ban);
-                    event.disallow(PlayerLoginEvent.Result.KICK_BANNED, kickMessage);
+            .thenCompose(ban -> {
+                if (ban == null || ban.isExpired()) {
+                    return CompletableFuture.completedFuture(null);
                 }
+                // The client hasn't sent its settings yet, so getLocale() is still the server default;
+                // use the locale the player had when they last left
+                CompletableFuture<String> locale = plugin.getMessageUtil().isLocalized() ?
+                    plugin.getDatabaseManager().getPlayerLocale(player.getUniqueId()) :
+                    CompletableFuture.completedFuture(null);
+                return locale.thenAccept(lastLocale -> {
+                    MessageBundle bundle = plugin.getMessageUtil().getBundle(lastLocale);
+                    String kickMessage = plugin.getPunishmentManager().formatBanMessage(bundle, ban);
+                    event.disallow(PlayerLoginEvent.Result.KICK_BANNED, kickMessage);
+                });
             }).join(); // Block until check completes
     }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
+
+        // Add to the staff audiences this player belongs to
+        plugin.getRecipientManager().update(player);
+
+        // Re-apply a freeze that outlived a logout or restart
+        plugin.getFreezeManager().handleJoin(player);
         
         // Load mute cache for this player
         plugin.getPunishmentManager().loadMuteCache(player.getUniqueId());
@@ -43,32 +65,17 @@ public class PlayerJoinListener implements Listener {
         plugin.getPunishmentManager().getActiveMute(player.getUniqueId())
             .thenAccept(mute -> {
                 if (mute != null && !mute.isExpired()) {
-                    player.sendMessage(plugin.getMessageUtil().color(
-                        plugin.getMessageUtil().getMessage("mute.player-notify")));
-                    player.sendMessage(plugin.getMessageUtil().color(
-                        plugin.getMessageUtil().getMessage("mute.player-reason")
-                            .replace("{reason}", mute.getReason())));
+                    player.sendMessage(plugin.getMessageUtil().format(player, "mute.player-notify"));
+                    player.sendMessage(plugin.getMessageUtil().format(player, "mute.player-reason",
+                        "reason", mute.getReason()));
                     if (!mute.isPermanent()) {
-                        player.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("mute.player-duration")
-                                .replace("{duration}", formatRemainingTime(mute.getRemainingTime()))));
+                        player.sendMessage(plugin.getMessageUtil().format(player, "mute.player-duration",
+                            "duration", formatRemainingTime(mute.getRemainingTime())));
                     }
                 }
             });
     }
 
-    private String formatBanMessage(Punishment ban) {
-        String template = plugin.getMessageUtil().getMessage("ban.screen");
-        String appealUrl = plugin.getConfig().getString("punishments.appeals.url", "N/A");
-        
-        return plugin.getMessageUtil().color(template
-            .replace("{reason}", ban.getReason())
-            .replace("{staff}", ban.getStaffName())
-            .replace("{duration}", ban.isPermanent() ? "Permanent" : formatRemainingTime(ban.getRemainingTime()))
-            .replace("{expires}", ban.isPermanent() ? "Never" : formatExpiration(ban.getExpiration()))
-            .replace("{appeal_url}", appealUrl));
-    }
-
     private String formatRemainingTime(long milliseconds) {
         if (milliseconds <= 0) {
             return "Expired";
@@ -89,9 +96,4 @@ public class PlayerJoinListener implements Listener {
             return seconds + " second(s)";
         }
     }
-
-    private String formatExpiration(long timestamp) {
-        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        return sdf.format(new java.util.Date(timestamp));
-    }
 }
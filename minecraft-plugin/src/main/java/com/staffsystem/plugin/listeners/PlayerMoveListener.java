@@ -1,6 +1,6 @@
 package com.staffsystem.plugin.listeners;
 
-import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.managers.FreezeManager;
 
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
@@ -9,19 +9,22 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
 
+/**
+ * Registered by {@link FreezeManager} only while at least one player is frozen.
+ */
 public class PlayerMoveListener implements Listener {
 
-    private final StaffSystemPlugin plugin;
+    private final FreezeManager freezeManager;
 
-    public PlayerMoveListener(StaffSystemPlugin plugin) {
-        this.plugin = plugin;
+    public PlayerMoveListener(FreezeManager freezeManager) {
+        this.freezeManager = freezeManager;
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
         Player player = event.getPlayer();
         
-        if (!plugin.getFreezeManager().isFrozen(player.getUniqueId())) {
+        if (!freezeManager.isFrozen(player.getUniqueId())) {
             return;
         }
 
@@ -33,5 +33,13 @@ public class PlayerQuitListener implements Listener {
         
         // Clear mute cache
         plugin.getPunishmentManager().clearMuteCache(player.getUniqueId());
+
+        // Drop from staff audiences
+        plugin.getRecipientManager().remove(player);
+
+        // Remember the client language for a ban screen shown at the next login
+        if (plugin.getMessageUtil().isLocalized()) {
+            plugin.getDatabaseManager().savePlayerLocale(player.getUniqueId(), player.getLocale());
+        }
     }
 }
@@ -0,0 +1,23 @@
+package com.staffsystem.plugin.listeners;
+
+import com.staffsystem.plugin.StaffSystemPlugin;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+
+public class PlayerWorldListener implements Listener {
+
+    private final StaffSystemPlugin plugin;
+
+    public PlayerWorldListener(StaffSystemPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        // Permission plugins can grant per-world permissions
+        plugin.getRecipientManager().update(event.getPlayer());
+    }
+}
@@ -0,0 +1,110 @@
+package com.staffsystem.plugin.managers;
+
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.utils.CommandPolicy;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.entity.Player;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Decides which commands frozen and muted players may run. The freeze allow-list and
+ * mute block-list are compiled into one {@link CommandPolicy} on load and reload, with
+ * every alias of the configured commands added, so each command costs a single lookup.
+ */
+public class CommandPolicyManager {
+
+    private final StaffSystemPlugin plugin;
+    private volatile CommandPolicy policy = new CommandPolicy();
+    private volatile boolean freezeBlockCommands;
+    private volatile boolean muteBlockCommands;
+
+    public CommandPolicyManager(StaffSystemPlugin plugin) {
+        this.plugin = plugin;
+        reload();
+
+        // Other plugins' commands are only registered once they are enabled, so compile again
+        // after startup to pick up their aliases
+        Bukkit.getScheduler().runTask(plugin, this::reload);
+    }
+
+    public void reload() {
+        CommandPolicy compiled = new CommandPolicy();
+        for (String command : plugin.getConfig().getStringList("freeze.allowed-commands")) {
+            addWithAliases(compiled, command, CommandPolicy.ALLOWED_WHILE_FROZEN);
+        }
+        for (String command : plugin.getConfig().getStringList("mute.blocked-commands")) {
+            addWithAliases(compiled, command, CommandPolicy.BLOCKED_WHILE_MUTED);
+        }
+
+        freezeBlockCommands = plugin.getConfig().getBoolean("freeze.block-commands", true);
+        muteBlockCommands = plugin.getConfig().getBoolean("mute.block-commands", true);
+        policy = compiled;
+    }
+
+    /**
+     * @param commandLine The command as typed, including the leading slash
+     * @return The message key to send if the command is blocked, or null if it may run
+     */
+    public String getBlockedMessage(Player player, String commandLine) {
+        boolean frozen = freezeBlockCommands && plugin.getFreezeManager().isFrozen(player.getUniqueId());
+        boolean muted = muteBlockCommands
+            && plugin.getPunishmentManager().getCachedMute(player.getUniqueId()) != null;
+        if (!frozen && !muted) {
+            return null;
+        }
+
+        int flags = policy.lookup(commandLine);
+        if (frozen && (flags & CommandPolicy.ALLOWED_WHILE_FROZEN) == 0) {
+            return "freeze.command-blocked";
+        }
+        if (muted && (flags & CommandPolicy.BLOCKED_WHILE_MUTED) != 0) {
+            return "mute.command-blocked";
+        }
+        return null;
+    }
+
+    public int getEntryCount() {
+        return policy.size();
+    }
+
+    private void addWithAliases(CommandPolicy target, String command, int flags) {
+        String entry = command.trim().toLowerCase(Locale.ROOT);
+        if (entry.startsWith("/")) {
+            entry = entry.substring(1);
+        }
+        if (entry.isEmpty()) {
+            return;
+        }
+        target.add(entry, flags);
+
+        int space = entry.indexOf(' ');
+        String label = space < 0 ? entry : entry.substring(0, space);
+        String arguments = space < 0 ? "" : entry.substring(space);
+
+        // The command's real name and all of its aliases
+        PluginCommand pluginCommand = Bukkit.getPluginCommand(label);
+        if (pluginCommand != null) {
+            target.add(pluginCommand.getName() + arguments, flags);
+            for (String alias : pluginCommand.getAliases()) {
+                target.add(alias + arguments, flags);
+            }
+        }
+
+        // Aliases from commands.yml that point at this command
+        Map<String, String[]> commandAliases = Bukkit.getCommandAliases();
+        if (commandAliases != null) {
+            for (Map.Entry<String, String[]> alias : commandAliases.entrySet()) {
+                for (String targetCommand : alias.getValue()) {
+                    String targetLabel = targetCommand.split(" ", 2)[0].toLowerCase(Locale.ROOT);
+                    if (targetLabel.equals(label) || targetLabel.endsWith(":" + label)) {
+                        target.add(alias.getKey() + arguments, flags);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,20 +1,36 @@
 package com.staffsystem.plugin.managers;
 
 import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.api.EventPayload;
+import com.staffsystem.plugin.api.JsonEventCodec;
+import com.staffsystem.plugin.models.FrozenPlayer;
+import com.staffsystem.plugin.models.OutboxEntry;
 import com.staffsystem.plugin.models.Punishment;
 import com.staffsystem.plugin.models.Punishment.PunishmentType;
+import com.staffsystem.plugin.models.RangeDigest;
+import com.staffsystem.plugin.utils.PunishmentDigest;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
 import java.io.File;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class DatabaseManager {
 
+    // Rows per query while streaming active bans (see forEachActiveBan)
+    private static final int ACTIVE_BAN_PAGE_SIZE = 1000;
+    // Rows hashed per query while digesting id ranges (see getRangeDigests)
+    private static final int DIGEST_PAGE_SIZE = 1000;
+
     private final StaffSystemPlugin plugin;
     private HikariDataSource dataSource;
 
@@ -74,52 +90,148 @@ public class DatabaseManager {
             "    last_login TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
             ")";
 
+        String frozenPlayersTable =
+            "CREATE TABLE IF NOT EXISTS frozen_players (" +
+            "    player_uuid TEXT PRIMARY KEY," +
+            "    player_name TEXT NOT NULL," +
+            "    staff_uuid TEXT," +
+            "    world TEXT," +
+            "    x REAL," +
+            "    y REAL," +
+            "    z REAL," +
+            "    yaw REAL," +
+            "    pitch REAL," +
+            "    frozen_at INTEGER NOT NULL" +
+            ")";
+
+        // Web API events waiting to be delivered, written in the same transaction as their punishment
+        String outboxTable =
+            "CREATE TABLE IF NOT EXISTS outbox (" +
+            "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "    idempotency_key TEXT UNIQUE NOT NULL," +
+            "    event TEXT NOT NULL," +
+            "    payload TEXT NOT NULL," +
+            "    attempts INTEGER DEFAULT 0," +
+            "    next_attempt INTEGER NOT NULL," +
+            "    last_error TEXT," +
+            "    created_at INTEGER NOT NULL," +
+            "    dead INTEGER DEFAULT 0" +
+            ")";
+
+        // Client locale of each player when they last left, for screens shown before the client reports it
+        String playerLocalesTable =
+            "CREATE TABLE IF NOT EXISTS player_locales (" +
+            "    player_uuid TEXT PRIMARY KEY," +
+            "    locale TEXT NOT NULL" +
+            ")";
+
         // Create indexes for better query performance
         String indexPlayerUuid = "CREATE INDEX IF NOT EXISTS idx_player_uuid ON punishments(player_uuid);";
         String indexActive = "CREATE INDEX IF NOT EXISTS idx_active ON punishments(active);";
         String indexType = "CREATE INDEX IF NOT EXISTS idx_type ON punishments(type);";
+        String indexOutboxDue = "CREATE INDEX IF NOT EXISTS idx_outbox_due ON outbox(dead, next_attempt);";
 
         try (Connection conn = dataSource.getConnection();
              Statement stmt = conn.createStatement()) {
             stmt.execute(punishmentsTable);
             stmt.execute(staffTable);
+            stmt.execute(frozenPlayersTable);
+            stmt.execute(outboxTable);
+            stmt.execute(playerLocalesTable);
             stmt.execute(indexPlayerUuid);
             stmt.execute(indexActive);
             stmt.execute(indexType);
+            stmt.execute(indexOutboxDue);
+            createChangeTracking(stmt);
+
+            // Without statistics SQLite answers login ban checks through idx_active, reading
+            // every active punishment; a sampled ANALYZE takes milliseconds even on large tables
+            stmt.execute("PRAGMA analysis_limit = 400");
+            stmt.execute("ANALYZE");
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed to create tables: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Give every punishment a change_seq that is raised past all others whenever the row is
+     * inserted or updated, so the web dashboard can be sent everything changed since the
+     * last sequence it acknowledged. Triggers keep it right for every write path.
+     */
+    private void createChangeTracking(Statement stmt) throws SQLException {
+        boolean hasColumn = false;
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(punishments)")) {
+            while (rs.next()) {
+                hasColumn |= rs.getString("name").equals("change_seq");
+            }
+        }
+        if (!hasColumn) {
+            stmt.execute("ALTER TABLE punishments ADD COLUMN change_seq INTEGER NOT NULL DEFAULT 0");
+            // Existing rows count as changed in id order
+            stmt.execute("UPDATE punishments SET change_seq = id");
+        }
+
+        String nextSeq = "UPDATE punishments SET change_seq = (SELECT MAX(change_seq) + 1 FROM punishments) WHERE id = NEW.id;";
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_change_seq ON punishments(change_seq);");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS punishments_seq_insert AFTER INSERT ON punishments " +
+            "BEGIN " + nextSeq + " END;");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS punishments_seq_update AFTER UPDATE OF " +
+            "player_uuid, player_name, staff_uuid, staff_name, type, reason, timestamp, duration, expiration, active, server " +
+            "ON punishments BEGIN " + nextSeq + " END;");
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS sync_state (name TEXT PRIMARY KEY, value INTEGER NOT NULL)");
+    }
+
     public CompletableFuture<Punishment> savePunishment(Punishment punishment) {
+        return savePunishment(punishment, null);
+    }
+
+    /**
+     * @param webNotification Also queue this web API notification in the outbox, committed
+     *                        atomically with the punishment so it can never be lost (null for
+     *                        none). It is written once the punishment has its id.
+     */
+    public CompletableFuture<Punishment> savePunishment(Punishment punishment, EventPayload webNotification) {
         return CompletableFuture.supplyAsync(() -> {
             String sql = 
                 "INSERT INTO punishments (player_uuid, player_name, staff_uuid, staff_name, " +
                 "    type, reason, timestamp, duration, expiration, active, server) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id";
 
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                stmt.setString(1, punishment.getPlayerUuid().toString());
-                stmt.setString(2, punishment.getPlayerName());
-                stmt.setString(3, punishment.getStaffUuid().toString());
-                stmt.setString(4, punishment.getStaffName());
-                stmt.setString(5, punishment.getType().name());
-                stmt.setString(6, punishment.getReason());
-                stmt.setLong(7, punishment.getTimestamp());
-                stmt.setLong(8, punishment.getDuration());
-                stmt.setLong(9, punishment.getExpiration());
-                stmt.setBoolean(10, punishment.isActive());
-                stmt.setString(11, punishment.getServer());
-
-                stmt.executeUpdate();
-
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    punishment.setId(rs.getInt(1));
+            try (Connection conn = dataSource.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, punishment.getPlayerUuid().toString());
+                    stmt.setString(2, punishment.getPlayerName());
+                    stmt.setString(3, punishment.getStaffUuid().toString());
+                    stmt.setString(4, punishment.getStaffName());
+                    stmt.setString(5, punishment.getType().name());
+                    stmt.setString(6, punishment.getReason());
+                    stmt.setLong(7, punishment.getTimestamp());
+                    stmt.setLong(8, punishment.getDuration());
+                    stmt.setLong(9, punishment.getExpiration());
+                    stmt.setBoolean(10, punishment.isActive());
+                    stmt.setString(11, punishment.getServer());
+
+                    // sqlite-jdbc no longer supports getGeneratedKeys; the result must be closed before commit
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            punishment.setId(rs.getInt(1));
+                        }
+                    }
+
+                    if (webNotification != null) {
+                        insertOutboxEntry(conn, "punishment", JsonEventCodec.toJson(webNotification));
+                    }
+                    conn.commit();
+                    return punishment;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
                 }
-                return punishment;
             } catch (SQLException e) {
                 plugin.getLogger().severe("Failed to save punishment: " + e.getMessage());
                 return null;
@@ -185,6 +297,107 @@ public class DatabaseManager {
         });
     }
 
+    /**
+     * @return Those of the given players who still have an unexpired ban (or mute), or null if the query failed
+     */
+    public CompletableFuture<Set<UUID>> getPlayersWithActive(Collection<UUID> playerUuids, boolean bans) {
+        return CompletableFuture.supplyAsync(() -> {
+            Set<UUID> players = new HashSet<>();
+            if (playerUuids.isEmpty()) {
+                return players;
+            }
+            String sql = "SELECT DISTINCT player_uuid FROM punishments " +
+                "WHERE type IN " + (bans ? "('BAN', 'TEMP_BAN')" : "('MUTE', 'TEMP_MUTE')") + " AND active = ? " +
+                "AND (duration = -1 OR expiration >= ?) " +
+                "AND player_uuid IN (" + String.join(",", Collections.nCopies(playerUuids.size(), "?")) + ")";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setBoolean(1, true);
+                stmt.setLong(2, System.currentTimeMillis());
+                int index = 3;
+                for (UUID playerUuid : playerUuids) {
+                    stmt.setString(index++, playerUuid.toString());
+                }
+
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    players.add(UUID.fromString(rs.getString(1)));
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to get punished players: " + e.getMessage());
+                return null;
+            }
+            return players;
+        });
+    }
+
+    public CompletableFuture<Integer> getActiveBanCount() {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql =
+                "SELECT COUNT(DISTINCT player_uuid) FROM punishments " +
+                "WHERE type IN ('BAN', 'TEMP_BAN') AND active = ? AND (expiration = -1 OR expiration > ?)";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setBoolean(1, true);
+                stmt.setLong(2, System.currentTimeMillis());
+
+                ResultSet rs = stmt.executeQuery();
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to count active bans: " + e.getMessage());
+            }
+            return 0;
+        });
+    }
+
+    /**
+     * Stream the UUID of every active ban to the consumer without materializing the whole
+     * ban list (a player banned more than once is visited once per ban). Bans are read in
+     * pages by id and the connection is released between pages, so other queries, such as
+     * login ban checks, wait for at most one page.
+     *
+     * @return The number of bans visited, or -1 if reading failed
+     */
+    public CompletableFuture<Integer> forEachActiveBan(Consumer<UUID> consumer) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql =
+                "SELECT id, player_uuid FROM punishments " +
+                "WHERE active = ? AND id > ? AND type IN ('BAN', 'TEMP_BAN') AND (expiration = -1 OR expiration > ?) " +
+                "ORDER BY id LIMIT ?";
+
+            long now = System.currentTimeMillis();
+            long lastId = 0;
+            int count = 0;
+            int page;
+            do {
+                page = 0;
+                try (Connection conn = dataSource.getConnection();
+                     PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setBoolean(1, true);
+                    stmt.setLong(2, lastId);
+                    stmt.setLong(3, now);
+                    stmt.setInt(4, ACTIVE_BAN_PAGE_SIZE);
+
+                    ResultSet rs = stmt.executeQuery();
+                    while (rs.next()) {
+                        lastId = rs.getLong(1);
+                        consumer.accept(UUID.fromString(rs.getString(2)));
+                        page++;
+                    }
+                } catch (SQLException e) {
+                    plugin.getLogger().severe("Failed to load active bans: " + e.getMessage());
+                    return -1;
+                }
+                count += page;
+            } while (page == ACTIVE_BAN_PAGE_SIZE);
+            return count;
+        });
+    }
+
     public CompletableFuture<List<Punishment>> getPunishmentHistory(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
             List<Punishment> punishments = new ArrayList<>();
@@ -205,6 +418,228 @@ public class DatabaseManager {
         });
     }
 
+    /**
+     * @return Punishments with an id in [low, high), in id order
+     */
+    public CompletableFuture<List<Punishment>> getPunishmentsInIdRange(long low, long high) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Punishment> punishments = new ArrayList<>();
+            String sql = "SELECT * FROM punishments WHERE id >= ? AND id < ? ORDER BY id";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, low);
+                stmt.setLong(2, high);
+
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    punishments.add(parsePunishment(rs));
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to get punishments by id: " + e.getMessage());
+            }
+            return punishments;
+        });
+    }
+
+    /**
+     * @return The punishments with the given ids that exist, or null if the query failed
+     */
+    public CompletableFuture<List<Punishment>> getPunishmentsByIds(List<Integer> punishmentIds) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Punishment> punishments = new ArrayList<>();
+            if (punishmentIds.isEmpty()) {
+                return punishments;
+            }
+            String sql = "SELECT * FROM punishments WHERE id IN (" +
+                String.join(",", Collections.nCopies(punishmentIds.size(), "?")) + ")";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < punishmentIds.size(); i++) {
+                    stmt.setInt(i + 1, punishmentIds.get(i));
+                }
+
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    punishments.add(parsePunishment(rs));
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to get punishments by id: " + e.getMessage());
+                return null;
+            }
+            return punishments;
+        });
+    }
+
+    /**
+     * @return Up to limit punishments inserted or updated after the given change_seq, in change order
+     */
+    public CompletableFuture<List<Punishment>> getPunishmentChanges(long afterSeq, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Punishment> punishments = new ArrayList<>();
+            String sql = "SELECT * FROM punishments WHERE change_seq > ? ORDER BY change_seq LIMIT ?";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, afterSeq);
+                stmt.setInt(2, limit);
+                stmt.setFetchSize(limit);
+
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    punishments.add(parsePunishment(rs));
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to get changed punishments: " + e.getMessage());
+                return null;
+            }
+            return punishments;
+        });
+    }
+
+    public CompletableFuture<Long> getSyncState(String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "SELECT value FROM sync_state WHERE name = ?";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, name);
+                ResultSet rs = stmt.executeQuery();
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to read sync state: " + e.getMessage());
+            }
+            return 0L;
+        });
+    }
+
+    public CompletableFuture<Boolean> setSyncState(String name, long value) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "INSERT INTO sync_state (name, value) VALUES (?, ?) ON CONFLICT(name) DO UPDATE SET value = excluded.value";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, name);
+                stmt.setLong(2, value);
+                return stmt.executeUpdate() > 0;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to save sync state: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    public CompletableFuture<String> getPlayerLocale(UUID playerUuid) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "SELECT locale FROM player_locales WHERE player_uuid = ?";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, playerUuid.toString());
+                ResultSet rs = stmt.executeQuery();
+                if (rs.next()) {
+                    return rs.getString(1);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to read player locale: " + e.getMessage());
+            }
+            return null;
+        });
+    }
+
+    public CompletableFuture<Boolean> savePlayerLocale(UUID playerUuid, String locale) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "INSERT INTO player_locales (player_uuid, locale) VALUES (?, ?) " +
+                "ON CONFLICT(player_uuid) DO UPDATE SET locale = excluded.locale WHERE locale <> excluded.locale";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, playerUuid.toString());
+                stmt.setString(2, locale);
+                return stmt.executeUpdate() > 0;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to save player locale: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    public CompletableFuture<Long> getMaxPunishmentId() {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "SELECT COALESCE(MAX(id), 0) FROM punishments";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                ResultSet rs = stmt.executeQuery();
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to get highest punishment id: " + e.getMessage());
+            }
+            return 0L;
+        });
+    }
+
+    /**
+     * Split each id range into at most fanout children (see {@link RangeDigest#split}) and
+     * digest every child. Ranges are scanned in pages of {@link #DIGEST_PAGE_SIZE} rows, each
+     * on its own connection, so logins and writes are not held up behind a whole-table scan.
+     *
+     * @param ranges [low, high) pairs
+     * @return The child digests of each range, in the same order, or null if the scan failed
+     */
+    public CompletableFuture<List<List<RangeDigest>>> getRangeDigests(List<long[]> ranges, int fanout) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<List<RangeDigest>> digests = new ArrayList<>(ranges.size());
+            String sql = "SELECT id, player_uuid, staff_uuid, type, reason, timestamp, duration, expiration, active " +
+                        "FROM punishments WHERE id >= ? AND id < ? ORDER BY id LIMIT ?";
+
+            for (long[] range : ranges) {
+                long[] bounds = RangeDigest.split(range[0], range[1], fanout);
+                int[] counts = new int[bounds.length - 1];
+                long[] hashes = new long[bounds.length - 1];
+                long span = bounds.length > 2 ? bounds[1] - bounds[0] : Long.MAX_VALUE;
+
+                long nextId = range[0];
+                int page;
+                do {
+                    page = 0;
+                    try (Connection conn = dataSource.getConnection();
+                         PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        stmt.setLong(1, nextId);
+                        stmt.setLong(2, range[1]);
+                        stmt.setInt(3, DIGEST_PAGE_SIZE);
+
+                        ResultSet rs = stmt.executeQuery();
+                        while (rs.next()) {
+                            long id = rs.getLong(1);
+                            int child = (int) Math.min((id - range[0]) / span, counts.length - 1);
+                            counts[child]++;
+                            hashes[child] ^= PunishmentDigest.hash(id, rs.getString(2), rs.getString(3), rs.getString(4),
+                                rs.getString(5), rs.getLong(6), rs.getLong(7), rs.getLong(8), rs.getBoolean(9));
+                            nextId = id + 1;
+                            page++;
+                        }
+                    } catch (SQLException e) {
+                        plugin.getLogger().severe("Failed to digest punishments: " + e.getMessage());
+                        return null;
+                    }
+                } while (page == DIGEST_PAGE_SIZE);
+
+                List<RangeDigest> children = new ArrayList<>(counts.length);
+                for (int i = 0; i < counts.length; i++) {
+                    children.add(new RangeDigest(bounds[i], bounds[i + 1], counts[i], hashes[i]));
+                }
+                digests.add(children);
+            }
+            return digests;
+        });
+    }
+
     public CompletableFuture<Integer> getWarningCount(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
             String sql = "SELECT COUNT(*) FROM punishments WHERE player_uuid = ? AND type = 'WARN' AND active = ?";
@@ -242,6 +677,55 @@ public class DatabaseManager {
         });
     }
 
+    public CompletableFuture<Boolean> deactivatePunishments(List<Integer> punishmentIds) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "UPDATE punishments SET active = ? WHERE id = ?";
+
+            try (Connection conn = dataSource.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int punishmentId : punishmentIds) {
+                        stmt.setBoolean(1, false);
+                        stmt.setInt(2, punishmentId);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    conn.commit();
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to deactivate punishments: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    public CompletableFuture<List<Punishment>> getActiveTempPunishments() {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Punishment> punishments = new ArrayList<>();
+            String sql = "SELECT * FROM punishments WHERE type IN ('TEMP_BAN', 'TEMP_MUTE') AND active = ?";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setBoolean(1, true);
+                stmt.setFetchSize(1000);
+
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    punishments.add(parsePunishment(rs));
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to get active temporary punishments: " + e.getMessage());
+            }
+            return punishments;
+        });
+    }
+
     public CompletableFuture<Boolean> unban(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
             String sql = "UPDATE punishments SET active = ? WHERE player_uuid = ? AND type IN ('BAN', 'TEMP_BAN') AND active = ?";
@@ -278,6 +762,261 @@ public class DatabaseManager {
         });
     }
 
+    public CompletableFuture<Boolean> saveFrozenPlayer(FrozenPlayer frozen) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "INSERT OR REPLACE INTO frozen_players (player_uuid, player_name, staff_uuid, world, x, y, z, yaw, pitch, frozen_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, frozen.getPlayerUuid().toString());
+                stmt.setString(2, frozen.getPlayerName());
+                stmt.setString(3, frozen.getStaffUuid() != null ? frozen.getStaffUuid().toString() : null);
+                stmt.setString(4, frozen.getWorld());
+                stmt.setDouble(5, frozen.getX());
+                stmt.setDouble(6, frozen.getY());
+                stmt.setDouble(7, frozen.getZ());
+                stmt.setFloat(8, frozen.getYaw());
+                stmt.setFloat(9, frozen.getPitch());
+                stmt.setLong(10, frozen.getFrozenAt());
+
+                return stmt.executeUpdate() > 0;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to save frozen player: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> deleteFrozenPlayer(UUID playerUuid) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "DELETE FROM frozen_players WHERE player_uuid = ?";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, playerUuid.toString());
+
+                return stmt.executeUpdate() > 0;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to delete frozen player: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    public CompletableFuture<List<FrozenPlayer>> getFrozenPlayers() {
+        return CompletableFuture.supplyAsync(() -> {
+            List<FrozenPlayer> frozenPlayers = new ArrayList<>();
+            String sql = "SELECT * FROM frozen_players";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    String staffUuid = rs.getString("staff_uuid");
+                    frozenPlayers.add(new FrozenPlayer(
+                        UUID.fromString(rs.getString("player_uuid")),
+                        rs.getString("player_name"),
+                        staffUuid != null ? UUID.fromString(staffUuid) : null,
+                        rs.getString("world"),
+                        rs.getDouble("x"),
+                        rs.getDouble("y"),
+                        rs.getDouble("z"),
+                        rs.getFloat("yaw"),
+                        rs.getFloat("pitch"),
+                        rs.getLong("frozen_at")));
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to get frozen players: " + e.getMessage());
+            }
+            return frozenPlayers;
+        });
+    }
+
+    public CompletableFuture<Boolean> addOutboxEntry(String event, String payload) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = dataSource.getConnection()) {
+                insertOutboxEntry(conn, event, payload);
+                return true;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to add outbox entry: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    private void insertOutboxEntry(Connection conn, String event, String payload) throws SQLException {
+        String sql = "INSERT INTO outbox (idempotency_key, event, payload, next_attempt, created_at) VALUES (?, ?, ?, ?, ?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            long now = System.currentTimeMillis();
+            stmt.setString(1, UUID.randomUUID().toString());
+            stmt.setString(2, event);
+            stmt.setString(3, payload);
+            stmt.setLong(4, now);
+            stmt.setLong(5, now);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * @return Entries whose next attempt is due, oldest first
+     */
+    public CompletableFuture<List<OutboxEntry>> getDueOutboxEntries(int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "SELECT * FROM outbox WHERE dead = 0 AND next_attempt <= ? ORDER BY id LIMIT ?";
+            return queryOutbox(sql, System.currentTimeMillis(), limit);
+        });
+    }
+
+    public CompletableFuture<List<OutboxEntry>> getDeadOutboxEntries(int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "SELECT * FROM outbox WHERE dead = ? ORDER BY id DESC LIMIT ?";
+            return queryOutbox(sql, 1, limit);
+        });
+    }
+
+    private List<OutboxEntry> queryOutbox(String sql, long firstParameter, int limit) {
+        List<OutboxEntry> entries = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, firstParameter);
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                entries.add(new OutboxEntry(
+                    rs.getLong("id"),
+                    rs.getString("idempotency_key"),
+                    rs.getString("event"),
+                    rs.getString("payload"),
+                    rs.getInt("attempts"),
+                    rs.getLong("next_attempt"),
+                    rs.getString("last_error"),
+                    rs.getLong("created_at")));
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to read outbox: " + e.getMessage());
+        }
+        return entries;
+    }
+
+    /**
+     * @return The number of pending entries at index 0 and dead letters at index 1
+     */
+    public CompletableFuture<int[]> getOutboxCounts() {
+        return CompletableFuture.supplyAsync(() -> {
+            int[] counts = new int[2];
+            String sql = "SELECT dead, COUNT(*) FROM outbox GROUP BY dead";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    counts[rs.getInt(1) == 0 ? 0 : 1] = rs.getInt(2);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to count outbox entries: " + e.getMessage());
+            }
+            return counts;
+        });
+    }
+
+    public CompletableFuture<Boolean> deleteOutboxEntries(List<OutboxEntry> entries) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "DELETE FROM outbox WHERE id = ?";
+
+            try (Connection conn = dataSource.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (OutboxEntry entry : entries) {
+                        stmt.setLong(1, entry.getId());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    conn.commit();
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to delete outbox entries: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Record a failed delivery attempt. Entries that reach maxAttempts become dead letters.
+     *
+     * @param nextAttempts The time of the next attempt for each entry, in the same order
+     */
+    public CompletableFuture<Boolean> markOutboxEntriesFailed(List<OutboxEntry> entries, long[] nextAttempts,
+                                                               String error, int maxAttempts) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "UPDATE outbox SET attempts = attempts + 1, next_attempt = ?, last_error = ?, " +
+                        "dead = CASE WHEN attempts + 1 >= ? THEN 1 ELSE 0 END WHERE id = ?";
+
+            try (Connection conn = dataSource.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < entries.size(); i++) {
+                        stmt.setLong(1, nextAttempts[i]);
+                        stmt.setString(2, error);
+                        stmt.setInt(3, maxAttempts);
+                        stmt.setLong(4, entries.get(i).getId());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    conn.commit();
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to update outbox entries: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Give every dead letter a fresh set of attempts.
+     */
+    public CompletableFuture<Integer> retryDeadOutboxEntries() {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "UPDATE outbox SET dead = 0, attempts = 0, next_attempt = ? WHERE dead = 1";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, System.currentTimeMillis());
+                return stmt.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to retry dead outbox entries: " + e.getMessage());
+                return 0;
+            }
+        });
+    }
+
+    public CompletableFuture<Integer> purgeDeadOutboxEntries() {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "DELETE FROM outbox WHERE dead = 1";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                return stmt.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to purge dead outbox entries: " + e.getMessage());
+                return 0;
+            }
+        });
+    }
+
     private Punishment parsePunishment(ResultSet rs) throws SQLException {
         Punishment punishment = new Punishment();
         punishment.setId(rs.getInt("id"));
@@ -292,6 +1031,7 @@ public class DatabaseManager {
         punishment.setExpiration(rs.getLong("expiration"));
         punishment.setActive(rs.getBoolean("active"));
         punishment.setServer(rs.getString("server"));
+        punishment.setChangeSeq(rs.getLong("change_seq"));
         return punishment;
     }
 
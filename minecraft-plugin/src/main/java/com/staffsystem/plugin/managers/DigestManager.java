@@ -0,0 +1,264 @@
+package com.staffsystem.plugin.managers;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.api.DiscordWebhook;
+import com.staffsystem.plugin.api.EventPayload;
+import com.staffsystem.plugin.models.Punishment;
+import com.staffsystem.plugin.models.Punishment.PunishmentType;
+
+import org.bukkit.Bukkit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Collects punishments for Discord while digest mode is on (discord.digest) and sends one
+ * summary per window instead of a notification for each. Punishments are grouped by type,
+ * staff member and reason, so a burst of identical mutes becomes a single line. Types listed
+ * as immediate (permanent bans by default) skip the digest and are still sent as they happen.
+ *
+ * The summary goes to the Discord webhook and, as a "digest" event, to the web dashboard,
+ * which posts it instead of the punishments it was sent marked as digested.
+ */
+public class DigestManager {
+
+    // Groups beyond this are only counted in the per-type totals
+    private static final int MAX_GROUPS = 500;
+    private static final int MAX_PLAYER_NAMES = 3;
+    private static final int MAX_REASON_CHARS = 100;
+    // Leaves room in Discord's 4096 character description for the header and the overflow line
+    private static final int MAX_DESCRIPTION_CHARS = 3800;
+    private static final int DIGEST_COLOR = 0x5865F2;
+
+    private final StaffSystemPlugin plugin;
+    private final Set<PunishmentType> immediateTypes = EnumSet.noneOf(PunishmentType.class);
+
+    // Guarded by this
+    private Map<String, Group> groups = new LinkedHashMap<>();
+    private Map<PunishmentType, Integer> totals = new EnumMap<>(PunishmentType.class);
+    private long windowStart = System.currentTimeMillis();
+    private int pending;
+
+    private volatile long digestsSent;
+    private volatile long punishmentsDigested;
+    private volatile int lastDigestSize;
+
+    public DigestManager(StaffSystemPlugin plugin) {
+        this.plugin = plugin;
+        for (String type : plugin.getConfig().getStringList("discord.digest.immediate")) {
+            try {
+                immediateTypes.add(PunishmentType.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Unknown punishment type in discord.digest.immediate: " + type);
+            }
+        }
+
+        long window = Math.max(1, plugin.getConfig().getLong("discord.digest.window", 15)) * 60 * 20;
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush, window, window);
+    }
+
+    /**
+     * @return Whether the punishment goes into the digest rather than being sent on its own
+     */
+    public boolean isDigested(Punishment punishment) {
+        return !immediateTypes.contains(punishment.getType());
+    }
+
+    /**
+     * Add a punishment to the current window. Safe to call from any thread.
+     */
+    public synchronized void add(Punishment punishment) {
+        totals.merge(punishment.getType(), 1, Integer::sum);
+        pending++;
+
+        String reason = getReason(punishment);
+        String key = punishment.getType().name() + ":" + punishment.getStaffName() + ":" + reason.toLowerCase(Locale.ROOT);
+        Group group = groups.get(key);
+        if (group == null) {
+            if (groups.size() >= MAX_GROUPS) {
+                return;
+            }
+            group = new Group(punishment.getType(), punishment.getStaffName(), reason);
+            groups.put(key, group);
+        }
+        group.count++;
+        if (group.players.size() < MAX_PLAYER_NAMES) {
+            group.players.add(punishment.getPlayerName());
+        }
+    }
+
+    /**
+     * Send the summary of the current window, if anything was added, and start the next one.
+     */
+    public void flush() {
+        send();
+    }
+
+    /**
+     * Send what is left of the current window. The dashboard's copy is stored in the outbox
+     * before this returns, so it is delivered on the next start if the dashboard is down.
+     */
+    public void shutdown() {
+        send().join();
+    }
+
+    private CompletableFuture<Boolean> send() {
+        Map<String, Group> sentGroups;
+        Map<PunishmentType, Integer> sentTotals;
+        long from;
+        int count;
+        synchronized (this) {
+            if (pending == 0) {
+                return CompletableFuture.completedFuture(true);
+            }
+            sentGroups = groups;
+            sentTotals = totals;
+            from = windowStart;
+            count = pending;
+            groups = new LinkedHashMap<>();
+            totals = new EnumMap<>(PunishmentType.class);
+            windowStart = System.currentTimeMillis();
+            pending = 0;
+        }
+        long to = System.currentTimeMillis();
+
+        // Largest groups first
+        List<Group> ordered = new ArrayList<>(sentGroups.values());
+        ordered.sort((a, b) -> Integer.compare(b.count, a.count));
+
+        digestsSent++;
+        punishmentsDigested += count;
+        lastDigestSize = count;
+
+        boolean posted = plugin.getDiscordWebhook() != null;
+        if (posted) {
+            plugin.getDiscordWebhook().send(toEmbed(ordered, sentTotals, count, from, to));
+        }
+        if (plugin.getWebApiManager() != null) {
+            return plugin.getWebApiManager().sendDigestNotification(toPayload(ordered, sentTotals, count, from, to, posted));
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    private static JsonObject toEmbed(List<Group> groups, Map<PunishmentType, Integer> totals, int count, long from, long to) {
+        StringBuilder description = new StringBuilder()
+            .append("<t:").append(from / 1000).append(":t> - <t:").append(to / 1000).append(":t>\n");
+        int listed = 0;
+        for (Group group : groups) {
+            String line = "\n**" + group.type.name().replace('_', ' ') + "** x" + group.count +
+                " by " + group.staffName + ": " + abbreviate(group.reason) + " (" + formatPlayers(group) + ")";
+            if (description.length() + line.length() > MAX_DESCRIPTION_CHARS) {
+                break;
+            }
+            description.append(line);
+            listed += group.count;
+        }
+        if (listed < count) {
+            description.append("\n...and ").append(count - listed).append(" more");
+        }
+
+        JsonObject embed = new JsonObject();
+        embed.addProperty("title", "Moderation digest - " + count + (count == 1 ? " punishment" : " punishments"));
+        embed.addProperty("color", DIGEST_COLOR);
+        embed.addProperty("description", description.toString());
+        JsonArray fields = new JsonArray();
+        for (Map.Entry<PunishmentType, Integer> total : totals.entrySet()) {
+            fields.add(DiscordWebhook.field(total.getKey().name().replace('_', ' '), String.valueOf(total.getValue()), true));
+        }
+        embed.add("fields", fields);
+        embed.addProperty("timestamp", Instant.ofEpochMilli(to).toString());
+        embed.add("footer", DiscordWebhook.footer());
+        return embed;
+    }
+
+    private static EventPayload toPayload(List<Group> groups, Map<PunishmentType, Integer> totals, int count,
+                                          long from, long to, boolean postedToDiscord) {
+        return writer -> {
+            writer.beginObject(7);
+            writer.field("type", "digest");
+            writer.field("from", from);
+            writer.field("to", to);
+            writer.field("total", count);
+            writer.field("postedToDiscord", postedToDiscord);
+            writer.name("totals");
+            writer.beginObject(totals.size());
+            for (Map.Entry<PunishmentType, Integer> total : totals.entrySet()) {
+                writer.field(total.getKey().name(), total.getValue());
+            }
+            writer.endObject();
+            writer.name("groups");
+            writer.beginArray(groups.size());
+            for (Group group : groups) {
+                writer.beginObject(5);
+                writer.field("punishmentType", group.type.name());
+                writer.field("staffName", group.staffName);
+                writer.field("reason", group.reason);
+                writer.field("count", group.count);
+                writer.name("players");
+                writer.beginArray(group.players.size());
+                for (String player : group.players) {
+                    writer.value(player);
+                }
+                writer.endArray();
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+        };
+    }
+
+    private static String formatPlayers(Group group) {
+        String players = String.join(", ", group.players);
+        int others = group.count - group.players.size();
+        return others > 0 ? players + " +" + others : players;
+    }
+
+    private static String abbreviate(String reason) {
+        return reason.length() > MAX_REASON_CHARS ? reason.substring(0, MAX_REASON_CHARS - 3) + "..." : reason;
+    }
+
+    private static String getReason(Punishment punishment) {
+        String reason = punishment.getReason();
+        return reason != null && !reason.isBlank() ? reason.trim() : "No reason specified";
+    }
+
+    public synchronized int getPendingCount() {
+        return pending;
+    }
+
+    public long getDigestsSent() {
+        return digestsSent;
+    }
+
+    public long getPunishmentsDigested() {
+        return punishmentsDigested;
+    }
+
+    public int getLastDigestSize() {
+        return lastDigestSize;
+    }
+
+    private static final class Group {
+        private final PunishmentType type;
+        private final String staffName;
+        private final String reason;
+        private final List<String> players = new ArrayList<>(MAX_PLAYER_NAMES);
+        private int count;
+
+        private Group(PunishmentType type, String staffName, String reason) {
+            this.type = type;
+            this.staffName = staffName;
+            this.reason = reason;
+        }
+    }
+}
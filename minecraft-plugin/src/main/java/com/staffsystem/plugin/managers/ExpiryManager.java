@@ -0,0 +1,135 @@
+package com.staffsystem.plugin.managers;
+
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.events.PunishmentExpireEvent;
+import com.staffsystem.plugin.models.Punishment;
+import com.staffsystem.plugin.models.Punishment.PunishmentType;
+import com.staffsystem.plugin.utils.TimingWheel;
+import com.staffsystem.plugin.utils.TimingWheel.Timeout;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fires expiry for every active temporary ban and mute from a single timing wheel,
+ * instead of waiting for the next lookup to notice the punishment has run out.
+ */
+public class ExpiryManager {
+
+    private static final long TICK_MILLIS = 1000L;
+
+    private final StaffSystemPlugin plugin;
+    private final TimingWheel<Punishment> wheel;
+    // Latest pending expiry per player, so a newer punishment or a revoke can cancel it
+    private final Map<UUID, Timeout<Punishment>> banTimers = new HashMap<>();
+    private final Map<UUID, Timeout<Punishment>> muteTimers = new HashMap<>();
+
+    public ExpiryManager(StaffSystemPlugin plugin) {
+        this.plugin = plugin;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, System.currentTimeMillis());
+
+        // Load every active temp punishment, including ones that expired while offline
+        plugin.getDatabaseManager().getActiveTempPunishments().thenAccept(punishments -> {
+            for (Punishment punishment : punishments) {
+                track(punishment);
+            }
+            plugin.getLogger().info("Scheduled expiry for " + punishments.size() + " temporary punishments.");
+        });
+
+        Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 20L, 20L);
+    }
+
+    /**
+     * Register a newly issued ban or mute. Any pending expiry of the same kind for
+     * the player is replaced, so a permanent punishment cancels an earlier temp one.
+     */
+    public void track(Punishment punishment) {
+        Map<UUID, Timeout<Punishment>> timers = timersFor(punishment.getType());
+        if (timers == null) {
+            return;
+        }
+
+        synchronized (wheel) {
+            Timeout<Punishment> previous = timers.get(punishment.getPlayerUuid());
+            if (previous != null && previous.getPayload().getTimestamp() > punishment.getTimestamp()) {
+                return; // Already tracking a newer punishment
+            }
+            timers.remove(punishment.getPlayerUuid());
+            wheel.cancel(previous);
+
+            if (!punishment.isPermanent()) {
+                timers.put(punishment.getPlayerUuid(), wheel.schedule(punishment, punishment.getExpiration()));
+            }
+        }
+    }
+
+    public void cancelBan(UUID playerUuid) {
+        synchronized (wheel) {
+            wheel.cancel(banTimers.remove(playerUuid));
+        }
+    }
+
+    public void cancelMute(UUID playerUuid) {
+        synchronized (wheel) {
+            wheel.cancel(muteTimers.remove(playerUuid));
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void tick() {
+        List<Punishment> expired;
+        synchronized (wheel) {
+            expired = wheel.advance(System.currentTimeMillis());
+            for (Punishment punishment : expired) {
+                Map<UUID, Timeout<Punishment>> timers = timersFor(punishment.getType());
+                Timeout<Punishment> current = timers.get(punishment.getPlayerUuid());
+                if (current != null && !current.isPending()) {
+                    timers.remove(punishment.getPlayerUuid());
+                }
+            }
+        }
+
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        List<Integer> ids = new ArrayList<>(expired.size());
+        for (Punishment punishment : expired) {
+            ids.add(punishment.getId());
+            punishment.setActive(false);
+            plugin.getPunishmentManager().evictExpired(punishment);
+
+            Player player = Bukkit.getPlayer(punishment.getPlayerUuid());
+            if (player != null && punishment.getType() == PunishmentType.TEMP_MUTE) {
+                player.sendMessage(plugin.getMessageUtil().format(player, "mute.expired"));
+            }
+
+            Bukkit.getPluginManager().callEvent(new PunishmentExpireEvent(punishment));
+        }
+
+        plugin.getDatabaseManager().deactivatePunishments(ids).thenRun(() -> {
+            for (Punishment punishment : expired) {
+                plugin.getPunishmentManager().invalidateHistory(punishment.getPlayerUuid());
+            }
+        });
+    }
+
+    private Map<UUID, Timeout<Punishment>> timersFor(PunishmentType type) {
+        return switch (type) {
+            case BAN, TEMP_BAN -> banTimers;
+            case MUTE, TEMP_MUTE -> muteTimers;
+            case KICK, WARN -> null;
+        };
+    }
+}
@@ -1,53 +1,136 @@
 package com.staffsystem.plugin.managers;
 
 import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.listeners.PlayerMoveListener;
+import com.staffsystem.plugin.models.FrozenPlayer;
+import com.staffsystem.plugin.managers.RecipientManager.Audience;
 import com.staffsystem.plugin.utils.TimeUtil;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.attribute.AttributeModifier;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.event.HandlerList;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 public class FreezeManager {
 
+    /**
+     * How a freeze is enforced. MOVE_EVENT cancels block-crossing moves; ATTRIBUTES zeroes
+     * movement speed, jumping and flight speed so the client cannot move and no per-move work is done.
+     */
+    public enum Enforcement {
+        MOVE_EVENT,
+        ATTRIBUTES
+    }
+
+    // Fixed so a modifier left behind by a crash can be recognised and removed on join
+    private static final UUID FREEZE_MODIFIER_ID = UUID.fromString("5b1d6c3e-8f0a-4c7e-9a55-2f3c1e0d7a41");
+    // Jump boost this high wraps to a negative level, which stops the player jumping
+    private static final int FREEZE_JUMP_AMPLIFIER = 250;
+    private static final String REMINDER_TASK = "freeze-reminder";
+
     private final StaffSystemPlugin plugin;
     private final Map<UUID, Location> frozenPlayers;
     private final Map<UUID, UUID> frozenBy; // Player UUID -> Staff UUID
-    private final Map<UUID, BukkitRunnable> reminderTasks;
+    private final Map<UUID, MovementState> movementStates;
+    private final PlayerMoveListener moveListener;
+    private final Enforcement enforcement;
+    private boolean moveListenerRegistered;
+    private CompletableFuture<?> lastWrite = CompletableFuture.completedFuture(null);
 
     public FreezeManager(StaffSystemPlugin plugin) {
         this.plugin = plugin;
-        this.frozenPlayers = new HashMap<>();
-        this.frozenBy = new HashMap<>();
-        this.reminderTasks = new HashMap<>();
+        this.frozenPlayers = new ConcurrentHashMap<>();
+        this.frozenBy = new ConcurrentHashMap<>();
+        this.movementStates = new ConcurrentHashMap<>();
+        this.moveListener = new PlayerMoveListener(this);
+
+        Enforcement mode;
+        try {
+            mode = Enforcement.valueOf(plugin.getConfig().getString("freeze.enforcement", "MOVE_EVENT").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Unknown freeze.enforcement mode, using MOVE_EVENT");
+            mode = Enforcement.MOVE_EVENT;
+        }
+        this.enforcement = mode;
+
+        loadFrozenPlayers();
+    }
+
+    /**
+     * Restore freezes that were active when the server last stopped or crashed.
+     */
+    private void loadFrozenPlayers() {
+        plugin.getDatabaseManager().getFrozenPlayers().thenAccept(records ->
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                for (FrozenPlayer record : records) {
+                    UUID playerUuid = record.getPlayerUuid();
+                    World world = record.getWorld() != null ? Bukkit.getWorld(record.getWorld()) : null;
+                    Location location = new Location(world,
+                        record.getX(), record.getY(), record.getZ(), record.getYaw(), record.getPitch());
+                    if (frozenPlayers.putIfAbsent(playerUuid, location) != null) {
+                        continue;
+                    }
+                    if (record.getStaffUuid() != null) {
+                        frozenBy.put(playerUuid, record.getStaffUuid());
+                    }
+
+                    // Players already online (e.g. after /reload) are frozen again right away
+                    Player player = Bukkit.getPlayer(playerUuid);
+                    if (player != null) {
+                        applyFreeze(player);
+                    }
+                }
+                updateMoveListener();
+                if (!records.isEmpty()) {
+                    plugin.getLogger().info("Restored " + records.size() + " frozen player(s)");
+                }
+            }));
     }
 
     public boolean freeze(Player target, Player staff) {
         UUID targetUuid = target.getUniqueId();
         
-        if (isFrozen(targetUuid)) {
+        // Store freeze location (atomically, so two staff freezing at once can't both win)
+        if (frozenPlayers.putIfAbsent(targetUuid, target.getLocation()) != null) {
             return false;
         }
-
-        // Store freeze location
-        frozenPlayers.put(targetUuid, target.getLocation());
         frozenBy.put(targetUuid, staff.getUniqueId());
+        applyFreeze(target);
 
-        // Notify player
-        String message = plugin.getMessageUtil().getMessage("freeze.player-frozen");
-        target.sendMessage(plugin.getMessageUtil().color(message));
-
-        // Start reminder task
-        startReminderTask(target);
+        // Persist in the background so the freeze survives restarts
+        Location location = frozenPlayers.get(targetUuid);
+        FrozenPlayer record = new FrozenPlayer(targetUuid, target.getName(), staff.getUniqueId(),
+            location.getWorld() != null ? location.getWorld().getName() : null,
+            location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch(),
+            System.currentTimeMillis());
+        persist(() -> plugin.getDatabaseManager().saveFrozenPlayer(record));
 
         // Send to Discord
-        if (plugin.getConfig().getBoolean("discord.notifications.freezes", false) && 
-            plugin.getWebApiManager() != null) {
-            plugin.getWebApiManager().sendFreezeNotification(target.getName(), staff.getName(), true);
+        if (plugin.getConfig().getBoolean("discord.notifications.freezes", false)) {
+            if (plugin.getWebApiManager() != null) {
+                plugin.getWebApiManager().sendFreezeNotification(target.getName(), staff.getName(), true,
+                    plugin.getDiscordWebhook() != null);
+            }
+            if (plugin.getDiscordWebhook() != null) {
+                plugin.getDiscordWebhook().sendFreeze(target.getName(), staff.getName(), true);
+            }
         }
 
         return true;
@@ -56,25 +139,26 @@ public class FreezeManager {
     public boolean unfreeze(Player target, Player staff) {
         UUID targetUuid = target.getUniqueId();
         
-        if (!isFrozen(targetUuid)) {
+        // Remove from frozen list
+        if (frozenPlayers.remove(targetUuid) == null) {
             return false;
         }
-
-        // Remove from frozen list
-        frozenPlayers.remove(targetUuid);
         frozenBy.remove(targetUuid);
-
-        // Stop reminder task
-        stopReminderTask(targetUuid);
+        releaseFreeze(target);
+        persist(() -> plugin.getDatabaseManager().deleteFrozenPlayer(targetUuid));
 
         // Notify player
-        String message = plugin.getMessageUtil().getMessage("freeze.player-unfrozen");
-        target.sendMessage(plugin.getMessageUtil().color(message));
+        plugin.getMessageUtil().send(target, "freeze.player-unfrozen");
 
         // Send to Discord
-        if (plugin.getConfig().getBoolean("discord.notifications.freezes", false) && 
-            plugin.getWebApiManager() != null) {
-            plugin.getWebApiManager().sendFreezeNotification(target.getName(), staff.getName(), false);
+        if (plugin.getConfig().getBoolean("discord.notifications.freezes", false)) {
+            if (plugin.getWebApiManager() != null) {
+                plugin.getWebApiManager().sendFreezeNotification(target.getName(), staff.getName(), false,
+                    plugin.getDiscordWebhook() != null);
+            }
+            if (plugin.getDiscordWebhook() != null) {
+                plugin.getDiscordWebhook().sendFreeze(target.getName(), staff.getName(), false);
+            }
         }
 
         return true;
@@ -107,106 +191,231 @@ public class FreezeManager {
             return;
         }
 
+        // Without a logout ban the freeze stays in place and is re-applied when they rejoin
+        if (!plugin.getConfig().getBoolean("freeze.logout-ban.enabled", true)) {
+            releaseFreeze(player);
+            return;
+        }
+
         // Remove from frozen list
         frozenPlayers.remove(playerUuid);
         UUID staffUuid = frozenBy.remove(playerUuid);
-        stopReminderTask(playerUuid);
-
-        // Check if logout ban is enabled
-        if (plugin.getConfig().getBoolean("freeze.logout-ban.enabled", true)) {
-            String reason = plugin.getConfig().getString("freeze.logout-ban.reason", "Logged out while frozen");
-            String durationStr = plugin.getConfig().getString("freeze.logout-ban.duration", "7d");
-            long duration = TimeUtil.parseDuration(durationStr);
-
-            // Get staff player
-            Player staff = staffUuid != null ? Bukkit.getPlayer(staffUuid) : null;
-            if (staff == null) {
-                // Use console as staff
-                staff = Bukkit.getOnlinePlayers().stream()
-                    .filter(p -> p.hasPermission("staffsystem.admin"))
-                    .findFirst()
-                    .orElse(null);
-            }
+        releaseFreeze(player);
+        persist(() -> plugin.getDatabaseManager().deleteFrozenPlayer(playerUuid));
+
+        String reason = plugin.getConfig().getString("freeze.logout-ban.reason", "Logged out while frozen");
+        String durationStr = plugin.getConfig().getString("freeze.logout-ban.duration", "7d");
+        long duration = TimeUtil.parseDuration(durationStr);
+
+        // Get staff player
+        Player staff = staffUuid != null ? Bukkit.getPlayer(staffUuid) : null;
+        if (staff == null) {
+            // Use console as staff
+            staff = plugin.getRecipientManager().getRecipients(Audience.ADMIN).stream()
+                .filter(p -> !p.equals(player))
+                .findFirst()
+                .orElse(null);
+        }
 
-            if (staff != null) {
-                plugin.getPunishmentManager().banOffline(player, staff, reason, duration);
-            }
+        if (staff != null) {
+            plugin.getPunishmentManager().banOffline(player, staff, reason, duration);
+        }
 
-            // Notify staff
-            String message = plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("freeze.logout-ban")
-                    .replace("{player}", player.getName()));
-            
-            for (Player p : Bukkit.getOnlinePlayers()) {
-                if (p.hasPermission("staffsystem.staff")) {
-                    p.sendMessage(message);
-                }
-            }
+        // Notify staff
+        plugin.getMessageUtil().broadcast(plugin.getRecipientManager().getRecipients(Audience.STAFF),
+            "freeze.logout-ban",
+            "player", player.getName());
+    }
+
+    /**
+     * Re-apply a freeze that was active when the player left or the server stopped.
+     */
+    public void handleJoin(Player player) {
+        UUID playerUuid = player.getUniqueId();
+        if (!isFrozen(playerUuid)) {
+            clearStaleMovementLock(player);
+            return;
         }
+
+        // Keep the location the freeze was made at; it only falls back to here if that world is gone
+        frozenPlayers.computeIfPresent(playerUuid,
+            (uuid, location) -> location.isWorldLoaded() ? location : player.getLocation());
+        applyFreeze(player);
     }
 
     public void unfreezeAll() {
         for (UUID uuid : frozenPlayers.keySet()) {
             Player player = Bukkit.getPlayer(uuid);
             if (player != null) {
-                String message = plugin.getMessageUtil().getMessage("freeze.player-unfrozen");
-                player.sendMessage(plugin.getMessageUtil().color(message));
+                unlockMovement(player);
+                plugin.getMessageUtil().send(player, "freeze.player-unfrozen");
             }
             stopReminderTask(uuid);
+            persist(() -> plugin.getDatabaseManager().deleteFrozenPlayer(uuid));
         }
         frozenPlayers.clear();
         frozenBy.clear();
+        updateMoveListener();
     }
 
-    public boolean canUseCommand(Player player, String command) {
-        if (!isFrozen(player.getUniqueId())) {
-            return true;
+    /**
+     * Called on disable. Freezes stay in the database and are restored on the next start;
+     * only the movement lock is lifted so it doesn't end up in saved player data.
+     */
+    public void shutdown() {
+        for (UUID uuid : frozenPlayers.keySet()) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                unlockMovement(player);
+            }
         }
 
-        if (!plugin.getConfig().getBoolean("freeze.block-commands", true)) {
-            return true;
+        // Give queued freeze writes a chance to land before the database closes
+        try {
+            getLastWrite().get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().warning("Timed out saving freeze state: " + e.getMessage());
         }
+    }
 
-        // Check allowed commands
-        for (String allowedCmd : plugin.getConfig().getStringList("freeze.allowed-commands")) {
-            if (command.toLowerCase().startsWith(allowedCmd.toLowerCase())) {
-                return true;
-            }
+    private void applyFreeze(Player player) {
+        if (enforcement == Enforcement.ATTRIBUTES) {
+            lockMovement(player);
         }
+        updateMoveListener();
+
+        // Notify player
+        plugin.getMessageUtil().send(player, "freeze.player-frozen");
 
-        return false;
+        // Start reminder task
+        startReminderTask(player);
     }
 
-    private void startReminderTask(Player target) {
-        UUID targetUuid = target.getUniqueId();
-        int interval = plugin.getConfig().getInt("freeze.message-interval", 5) * 20; // Convert to ticks
+    private void releaseFreeze(Player player) {
+        unlockMovement(player);
+        stopReminderTask(player.getUniqueId());
+        updateMoveListener();
+    }
 
-        BukkitRunnable task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                Player player = Bukkit.getPlayer(targetUuid);
-                if (player == null || !isFrozen(targetUuid)) {
-                    cancel();
-                    return;
-                }
+    // Writes are chained so a quick freeze then unfreeze can't land in the wrong order
+    private synchronized void persist(Supplier<CompletableFuture<?>> write) {
+        lastWrite = lastWrite.handle((result, error) -> null).thenCompose(ignored -> write.get());
+    }
+
+    private synchronized CompletableFuture<?> getLastWrite() {
+        return lastWrite;
+    }
+
+    private void lockMovement(Player player) {
+        // A lock saved with the player data by a crash must not be captured as their own movement state
+        clearStaleMovementLock(player);
+        movementStates.putIfAbsent(player.getUniqueId(),
+            new MovementState(player.getFlySpeed(), player.getPotionEffect(PotionEffectType.JUMP)));
+
+        AttributeInstance speed = player.getAttribute(Attribute.GENERIC_MOVEMENT_SPEED);
+        if (speed != null) {
+            removeFreezeModifier(speed);
+            speed.addModifier(new AttributeModifier(FREEZE_MODIFIER_ID, "staffsystem-freeze", -1.0,
+                AttributeModifier.Operation.MULTIPLY_SCALAR_1));
+        }
+        player.setFlySpeed(0f);
+        player.removePotionEffect(PotionEffectType.JUMP);
+        player.addPotionEffect(new PotionEffect(PotionEffectType.JUMP, PotionEffect.INFINITE_DURATION,
+            FREEZE_JUMP_AMPLIFIER, false, false, false));
+    }
+
+    /**
+     * Put back exactly the fly speed and jump effect the player had before the freeze.
+     */
+    private void unlockMovement(Player player) {
+        MovementState state = movementStates.remove(player.getUniqueId());
+        if (state == null) {
+            return;
+        }
+
+        AttributeInstance speed = player.getAttribute(Attribute.GENERIC_MOVEMENT_SPEED);
+        if (speed != null) {
+            removeFreezeModifier(speed);
+        }
+        player.setFlySpeed(state.flySpeed);
+        player.removePotionEffect(PotionEffectType.JUMP);
+        if (state.jumpEffect != null) {
+            player.addPotionEffect(state.jumpEffect);
+        }
+    }
+
+    /**
+     * Remove a movement lock that outlived its freeze or its server, e.g. after a crash.
+     */
+    private void clearStaleMovementLock(Player player) {
+        if (movementStates.containsKey(player.getUniqueId())) {
+            return;
+        }
 
-                String message = plugin.getMessageUtil().getMessage("freeze.reminder");
-                player.sendMessage(plugin.getMessageUtil().color(message));
+        AttributeInstance speed = player.getAttribute(Attribute.GENERIC_MOVEMENT_SPEED);
+        if (speed != null) {
+            removeFreezeModifier(speed);
+        }
+        PotionEffect jump = player.getPotionEffect(PotionEffectType.JUMP);
+        if (jump != null && jump.getAmplifier() == FREEZE_JUMP_AMPLIFIER && jump.getDuration() == PotionEffect.INFINITE_DURATION) {
+            player.removePotionEffect(PotionEffectType.JUMP);
+        }
+        if (player.getFlySpeed() == 0f) {
+            // Vanilla default fly speed
+            player.setFlySpeed(0.1f);
+        }
+    }
+
+    private void removeFreezeModifier(AttributeInstance speed) {
+        for (AttributeModifier modifier : new ArrayList<>(speed.getModifiers())) {
+            if (FREEZE_MODIFIER_ID.equals(modifier.getUniqueId())) {
+                speed.removeModifier(modifier);
             }
-        };
+        }
+    }
 
-        task.runTaskTimer(plugin, interval, interval);
-        reminderTasks.put(targetUuid, task);
+    public Enforcement getEnforcement() {
+        return enforcement;
     }
 
-    private void stopReminderTask(UUID playerUuid) {
-        BukkitRunnable task = reminderTasks.remove(playerUuid);
-        if (task != null) {
-            task.cancel();
+    // PlayerMoveEvent fires for every movement packet, so only listen while someone is frozen
+    private void updateMoveListener() {
+        if (enforcement == Enforcement.MOVE_EVENT && !frozenPlayers.isEmpty() && !moveListenerRegistered) {
+            Bukkit.getPluginManager().registerEvents(moveListener, plugin);
+            moveListenerRegistered = true;
+        } else if (frozenPlayers.isEmpty() && moveListenerRegistered) {
+            HandlerList.unregisterAll(moveListener);
+            moveListenerRegistered = false;
         }
     }
 
+    public boolean isMoveListenerRegistered() {
+        return moveListenerRegistered;
+    }
+
+    private void startReminderTask(Player target) {
+        int interval = plugin.getConfig().getInt("freeze.message-interval", 5) * 20; // Convert to ticks
+        plugin.getPlayerTicker().schedule(target.getUniqueId(), REMINDER_TASK, interval,
+            player -> plugin.getMessageUtil().send(player, "freeze.reminder"));
+    }
+
+    private void stopReminderTask(UUID playerUuid) {
+        plugin.getPlayerTicker().cancel(playerUuid, REMINDER_TASK);
+    }
+
     public Map<UUID, Location> getFrozenPlayers() {
         return new HashMap<>(frozenPlayers);
     }
+
+    private static final class MovementState {
+        private final float flySpeed;
+        private final PotionEffect jumpEffect;
+
+        private MovementState(float flySpeed, PotionEffect jumpEffect) {
+            this.flySpeed = flySpeed;
+            this.jumpEffect = jumpEffect;
+        }
+    }
 }
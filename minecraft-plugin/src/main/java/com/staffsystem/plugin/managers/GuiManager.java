@@ -2,6 +2,7 @@ package com.staffsystem.plugin.managers;
 
 import com.staffsystem.plugin.StaffSystemPlugin;
 import com.staffsystem.plugin.models.Punishment;
+import com.staffsystem.plugin.utils.BoundedCache;
 import com.staffsystem.plugin.utils.TimeUtil;
 
 import org.bukkit.Bukkit;
@@ -18,18 +19,21 @@ import java.util.*;
 public class GuiManager {
 
     private final StaffSystemPlugin plugin;
-    private final Map<UUID, String> playerGuiActions; // Stores what action GUI is for
-    private final Map<UUID, OfflinePlayer> selectedTargets; // Stores selected target for punishment
+    private final BoundedCache<UUID, String> playerGuiActions; // Stores what action GUI is for
+    private final BoundedCache<UUID, OfflinePlayer> selectedTargets; // Stores selected target for punishment
 
     public GuiManager(StaffSystemPlugin plugin) {
         this.plugin = plugin;
-        this.playerGuiActions = new HashMap<>();
-        this.selectedTargets = new HashMap<>();
+        int maximumSize = plugin.getConfig().getInt("performance.caches.gui.maximum-size", 1000);
+        // Open GUIs must stay protected however long they sit idle, so only size-bound the actions
+        this.playerGuiActions = new BoundedCache<>(maximumSize, -1);
+        this.selectedTargets = new BoundedCache<>(maximumSize,
+            plugin.getConfig().getLong("performance.caches.gui.expire-after-access", 30) * 60 * 1000);
+        Bukkit.getScheduler().runTaskTimer(plugin, selectedTargets::cleanUp, 1200L, 1200L);
     }
 
     public void openStaffGui(Player player) {
-        String title = plugin.getMessageUtil().color(
-            plugin.getMessageUtil().getMessage("gui.staff-panel"));
+        String title = plugin.getMessageUtil().format(player, "gui.staff-panel");
         Inventory gui = Bukkit.createInventory(null, 54, title);
 
         // Fill with glass panes
@@ -90,8 +94,7 @@ public class GuiManager {
     }
 
     public void openOnlinePlayersGui(Player player, String action) {
-        String title = plugin.getMessageUtil().color(
-            plugin.getMessageUtil().getMessage("gui.online-players"));
+        String title = plugin.getMessageUtil().format(player, "gui.online-players");
         Inventory gui = Bukkit.createInventory(null, 54, title);
 
         // Fill with glass panes
@@ -126,9 +129,8 @@ public class GuiManager {
     }
 
     public void openPunishmentGui(Player staff, OfflinePlayer target) {
-        String title = plugin.getMessageUtil().color(
-            plugin.getMessageUtil().getMessage("gui.punishment-menu")
-                .replace("{player}", target.getName() != null ? target.getName() : "Unknown"));
+        String title = plugin.getMessageUtil().format(staff, "gui.punishment-menu",
+            "player", target.getName() != null ? target.getName() : "Unknown");
         Inventory gui = Bukkit.createInventory(null, 54, title);
 
         // Store target
@@ -203,9 +205,8 @@ public class GuiManager {
     }
 
     public void openHistoryGui(Player staff, OfflinePlayer target, List<Punishment> punishments) {
-        String title = plugin.getMessageUtil().color(
-            plugin.getMessageUtil().getMessage("gui.history-menu")
-                .replace("{player}", target.getName() != null ? target.getName() : "Unknown"));
+        String title = plugin.getMessageUtil().format(staff, "gui.history-menu",
+            "player", target.getName() != null ? target.getName() : "Unknown");
         Inventory gui = Bukkit.createInventory(null, 54, title);
 
         // Store target
@@ -340,4 +341,8 @@ public class GuiManager {
     public void clearSelectedTarget(UUID uuid) {
         selectedTargets.remove(uuid);
     }
+
+    public BoundedCache<UUID, OfflinePlayer> getSelectedTargetCache() {
+        return selectedTargets;
+    }
 }
@@ -0,0 +1,155 @@
+package com.staffsystem.plugin.managers;
+
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.managers.RecipientManager.Audience;
+import com.staffsystem.plugin.models.Punishment;
+import com.staffsystem.plugin.utils.AdventureBridge;
+import com.staffsystem.plugin.utils.MessageBundle;
+import com.staffsystem.plugin.utils.TimeUtil;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Buffers punishment broadcasts and sends them to staff once per window.
+ * Everything queued in a window becomes a single chat message per staff member,
+ * and a burst from one staff member collapses into a summary line.
+ */
+public class NotificationManager {
+
+    private final StaffSystemPlugin plugin;
+    private final Queue<Punishment> pending = new ConcurrentLinkedQueue<>();
+    private final int summaryThreshold;
+
+    public NotificationManager(StaffSystemPlugin plugin) {
+        this.plugin = plugin;
+        this.summaryThreshold = Math.max(2, plugin.getConfig().getInt("performance.notifications.summary-threshold", 3));
+
+        long window = Math.max(1, plugin.getConfig().getLong("performance.notifications.window", 10));
+        Bukkit.getScheduler().runTaskTimer(plugin, this::flush, window, window);
+    }
+
+    /**
+     * Queue a punishment for the next staff broadcast. Safe to call from any thread.
+     */
+    public void queue(Punishment punishment) {
+        pending.add(punishment);
+    }
+
+    /**
+     * Send everything queued so far. Must run on the main thread.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Group by action and staff member, keeping the order punishments arrived in
+        Map<String, List<Punishment>> groups = new LinkedHashMap<>();
+        Punishment punishment;
+        while ((punishment = pending.poll()) != null) {
+            String key = getMessageSection(punishment) + ":" + punishment.getStaffName();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(punishment);
+        }
+
+        Collection<Player> recipients = plugin.getRecipientManager().getRecipients(Audience.STAFF);
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        // Render once per language; one component with embedded newlines goes out as a single chat packet
+        boolean adventure = plugin.getMessageUtil().isAdventureEnabled();
+        Map<MessageBundle, Object> rendered = new IdentityHashMap<>();
+        for (Player player : recipients) {
+            Object message = rendered.computeIfAbsent(plugin.getMessageUtil().getBundle(player), bundle -> {
+                String text = render(bundle, groups.values());
+                return adventure ? AdventureBridge.fromLegacy(text) : TextComponent.fromLegacyText(text);
+            });
+            if (adventure) {
+                AdventureBridge.send(player, message);
+            } else {
+                player.spigot().sendMessage((BaseComponent[]) message);
+            }
+        }
+    }
+
+    private String render(MessageBundle bundle, Collection<List<Punishment>> groups) {
+        List<String> lines = new ArrayList<>();
+        for (List<Punishment> group : groups) {
+            if (group.size() >= summaryThreshold) {
+                addSummary(lines, bundle, group);
+            } else {
+                for (Punishment punishment : group) {
+                    addBroadcast(lines, bundle, punishment);
+                }
+            }
+        }
+        return String.join("\n", lines);
+    }
+
+    private void addBroadcast(List<String> lines, MessageBundle bundle, Punishment punishment) {
+        String section = getMessageSection(punishment);
+
+        lines.add(plugin.getMessageUtil().format(bundle, section + ".broadcast",
+            "player", punishment.getPlayerName(),
+            "staff", punishment.getStaffName()));
+
+        lines.add(plugin.getMessageUtil().format(bundle, section + ".broadcast-reason",
+            "reason", punishment.getReason()));
+
+        if (!punishment.isPermanent() && punishment.getDuration() > 0) {
+            lines.add(plugin.getMessageUtil().format(bundle, section + ".broadcast-duration",
+                "duration", TimeUtil.formatDuration(punishment.getDuration())));
+        }
+    }
+
+    private void addSummary(List<String> lines, MessageBundle bundle, List<Punishment> group) {
+        Punishment first = group.get(0);
+        String section = getMessageSection(first);
+
+        // Repeat punishments of the same player count once
+        Set<UUID> players = new HashSet<>();
+        boolean sameReason = true;
+        for (Punishment punishment : group) {
+            players.add(punishment.getPlayerUuid());
+            sameReason &= Objects.equals(punishment.getReason(), first.getReason());
+        }
+        if (players.size() == 1) {
+            addBroadcast(lines, bundle, group.get(group.size() - 1));
+            return;
+        }
+
+        lines.add(plugin.getMessageUtil().format(bundle, section + ".broadcast-summary",
+            "count", players.size(),
+            "staff", first.getStaffName()));
+
+        if (sameReason) {
+            lines.add(plugin.getMessageUtil().format(bundle, section + ".broadcast-reason",
+                "reason", first.getReason()));
+        }
+    }
+
+    private String getMessageSection(Punishment punishment) {
+        return switch (punishment.getType()) {
+            case BAN, TEMP_BAN -> "ban";
+            case MUTE, TEMP_MUTE -> "mute";
+            case KICK -> "kick";
+            case WARN -> "warn";
+        };
+    }
+}
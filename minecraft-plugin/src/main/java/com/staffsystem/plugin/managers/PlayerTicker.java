@@ -0,0 +1,109 @@
+package com.staffsystem.plugin.managers;
+
+import com.staffsystem.plugin.StaffSystemPlugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * One main-thread timer for all per-player periodic work (freeze reminders and the like),
+ * instead of a BukkitRunnable per player. Tasks live in a compact list walked once per tick;
+ * schedule and cancel may be called from any thread and take effect on the next tick.
+ * A task is dropped automatically once its player is offline.
+ */
+public class PlayerTicker {
+
+    private final List<Entry> entries = new ArrayList<>(); // Main thread only
+    private final Queue<Runnable> pendingChanges = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+
+    public PlayerTicker(StaffSystemPlugin plugin) {
+        Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1, 1);
+    }
+
+    /**
+     * Run an action for a player every interval ticks, replacing any task with the same key.
+     */
+    public void schedule(UUID playerUuid, String key, int intervalTicks, Consumer<Player> action) {
+        int interval = Math.max(1, intervalTicks);
+        pendingChanges.add(() -> {
+            removeEntries(playerUuid, key);
+            entries.add(new Entry(playerUuid, key, interval, currentTick + interval, action));
+        });
+    }
+
+    public void cancel(UUID playerUuid, String key) {
+        pendingChanges.add(() -> removeEntries(playerUuid, key));
+    }
+
+    public void cancelAll(UUID playerUuid) {
+        pendingChanges.add(() -> removeEntries(playerUuid, null));
+    }
+
+    private void tick() {
+        currentTick++;
+
+        Runnable change;
+        while ((change = pendingChanges.poll()) != null) {
+            change.run();
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        // Swap-remove keeps the list compact without shifting
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            Entry entry = entries.get(i);
+            if (entry.nextTick > currentTick) {
+                continue;
+            }
+
+            Player player = Bukkit.getPlayer(entry.playerUuid);
+            if (player == null) {
+                removeAt(i);
+                continue;
+            }
+
+            entry.nextTick = currentTick + entry.interval;
+            entry.action.accept(player);
+        }
+    }
+
+    private void removeEntries(UUID playerUuid, String key) {
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            Entry entry = entries.get(i);
+            if (entry.playerUuid.equals(playerUuid) && (key == null || entry.key.equals(key))) {
+                removeAt(i);
+            }
+        }
+    }
+
+    private void removeAt(int index) {
+        int last = entries.size() - 1;
+        entries.set(index, entries.get(last));
+        entries.remove(last);
+    }
+
+    private static final class Entry {
+        private final UUID playerUuid;
+        private final String key;
+        private final int interval;
+        private final Consumer<Player> action;
+        private long nextTick;
+
+        private Entry(UUID playerUuid, String key, int interval, long nextTick, Consumer<Player> action) {
+            this.playerUuid = playerUuid;
+            this.key = key;
+            this.interval = interval;
+            this.nextTick = nextTick;
+            this.action = action;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.staffsystem.plugin.managers;
 
 import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.api.EventPayload;
+import com.staffsystem.plugin.api.WebApiManager;
+import com.staffsystem.plugin.managers.RecipientManager.Audience;
 import com.staffsystem.plugin.models.Punishment;
 import com.staffsystem.plugin.models.Punishment.PunishmentType;
+import com.staffsystem.plugin.utils.BloomFilter;
+import com.staffsystem.plugin.utils.BoundedCache;
+import com.staffsystem.plugin.utils.MessageBundle;
 import com.staffsystem.plugin.utils.TimeUtil;
 
 import org.bukkit.BanList;
@@ -10,8 +16,14 @@ import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -19,39 +31,260 @@ import java.util.concurrent.ConcurrentHashMap;
 public class PunishmentManager {
 
     private final StaffSystemPlugin plugin;
-    // Cache for active mutes to avoid blocking database calls in chat events
-    private final Map<UUID, Punishment> muteCache = new ConcurrentHashMap<>();
+    // Active mutes of online players, read by chat events instead of the database
+    private final Map<UUID, Punishment> muteCache;
+    // Recently viewed punishment histories, invalidated by every write path below
+    private final BoundedCache<UUID, List<Punishment>> historyCache;
+    private long historyGeneration;
+    // Bloom filter over banned UUIDs so logins of unbanned players skip the database
+    private final Object banFilterLock = new Object();
+    private volatile BloomFilter banFilter;
+    private Set<UUID> pendingBanFilterInserts;
+    private volatile int banFilterEntries;
 
     public PunishmentManager(StaffSystemPlugin plugin) {
         this.plugin = plugin;
+        this.muteCache = new ConcurrentHashMap<>();
+        this.historyCache = new BoundedCache<>(
+            plugin.getConfig().getInt("performance.caches.history.maximum-size", 500),
+            plugin.getConfig().getLong("performance.caches.history.expire-after-access", 10) * 60 * 1000);
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, historyCache::cleanUp, 1200L, 1200L);
+
+        if (plugin.getConfig().getBoolean("performance.ban-filter.enabled", true)) {
+            // Build the first filter before the server accepts logins; while there is none,
+            // every login has to check the database
+            long start = System.currentTimeMillis();
+            int loaded = rebuildBanFilter().join();
+            if (loaded >= 0) {
+                plugin.getLogger().info("Loaded " + loaded + " active bans into the ban filter in " +
+                    (System.currentTimeMillis() - start) + "ms");
+            }
+
+            long interval = Math.max(1, plugin.getConfig().getLong("performance.ban-filter.rebuild-interval", 30)) * 60 * 20;
+            Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::rebuildBanFilter, interval, interval);
+        }
+    }
+
+    /**
+     * Check the ban filter for a player (non-blocking).
+     * Returns false only if the player is definitely not banned.
+     */
+    public boolean mightBeBanned(UUID playerUuid) {
+        BloomFilter filter = banFilter;
+        return filter == null || filter.mightContain(playerUuid);
     }
 
     /**
-     * Get cached mute status for a player (non-blocking).
+     * Rebuild the ban filter from the punishments table and swap it in. The previous filter
+     * keeps answering logins until then. Unbanned players drop out of the filter here, since
+     * Bloom filters cannot delete.
+     *
+     * @return The number of bans loaded, or -1 if the rebuild failed or one is already running
+     */
+    public CompletableFuture<Integer> rebuildBanFilter() {
+        synchronized (banFilterLock) {
+            if (pendingBanFilterInserts != null) {
+                return CompletableFuture.completedFuture(-1); // Rebuild already running
+            }
+            pendingBanFilterInserts = ConcurrentHashMap.newKeySet();
+        }
+
+        double falsePositiveRate = plugin.getConfig().getDouble("performance.ban-filter.false-positive-rate", 0.01);
+        int expectedBans = plugin.getConfig().getInt("performance.ban-filter.expected-bans", 100000);
+
+        // Size for the bans the last rebuild found, with headroom so bans issued before the
+        // next rebuild keep the error rate; counting them first would cost another full scan
+        int capacity = Math.max(expectedBans, banFilterEntries * 2);
+        BloomFilter filter = new BloomFilter(capacity, falsePositiveRate);
+        return plugin.getDatabaseManager().forEachActiveBan(filter::put).thenCompose(loaded -> {
+            synchronized (banFilterLock) {
+                if (loaded >= 0) {
+                    pendingBanFilterInserts.forEach(filter::put);
+                    banFilter = filter;
+                    banFilterEntries = loaded;
+                    plugin.getLogger().fine("Ban filter rebuilt with " + loaded + " entries (" +
+                        filter.getSizeInBytes() / 1024 + " KB, " + filter.getHashFunctions() + " hashes)");
+                }
+                pendingBanFilterInserts = null;
+            }
+            // Still usable, but with a higher error rate; build one of the right size now
+            return loaded > capacity ? rebuildBanFilter() : CompletableFuture.completedFuture(loaded);
+        }).exceptionally(e -> {
+            synchronized (banFilterLock) {
+                pendingBanFilterInserts = null;
+            }
+            plugin.getLogger().warning("Failed to rebuild ban filter: " + e.getMessage());
+            return -1;
+        });
+    }
+
+    private void addToBanFilter(UUID playerUuid) {
+        synchronized (banFilterLock) {
+            BloomFilter filter = banFilter;
+            if (filter != null) {
+                filter.put(playerUuid);
+            }
+            if (pendingBanFilterInserts != null) {
+                pendingBanFilterInserts.add(playerUuid);
+            }
+        }
+    }
+
+    /**
+     * Get cached mute status for an online player (non-blocking).
      * Returns null if player is not muted or mute has expired.
      */
     public Punishment getCachedMute(UUID playerUuid) {
         Punishment mute = muteCache.get(playerUuid);
-        if (mute != null && mute.isExpired()) {
-            muteCache.remove(playerUuid);
-            return null;
+        return mute != null && !mute.isExpired() ? mute : null;
+    }
+
+    public Map<UUID, Punishment> getMuteCache() {
+        return muteCache;
+    }
+
+    public BoundedCache<UUID, List<Punishment>> getHistoryCache() {
+        return historyCache;
+    }
+
+    /**
+     * Get a player's punishment history, newest first, serving repeat views from memory.
+     */
+    public CompletableFuture<List<Punishment>> getPunishmentHistory(UUID playerUuid) {
+        List<Punishment> cached = historyCache.get(playerUuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long generation;
+        synchronized (historyCache) {
+            generation = historyGeneration;
         }
-        return mute;
+
+        return plugin.getDatabaseManager().getPunishmentHistory(playerUuid).thenApply(punishments -> {
+            List<Punishment> history = Collections.unmodifiableList(punishments);
+            synchronized (historyCache) {
+                // Skip caching if a write landed while the query was running
+                if (generation == historyGeneration) {
+                    historyCache.put(playerUuid, history);
+                }
+            }
+            return history;
+        });
     }
 
     /**
-     * Load mute status into cache when player joins.
+     * Drop a player's cached history. Call it after the write has committed: a read between
+     * the two would cache the old rows again.
      */
-    public void loadMuteCache(UUID playerUuid) {
-        getActiveMute(playerUuid).thenAccept(mute -> {
-            if (mute != null && !mute.isExpired()) {
-                muteCache.put(playerUuid, mute);
-            } else {
-                muteCache.remove(playerUuid);
+    public void invalidateHistory(UUID playerUuid) {
+        synchronized (historyCache) {
+            historyGeneration++;
+            historyCache.remove(playerUuid);
+        }
+    }
+
+    /**
+     * Drop the cached mute of a punishment that just expired. Its history is invalidated
+     * once the deactivation is committed.
+     */
+    public void evictExpired(Punishment punishment) {
+        if (punishment.getType() == PunishmentType.TEMP_MUTE) {
+            removeCachedMute(punishment.getPlayerUuid(), punishment.getId());
+        }
+    }
+
+    /**
+     * Apply punishments revoked on the web dashboard: deactivate the ones still active here,
+     * drop them from the caches and lift the ban or mute of players left without another.
+     *
+     * @return The number of punishments that were still active, or -1 if the database failed
+     */
+    public CompletableFuture<Integer> applyRemoteRevocations(List<Integer> punishmentIds) {
+        DatabaseManager database = plugin.getDatabaseManager();
+        return database.getPunishmentsByIds(punishmentIds).thenCompose(punishments -> {
+            if (punishments == null) {
+                return CompletableFuture.completedFuture(-1);
+            }
+            List<Punishment> revoked = new ArrayList<>();
+            for (Punishment punishment : punishments) {
+                if (punishment.isActive()) {
+                    revoked.add(punishment);
+                }
+            }
+            if (revoked.isEmpty()) {
+                return CompletableFuture.completedFuture(0);
+            }
+
+            List<Integer> revokedIds = new ArrayList<>(revoked.size());
+            for (Punishment punishment : revoked) {
+                revokedIds.add(punishment.getId());
             }
+            return database.deactivatePunishments(revokedIds).thenCompose(success -> {
+                if (!success) {
+                    return CompletableFuture.completedFuture(-1);
+                }
+
+                Map<UUID, String> unbanned = new HashMap<>();
+                Set<UUID> unmuted = new HashSet<>();
+                for (Punishment punishment : revoked) {
+                    UUID playerUuid = punishment.getPlayerUuid();
+                    invalidateHistory(playerUuid);
+                    switch (punishment.getType()) {
+                        case BAN, TEMP_BAN -> unbanned.put(playerUuid, punishment.getPlayerName());
+                        case MUTE, TEMP_MUTE -> {
+                            removeCachedMute(playerUuid, punishment.getId());
+                            unmuted.add(playerUuid);
+                        }
+                        default -> {
+                        }
+                    }
+                }
+
+                // A player may have been banned or muted again since; only lift what is left without cover
+                CompletableFuture<Set<UUID>> stillBanned = database.getPlayersWithActive(unbanned.keySet(), true);
+                CompletableFuture<Set<UUID>> stillMuted = database.getPlayersWithActive(unmuted, false);
+                return stillBanned.thenCombine(stillMuted, (banned, muted) -> {
+                    List<String> pardoned = new ArrayList<>();
+                    unbanned.forEach((playerUuid, playerName) -> {
+                        if (banned != null && !banned.contains(playerUuid)) {
+                            plugin.getExpiryManager().cancelBan(playerUuid);
+                            pardoned.add(playerName);
+                        }
+                    });
+                    if (!pardoned.isEmpty()) {
+                        Bukkit.getScheduler().runTask(plugin, () -> {
+                            BanList<?> banList = Bukkit.getBanList(BanList.Type.NAME);
+                            for (String playerName : pardoned) {
+                                banList.pardon(playerName);
+                            }
+                        });
+                    }
+                    for (UUID playerUuid : unmuted) {
+                        if (muted != null && !muted.contains(playerUuid)) {
+                            plugin.getExpiryManager().cancelMute(playerUuid);
+                        }
+                    }
+                    return revoked.size();
+                });
+            });
         });
     }
 
+    /**
+     * Load mute status into cache when player joins.
+     */
+    public void loadMuteCache(UUID playerUuid) {
+        getActiveMute(playerUuid).thenAccept(mute ->
+            // On the main thread, so a quit that happened meanwhile has already cleared the cache
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                // Skip players who left before the lookup finished, and keep a mute issued meanwhile
+                if (mute != null && !mute.isExpired() && Bukkit.getPlayer(playerUuid) != null) {
+                    muteCache.putIfAbsent(playerUuid, mute);
+                }
+            }));
+    }
+
     /**
      * Clear mute cache when player leaves.
      */
@@ -59,6 +292,11 @@ public class PunishmentManager {
         muteCache.remove(playerUuid);
     }
 
+    // Only if it still holds that punishment, so a newer mute survives the old one's expiry
+    private void removeCachedMute(UUID playerUuid, int punishmentId) {
+        muteCache.computeIfPresent(playerUuid, (uuid, cached) -> cached.getId() == punishmentId ? null : cached);
+    }
+
     public CompletableFuture<Boolean> ban(Player target, Player staff, String reason, long duration) {
         UUID targetUuid = target.getUniqueId();
         String targetName = target.getName();
@@ -68,10 +306,14 @@ public class PunishmentManager {
         PunishmentType type = duration == -1 ? PunishmentType.BAN : PunishmentType.TEMP_BAN;
         Punishment punishment = new Punishment(targetUuid, targetName, staffUuid, staffName, type, reason, duration);
 
-        return plugin.getDatabaseManager().savePunishment(punishment).thenApply(saved -> {
+        return plugin.getDatabaseManager().savePunishment(punishment, getWebNotification(punishment)).thenApply(saved -> {
             if (saved != null) {
+                invalidateHistory(targetUuid);
+                addToBanFilter(targetUuid);
+                plugin.getExpiryManager().track(saved);
+
                 // Apply ban
-                String banMessage = formatBanMessage(saved);
+                String banMessage = formatBanMessage(target, saved);
                 Bukkit.getScheduler().runTask(plugin, () -> {
                     Date expiry = duration == -1 ? null : new Date(System.currentTimeMillis() + duration);
                     Bukkit.getBanList(BanList.Type.NAME).addBan(targetName, reason, expiry, staffName);
@@ -99,8 +341,12 @@ public class PunishmentManager {
         PunishmentType type = duration == -1 ? PunishmentType.BAN : PunishmentType.TEMP_BAN;
         Punishment punishment = new Punishment(targetUuid, targetName, staffUuid, staffName, type, reason, duration);
 
-        return plugin.getDatabaseManager().savePunishment(punishment).thenApply(saved -> {
+        return plugin.getDatabaseManager().savePunishment(punishment, getWebNotification(punishment)).thenApply(saved -> {
             if (saved != null) {
+                invalidateHistory(targetUuid);
+                addToBanFilter(targetUuid);
+                plugin.getExpiryManager().track(saved);
+
                 // Apply ban
                 Bukkit.getScheduler().runTask(plugin, () -> {
                     Date expiry = duration == -1 ? null : new Date(System.currentTimeMillis() + duration);
@@ -121,8 +367,10 @@ public class PunishmentManager {
 
     public CompletableFuture<Boolean> unban(String playerName, Player staff) {
         OfflinePlayer target = Bukkit.getOfflinePlayer(playerName);
-        
+        plugin.getExpiryManager().cancelBan(target.getUniqueId());
+
         return plugin.getDatabaseManager().unban(target.getUniqueId()).thenApply(success -> {
+            invalidateHistory(target.getUniqueId());
             if (success) {
                 Bukkit.getScheduler().runTask(plugin, () -> {
                     Bukkit.getBanList(BanList.Type.NAME).pardon(playerName);
@@ -141,21 +389,20 @@ public class PunishmentManager {
         PunishmentType type = duration == -1 ? PunishmentType.MUTE : PunishmentType.TEMP_MUTE;
         Punishment punishment = new Punishment(targetUuid, targetName, staffUuid, staffName, type, reason, duration);
 
-        return plugin.getDatabaseManager().savePunishment(punishment).thenApply(saved -> {
+        return plugin.getDatabaseManager().savePunishment(punishment, getWebNotification(punishment)).thenApply(saved -> {
             if (saved != null) {
+                invalidateHistory(targetUuid);
                 // Update mute cache
                 muteCache.put(targetUuid, saved);
+                plugin.getExpiryManager().track(saved);
                 
                 // Notify player
                 Bukkit.getScheduler().runTask(plugin, () -> {
-                    target.sendMessage(plugin.getMessageUtil().color(
-                        plugin.getMessageUtil().getMessage("mute.player-notify")));
-                    target.sendMessage(plugin.getMessageUtil().color(
-                        plugin.getMessageUtil().getMessage("mute.player-reason")
-                            .replace("{reason}", reason)));
-                    target.sendMessage(plugin.getMessageUtil().color(
-                        plugin.getMessageUtil().getMessage("mute.player-duration")
-                            .replace("{duration}", TimeUtil.formatDuration(duration))));
+                    target.sendMessage(plugin.getMessageUtil().format(target, "mute.player-notify"));
+                    target.sendMessage(plugin.getMessageUtil().format(target, "mute.player-reason",
+                        "reason", reason));
+                    target.sendMessage(plugin.getMessageUtil().format(target, "mute.player-duration",
+                        "duration", TimeUtil.formatDuration(duration)));
                 });
 
                 // Broadcast
@@ -179,10 +426,14 @@ public class PunishmentManager {
         PunishmentType type = duration == -1 ? PunishmentType.MUTE : PunishmentType.TEMP_MUTE;
         Punishment punishment = new Punishment(targetUuid, targetName, staffUuid, staffName, type, reason, duration);
 
-        return plugin.getDatabaseManager().savePunishment(punishment).thenApply(saved -> {
+        return plugin.getDatabaseManager().savePunishment(punishment, getWebNotification(punishment)).thenApply(saved -> {
             if (saved != null) {
-                // Update mute cache if player comes online later
-                muteCache.put(targetUuid, saved);
+                invalidateHistory(targetUuid);
+                // Offline players are loaded on join; only cover one who joined meanwhile
+                if (Bukkit.getPlayer(targetUuid) != null) {
+                    muteCache.put(targetUuid, saved);
+                }
+                plugin.getExpiryManager().track(saved);
                 
                 // Broadcast
                 broadcastPunishment(saved);
@@ -203,8 +454,12 @@ public class PunishmentManager {
         
         // Clear mute cache
         muteCache.remove(targetUuid);
+        plugin.getExpiryManager().cancelMute(targetUuid);
         
-        return plugin.getDatabaseManager().unmute(targetUuid);
+        return plugin.getDatabaseManager().unmute(targetUuid).thenApply(success -> {
+            invalidateHistory(targetUuid);
+            return success;
+        });
     }
 
     public CompletableFuture<Boolean> kick(Player target, Player staff, String reason) {
@@ -216,10 +471,11 @@ public class PunishmentManager {
         Punishment punishment = new Punishment(targetUuid, targetName, staffUuid, staffName, 
             PunishmentType.KICK, reason, 0);
 
-        return plugin.getDatabaseManager().savePunishment(punishment).thenApply(saved -> {
+        return plugin.getDatabaseManager().savePunishment(punishment, getWebNotification(punishment)).thenApply(saved -> {
             if (saved != null) {
+                invalidateHistory(targetUuid);
                 // Kick player
-                String kickMessage = formatKickMessage(saved);
+                String kickMessage = formatKickMessage(target, saved);
                 Bukkit.getScheduler().runTask(plugin, () -> {
                     target.kickPlayer(kickMessage);
                 });
@@ -245,19 +501,17 @@ public class PunishmentManager {
         Punishment punishment = new Punishment(targetUuid, targetName, staffUuid, staffName, 
             PunishmentType.WARN, reason, -1);
 
-        return plugin.getDatabaseManager().savePunishment(punishment).thenCompose(saved -> {
+        return plugin.getDatabaseManager().savePunishment(punishment, getWebNotification(punishment)).thenCompose(saved -> {
             if (saved != null) {
+                invalidateHistory(targetUuid);
                 return plugin.getDatabaseManager().getWarningCount(targetUuid).thenApply(count -> {
                     // Notify player
                     Bukkit.getScheduler().runTask(plugin, () -> {
-                        target.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("warn.player-notify")));
-                        target.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("warn.player-reason")
-                                .replace("{reason}", reason)));
-                        target.sendMessage(plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage("warn.player-count")
-                                .replace("{count}", String.valueOf(count))));
+                        target.sendMessage(plugin.getMessageUtil().format(target, "warn.player-notify"));
+                        target.sendMessage(plugin.getMessageUtil().format(target, "warn.player-reason",
+                            "reason", reason));
+                        target.sendMessage(plugin.getMessageUtil().format(target, "warn.player-count",
+                            "count", count));
                     });
 
                     // Broadcast
@@ -285,16 +539,10 @@ public class PunishmentManager {
         
         // Broadcast threshold reached
         Bukkit.getScheduler().runTask(plugin, () -> {
-            String message = plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage("warn.threshold-reached")
-                    .replace("{player}", target.getName())
-                    .replace("{threshold}", String.valueOf(count)));
-            
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                if (player.hasPermission("staffsystem.staff")) {
-                    player.sendMessage(message);
-                }
-            }
+            plugin.getMessageUtil().broadcast(plugin.getRecipientManager().getRecipients(Audience.STAFF),
+                "warn.threshold-reached",
+                "player", target.getName(),
+                "threshold", count);
         });
 
         if (action.equalsIgnoreCase("TEMPBAN")) {
@@ -324,63 +572,54 @@ public class PunishmentManager {
     }
 
     private void broadcastPunishment(Punishment punishment) {
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            String messageKey = switch (punishment.getType()) {
-                case BAN, TEMP_BAN -> "ban.broadcast";
-                case MUTE, TEMP_MUTE -> "mute.broadcast";
-                case KICK -> "kick.broadcast";
-                case WARN -> "warn.broadcast";
-            };
-
-            String message = plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage(messageKey)
-                    .replace("{player}", punishment.getPlayerName())
-                    .replace("{staff}", punishment.getStaffName()));
-
-            String reasonMessage = plugin.getMessageUtil().color(
-                plugin.getMessageUtil().getMessage(messageKey.replace("broadcast", "broadcast-reason"))
-                    .replace("{reason}", punishment.getReason()));
-
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                if (player.hasPermission("staffsystem.staff")) {
-                    player.sendMessage(message);
-                    player.sendMessage(reasonMessage);
-                    
-                    if (!punishment.isPermanent() && punishment.getDuration() > 0) {
-                        String durationMessage = plugin.getMessageUtil().color(
-                            plugin.getMessageUtil().getMessage(messageKey.replace("broadcast", "broadcast-duration"))
-                                .replace("{duration}", TimeUtil.formatDuration(punishment.getDuration())));
-                        player.sendMessage(durationMessage);
-                    }
-                }
-            }
-        });
+        plugin.getNotificationManager().queue(punishment);
     }
 
-    private String formatBanMessage(Punishment punishment) {
-        String template = plugin.getMessageUtil().getMessage("ban.screen");
-        String appealUrl = plugin.getConfig().getString("punishments.appeals.url", "N/A");
-        
-        return plugin.getMessageUtil().color(template
-            .replace("{reason}", punishment.getReason())
-            .replace("{staff}", punishment.getStaffName())
-            .replace("{duration}", TimeUtil.formatDuration(punishment.getDuration()))
-            .replace("{expires}", punishment.isPermanent() ? "Never" : 
-                TimeUtil.formatDate(punishment.getExpiration()))
-            .replace("{appeal_url}", appealUrl));
+    /**
+     * Ban screen shown when a player is banned and whenever they try to log in.
+     */
+    public String formatBanMessage(Player player, Punishment punishment) {
+        return formatBanMessage(plugin.getMessageUtil().getBundle(player), punishment);
     }
 
-    private String formatKickMessage(Punishment punishment) {
-        String template = plugin.getMessageUtil().getMessage("kick.screen");
-        
-        return plugin.getMessageUtil().color(template
-            .replace("{reason}", punishment.getReason())
-            .replace("{staff}", punishment.getStaffName()));
+    public String formatBanMessage(MessageBundle bundle, Punishment punishment) {
+        return plugin.getMessageUtil().format(bundle, "ban.screen",
+            "reason", punishment.getReason(),
+            "staff", punishment.getStaffName(),
+            "duration", TimeUtil.formatDuration(punishment.getDuration()),
+            "remaining", TimeUtil.formatDuration(roundUpToSecond(punishment.getRemainingTime())),
+            "expires", punishment.isPermanent() ? "Never" : TimeUtil.formatDate(punishment.getExpiration()),
+            "appeal_url", plugin.getConfig().getString("punishments.appeals.url", "N/A"));
     }
 
-    private void sendDiscordNotification(Punishment punishment) {
+    /**
+     * Whole seconds, so a ban shown right after it was issued reads "1 day" rather than "23 hours, 59 minutes".
+     */
+    private static long roundUpToSecond(long milliseconds) {
+        return milliseconds <= 0 ? milliseconds : (milliseconds + 999) / 1000 * 1000;
+    }
+
+    private String formatKickMessage(Player player, Punishment punishment) {
+        return plugin.getMessageUtil().format(player, "kick.screen",
+            "reason", punishment.getReason(),
+            "staff", punishment.getStaffName());
+    }
+
+    /**
+     * The Discord notification to queue for the web API along with the punishment, or null for none.
+     */
+    private EventPayload getWebNotification(Punishment punishment) {
+        if (plugin.getWebApiManager() == null || !shouldNotifyDiscord(punishment)) {
+            return null;
+        }
+        boolean digested = isDigested(punishment);
+        // sendDiscordNotification posts it through the plugin's webhook as well
+        return WebApiManager.toPunishmentPayload(punishment, digested, !digested && plugin.getDiscordWebhook() != null);
+    }
+
+    private boolean shouldNotifyDiscord(Punishment punishment) {
         if (!plugin.getConfig().getBoolean("discord.enabled", false)) {
-            return;
+            return false;
         }
 
         String notificationKey = switch (punishment.getType()) {
@@ -389,14 +628,25 @@ public class PunishmentManager {
             case KICK -> "discord.notifications.kicks";
             case WARN -> "discord.notifications.warns";
         };
+        return plugin.getConfig().getBoolean(notificationKey, false);
+    }
 
-        if (!plugin.getConfig().getBoolean(notificationKey, false)) {
+    private void sendDiscordNotification(Punishment punishment) {
+        // The notification was written to the outbox with the punishment; deliver it now
+        if (plugin.getWebApiManager() != null) {
+            plugin.getWebApiManager().getOutboxDispatcher().wake();
+        }
+        if (!shouldNotifyDiscord(punishment)) {
             return;
         }
-
-        // Send to web API if enabled
-        if (plugin.getWebApiManager() != null) {
-            plugin.getWebApiManager().sendPunishmentNotification(punishment);
+        if (isDigested(punishment)) {
+            plugin.getDigestManager().add(punishment);
+        } else if (plugin.getDiscordWebhook() != null) {
+            plugin.getDiscordWebhook().sendPunishment(punishment);
         }
     }
+
+    private boolean isDigested(Punishment punishment) {
+        return plugin.getDigestManager() != null && plugin.getDigestManager().isDigested(punishment);
+    }
 }
@@ -0,0 +1,142 @@
+package com.staffsystem.plugin.managers;
+
+import com.staffsystem.plugin.StaffSystemPlugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Keeps the online staff audiences current, so broadcasts iterate a handful of
+ * staff instead of checking permissions on every online player per message.
+ * Audiences are updated on join, quit, world change and /ss reload. Permission plugins
+ * (or their hooks) can call {@link #update(Player)} after changing a player's groups.
+ * Bukkit has no permission change event, so a background sweep re-checks online players
+ * a few per tick as a safety net.
+ */
+public class RecipientManager {
+
+    public enum Audience {
+        STAFF("staffsystem.staff"),
+        STAFF_CHAT("staffsystem.staffchat"),
+        ADMIN("staffsystem.admin");
+
+        private final String permission;
+
+        Audience(String permission) {
+            this.permission = permission;
+        }
+
+        public String getPermission() {
+            return permission;
+        }
+    }
+
+    private final StaffSystemPlugin plugin;
+    private final Map<Audience, CopyOnWriteArraySet<Player>> audiences = new EnumMap<>(Audience.class);
+    private final Deque<Player> sweepQueue = new ArrayDeque<>(); // Main thread only
+    private long sweepIntervalTicks;
+    private int sweepPerTick;
+    private long ticksUntilSweep;
+
+    public RecipientManager(StaffSystemPlugin plugin) {
+        this.plugin = plugin;
+        for (Audience audience : Audience.values()) {
+            audiences.put(audience, new CopyOnWriteArraySet<>());
+        }
+        loadSettings();
+
+        // Pick up players already online after a reload
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            update(player);
+        }
+
+        Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1, 1);
+    }
+
+    private void loadSettings() {
+        sweepIntervalTicks = Math.max(0, plugin.getConfig().getLong("performance.recipients.refresh-interval", 30)) * 20;
+        sweepPerTick = Math.max(1, plugin.getConfig().getInt("performance.recipients.refresh-per-tick", 20));
+        ticksUntilSweep = sweepIntervalTicks;
+    }
+
+    /**
+     * Re-read the sweep settings and re-check every online player.
+     */
+    public void reload() {
+        loadSettings();
+        refreshAll();
+    }
+
+    /**
+     * Online players in the given audience. Safe to iterate from any thread.
+     */
+    public Collection<Player> getRecipients(Audience audience) {
+        return audiences.get(audience);
+    }
+
+    /**
+     * Players still waiting for a re-check in the current sweep.
+     */
+    public int getPendingChecks() {
+        return sweepQueue.size();
+    }
+
+    public void update(Player player) {
+        for (Map.Entry<Audience, CopyOnWriteArraySet<Player>> entry : audiences.entrySet()) {
+            if (player.hasPermission(entry.getKey().getPermission())) {
+                entry.getValue().add(player);
+            } else {
+                entry.getValue().remove(player);
+            }
+        }
+    }
+
+    public void remove(Player player) {
+        for (CopyOnWriteArraySet<Player> recipients : audiences.values()) {
+            recipients.remove(player);
+        }
+    }
+
+    /**
+     * Queue every online player for a permission re-check, done over the following ticks.
+     * Must be called on the main thread.
+     */
+    public void refreshAll() {
+        sweepQueue.clear();
+        sweepQueue.addAll(Bukkit.getOnlinePlayers());
+        for (CopyOnWriteArraySet<Player> recipients : audiences.values()) {
+            recipients.removeIf(player -> !player.isOnline());
+        }
+    }
+
+    /**
+     * Re-check the next few queued players, starting a new sweep once the interval has passed.
+     */
+    public void tick() {
+        if (sweepQueue.isEmpty()) {
+            if (sweepIntervalTicks == 0 || --ticksUntilSweep > 0) {
+                return;
+            }
+            ticksUntilSweep = sweepIntervalTicks;
+            refreshAll();
+        }
+
+        for (int i = 0; i < sweepPerTick; i++) {
+            Player player = sweepQueue.poll();
+            if (player == null) {
+                break;
+            }
+            // Quit already removed them; don't add them back
+            if (player.isOnline()) {
+                update(player);
+            }
+        }
+    }
+}
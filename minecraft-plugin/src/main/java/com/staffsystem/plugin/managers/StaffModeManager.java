@@ -1,6 +1,7 @@
 package com.staffsystem.plugin.managers;
 
 import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.managers.RecipientManager.Audience;
 import com.staffsystem.plugin.models.StaffMember;
 
 import org.bukkit.Bukkit;
@@ -81,10 +82,8 @@ public class StaffModeManager {
         member.setStaffMode(true);
 
         // Notify player
-        player.sendMessage(plugin.getMessageUtil().color(
-            plugin.getMessageUtil().getMessage("staffmode.enabled")));
-        player.sendMessage(plugin.getMessageUtil().color(
-            plugin.getMessageUtil().getMessage("staffmode.inventory-stored")));
+        plugin.getMessageUtil().send(player, "staffmode.enabled");
+        plugin.getMessageUtil().send(player, "staffmode.inventory-stored");
 
         return true;
     }
@@ -121,10 +120,8 @@ public class StaffModeManager {
         }
 
         // Notify player
-        player.sendMessage(plugin.getMessageUtil().color(
-            plugin.getMessageUtil().getMessage("staffmode.disabled")));
-        player.sendMessage(plugin.getMessageUtil().color(
-            plugin.getMessageUtil().getMessage("staffmode.inventory-restored")));
+        plugin.getMessageUtil().send(player, "staffmode.disabled");
+        plugin.getMessageUtil().send(player, "staffmode.inventory-restored");
 
         return true;
     }
@@ -222,23 +219,15 @@ public class StaffModeManager {
         member.setStaffChatEnabled(newState);
 
         String messageKey = newState ? "staffchat.toggle-on" : "staffchat.toggle-off";
-        player.sendMessage(plugin.getMessageUtil().color(
-            plugin.getMessageUtil().getMessage(messageKey)));
+        plugin.getMessageUtil().send(player, messageKey);
     }
 
     public void sendStaffChat(Player sender, String message) {
-        String format = plugin.getMessageUtil().getMessage("staffchat.format")
-            .replace("{rank}", getStaffRank(sender))
-            .replace("{player}", sender.getName())
-            .replace("{message}", message);
-
-        String coloredMessage = plugin.getMessageUtil().color(format);
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.hasPermission("staffsystem.staffchat")) {
-                player.sendMessage(coloredMessage);
-            }
-        }
+        plugin.getMessageUtil().broadcast(plugin.getRecipientManager().getRecipients(Audience.STAFF_CHAT),
+            "staffchat.format",
+            "rank", getStaffRank(sender),
+            "player", sender.getName(),
+            "message", message);
 
         // Also log to console
         plugin.getLogger().info("[StaffChat] " + sender.getName() + ": " + message);
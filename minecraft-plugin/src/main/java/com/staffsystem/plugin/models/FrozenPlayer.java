@@ -0,0 +1,72 @@
+package com.staffsystem.plugin.models;
+
+import java.util.UUID;
+
+public class FrozenPlayer {
+
+    private final UUID playerUuid;
+    private final String playerName;
+    private final UUID staffUuid;
+    private final String world;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final float yaw;
+    private final float pitch;
+    private final long frozenAt;
+
+    public FrozenPlayer(UUID playerUuid, String playerName, UUID staffUuid, String world,
+                        double x, double y, double z, float yaw, float pitch, long frozenAt) {
+        this.playerUuid = playerUuid;
+        this.playerName = playerName;
+        this.staffUuid = staffUuid;
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+        this.frozenAt = frozenAt;
+    }
+
+    // Getters
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public UUID getStaffUuid() {
+        return staffUuid;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public float getYaw() {
+        return yaw;
+    }
+
+    public float getPitch() {
+        return pitch;
+    }
+
+    public long getFrozenAt() {
+        return frozenAt;
+    }
+}
@@ -0,0 +1,58 @@
+package com.staffsystem.plugin.models;
+
+public class OutboxEntry {
+
+    private final long id;
+    private final String idempotencyKey;
+    private final String event;
+    private final String payload;
+    private final int attempts;
+    private final long nextAttempt;
+    private final String lastError;
+    private final long createdAt;
+
+    public OutboxEntry(long id, String idempotencyKey, String event, String payload,
+                       int attempts, long nextAttempt, String lastError, long createdAt) {
+        this.id = id;
+        this.idempotencyKey = idempotencyKey;
+        this.event = event;
+        this.payload = payload;
+        this.attempts = attempts;
+        this.nextAttempt = nextAttempt;
+        this.lastError = lastError;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+    public long getId() {
+        return id;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public long getNextAttempt() {
+        return nextAttempt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
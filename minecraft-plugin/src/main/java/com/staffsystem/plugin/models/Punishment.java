@@ -25,6 +25,7 @@ public class Punishment {
     private long expiration; // -1 for permanent
     private boolean active;
     private String server;
+    private long changeSeq; // Bumped by the database on every insert or update
     
     public Punishment() {
     }
@@ -141,6 +142,14 @@ public class Punishment {
         this.server = server;
     }
     
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+    
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+    
     public boolean isPermanent() {
         return duration == -1;
     }
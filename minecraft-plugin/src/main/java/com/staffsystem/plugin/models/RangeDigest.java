@@ -0,0 +1,55 @@
+package com.staffsystem.plugin.models;
+
+/**
+ * The number of punishments with an id in [low, high) and the XOR of their row hashes.
+ */
+public class RangeDigest {
+
+    private final long low;
+    private final long high;
+    private final int count;
+    private final long hash;
+
+    public RangeDigest(long low, long high, int count, long hash) {
+        this.low = low;
+        this.high = high;
+        this.count = count;
+        this.hash = hash;
+    }
+
+    public boolean matches(RangeDigest other) {
+        return count == other.count && hash == other.hash;
+    }
+
+    /**
+     * Split [low, high) into at most fanout equal children, the way both sides of a
+     * reconciliation do. Returns the child boundaries, so child i spans [bounds[i], bounds[i + 1]).
+     */
+    public static long[] split(long low, long high, int fanout) {
+        long span = Math.max(1, (high - low + fanout - 1) / fanout);
+        int children = (int) ((high - low + span - 1) / span);
+        long[] bounds = new long[children + 1];
+        for (int i = 0; i < children; i++) {
+            bounds[i] = low + i * span;
+        }
+        bounds[children] = high;
+        return bounds;
+    }
+
+    // Getters
+    public long getLow() {
+        return low;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+}
@@ -0,0 +1,87 @@
+package com.staffsystem.plugin.utils;
+
+import org.bukkit.command.CommandSender;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Reaches Paper's bundled Adventure API without compiling against it, so the plugin
+ * still builds against spigot-api and runs unchanged on plain Spigot.
+ * Components are passed around as Object; on Spigot {@link #isAvailable()} is false.
+ */
+public final class AdventureBridge {
+
+    private static final MethodHandle FROM_LEGACY;  // (String) -> Component
+    private static final MethodHandle TO_PLAIN;     // (Component) -> String
+    private static final MethodHandle SEND_MESSAGE; // (Audience, Component) -> void
+
+    static {
+        MethodHandle fromLegacy = null;
+        MethodHandle toPlain = null;
+        MethodHandle sendMessage = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> component = Class.forName("net.kyori.adventure.text.Component");
+            Class<?> audience = Class.forName("net.kyori.adventure.audience.Audience");
+
+            Class<?> legacyClass = Class.forName("net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer");
+            Object legacy = legacyClass.getMethod("legacySection").invoke(null);
+            fromLegacy = lookup.unreflect(legacyClass.getMethod("deserialize", String.class))
+                .bindTo(legacy)
+                .asType(MethodType.methodType(Object.class, String.class));
+
+            Class<?> plainClass = Class.forName("net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer");
+            Object plain = plainClass.getMethod("plainText").invoke(null);
+            toPlain = lookup.unreflect(plainClass.getMethod("serialize", component))
+                .bindTo(plain)
+                .asType(MethodType.methodType(String.class, Object.class));
+
+            sendMessage = lookup.unreflect(audience.getMethod("sendMessage", component))
+                .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Not running on Paper
+            fromLegacy = null;
+            toPlain = null;
+            sendMessage = null;
+        }
+        FROM_LEGACY = fromLegacy;
+        TO_PLAIN = toPlain;
+        SEND_MESSAGE = sendMessage;
+    }
+
+    private AdventureBridge() {
+    }
+
+    public static boolean isAvailable() {
+        return SEND_MESSAGE != null;
+    }
+
+    /**
+     * Convert legacy colour-coded text into a component once, so it can be sent to many players.
+     */
+    public static Object fromLegacy(String text) {
+        try {
+            return (Object) FROM_LEGACY.invokeExact(text);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to build component", e);
+        }
+    }
+
+    public static String toPlainText(Object component) {
+        try {
+            return (String) TO_PLAIN.invokeExact(component);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to serialize component", e);
+        }
+    }
+
+    public static void send(CommandSender recipient, Object component) {
+        try {
+            SEND_MESSAGE.invokeExact((Object) recipient, component);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to send component", e);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.staffsystem.plugin.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Size- and time-bounded cache using W-TinyLFU admission.
+ * New entries land in a small LRU window; when the cache is full, the window's
+ * oldest entry only displaces the main region's victim if a frequency sketch
+ * says it is used more often. One-off entries therefore cannot flush the hot set.
+ */
+public class BoundedCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+    private final long expireAfterAccessMillis;
+    private final Map<K, Node<K, V>> data;
+    private final FrequencySketch sketch;
+    @SuppressWarnings("unchecked")
+    private final Node<K, V>[] heads = new Node[3]; // Least recently used end
+    @SuppressWarnings("unchecked")
+    private final Node<K, V>[] tails = new Node[3]; // Most recently used end
+    private final int[] sizes = new int[3];
+    private BiConsumer<K, V> evictionListener;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maximumSize Maximum number of entries
+     * @param expireAfterAccessMillis Idle time before an entry expires, or -1 to never expire
+     */
+    public BoundedCache(int maximumSize, long expireAfterAccessMillis) {
+        this.maximumSize = Math.max(2, maximumSize);
+        this.windowMaximum = Math.max(1, this.maximumSize / 100);
+        this.protectedMaximum = (int) ((this.maximumSize - windowMaximum) * 0.8);
+        this.expireAfterAccessMillis = expireAfterAccessMillis;
+        this.data = new HashMap<>();
+        this.sketch = new FrequencySketch(this.maximumSize);
+    }
+
+    /**
+     * Called outside the cache lock for every entry removed by size or time eviction.
+     */
+    public BoundedCache<K, V> onEviction(BiConsumer<K, V> listener) {
+        this.evictionListener = listener;
+        return this;
+    }
+
+    public V get(K key) {
+        Node<K, V> evicted = null;
+        V value = null;
+
+        synchronized (this) {
+            sketch.increment(key.hashCode());
+            Node<K, V> node = data.get(key);
+            if (node == null) {
+                missCount++;
+            } else if (isExpired(node, System.currentTimeMillis())) {
+                missCount++;
+                removeNode(node);
+                evictionCount++;
+                evicted = node;
+            } else {
+                hitCount++;
+                onAccess(node);
+                value = node.value;
+            }
+        }
+
+        notifyEviction(evicted);
+        return value;
+    }
+
+    public void put(K key, V value) {
+        Node<K, V> evicted;
+
+        synchronized (this) {
+            sketch.increment(key.hashCode());
+            Node<K, V> node = data.get(key);
+            if (node != null) {
+                node.value = value;
+                onAccess(node);
+                return;
+            }
+
+            node = new Node<>(key, value);
+            node.accessTime = System.currentTimeMillis();
+            data.put(key, node);
+            append(node, WINDOW);
+            evicted = evict();
+        }
+
+        notifyEviction(evicted);
+    }
+
+    public synchronized V remove(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        removeNode(node);
+        return node.value;
+    }
+
+    /**
+     * Replace or remove (by returning null) the value for a key that is present.
+     */
+    public synchronized V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        V value = function.apply(key, node.value);
+        if (value == null) {
+            removeNode(node);
+        } else {
+            node.value = value;
+        }
+        return value;
+    }
+
+    /**
+     * Drop every entry that has been idle longer than the expiry time.
+     */
+    public void cleanUp() {
+        if (expireAfterAccessMillis < 0) {
+            return;
+        }
+
+        Map<K, V> expired = new HashMap<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            // Window and protected are in access order, so their expired entries sit at the head
+            for (int queue : new int[] {WINDOW, PROTECTED}) {
+                while (heads[queue] != null && isExpired(heads[queue], now)) {
+                    expire(heads[queue], expired);
+                }
+            }
+            // Probation receives window overflow and demoted entries out of access order
+            Node<K, V> node = heads[PROBATION];
+            while (node != null) {
+                Node<K, V> next = node.next;
+                if (isExpired(node, now)) {
+                    expire(node, expired);
+                }
+                node = next;
+            }
+        }
+
+        if (evictionListener != null) {
+            expired.forEach(evictionListener);
+        }
+    }
+
+    public synchronized void clear() {
+        data.clear();
+        for (int queue = WINDOW; queue <= PROTECTED; queue++) {
+            heads[queue] = null;
+            tails[queue] = null;
+            sizes[queue] = 0;
+        }
+    }
+
+    public synchronized int size() {
+        return data.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return expireAfterAccessMillis >= 0 && now - node.accessTime > expireAfterAccessMillis;
+    }
+
+    private void onAccess(Node<K, V> node) {
+        node.accessTime = System.currentTimeMillis();
+        switch (node.queue) {
+            case WINDOW, PROTECTED -> {
+                unlink(node);
+                append(node, node.queue);
+            }
+            case PROBATION -> {
+                // A second hit promotes the entry into the protected region
+                unlink(node);
+                append(node, PROTECTED);
+                if (sizes[PROTECTED] > protectedMaximum) {
+                    Node<K, V> demoted = heads[PROTECTED];
+                    unlink(demoted);
+                    append(demoted, PROBATION);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private Node<K, V> evict() {
+        if (sizes[WINDOW] <= windowMaximum) {
+            return null;
+        }
+
+        // The window overflowed: its oldest entry becomes a candidate for the main region
+        Node<K, V> candidate = heads[WINDOW];
+        unlink(candidate);
+        append(candidate, PROBATION);
+
+        if (data.size() <= maximumSize) {
+            return null;
+        }
+
+        Node<K, V> victim = heads[PROBATION];
+        if (victim == candidate && heads[PROTECTED] != null) {
+            victim = heads[PROTECTED];
+        }
+
+        Node<K, V> loser = victim;
+        if (victim != candidate && sketch.frequency(candidate.key.hashCode()) <= sketch.frequency(victim.key.hashCode())) {
+            loser = candidate;
+        }
+
+        removeNode(loser);
+        evictionCount++;
+        return loser;
+    }
+
+    private void expire(Node<K, V> node, Map<K, V> expired) {
+        removeNode(node);
+        evictionCount++;
+        expired.put(node.key, node.value);
+    }
+
+    private void notifyEviction(Node<K, V> node) {
+        if (node != null && evictionListener != null) {
+            evictionListener.accept(node.key, node.value);
+        }
+    }
+
+    private void removeNode(Node<K, V> node) {
+        data.remove(node.key);
+        unlink(node);
+    }
+
+    private void append(Node<K, V> node, int queue) {
+        node.queue = queue;
+        node.prev = tails[queue];
+        node.next = null;
+        if (tails[queue] != null) {
+            tails[queue].next = node;
+        } else {
+            heads[queue] = node;
+        }
+        tails[queue] = node;
+        sizes[queue]++;
+    }
+
+    private void unlink(Node<K, V> node) {
+        int queue = node.queue;
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            heads[queue] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        } else {
+            tails[queue] = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        sizes[queue]--;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private long accessTime;
+        private int queue;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters that halves itself periodically,
+     * so frequencies reflect recent popularity rather than all-time totals.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int maximumSize) {
+            int length = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 1;
+            this.table = new long[length];
+            this.sampleSize = 10 * Math.max(16, maximumSize);
+        }
+
+        private void increment(int hashCode) {
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long hash = spread(hashCode, i);
+                int index = (int) (hash >>> 32) & (table.length - 1);
+                int offset = (int) (hash & 15) << 2;
+                if (((table[index] >>> offset) & 15L) < 15L) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+                }
+                additions /= 2;
+            }
+        }
+
+        private int frequency(int hashCode) {
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long hash = spread(hashCode, i);
+                int index = (int) (hash >>> 32) & (table.length - 1);
+                int offset = (int) (hash & 15) << 2;
+                frequency = (int) Math.min(frequency, (table[index] >>> offset) & 15L);
+            }
+            return frequency;
+        }
+
+        private static long spread(int hashCode, int i) {
+            long hash = (hashCode + SEEDS[i]) * SEEDS[i];
+            return hash ^ (hash >>> 29);
+        }
+    }
+}
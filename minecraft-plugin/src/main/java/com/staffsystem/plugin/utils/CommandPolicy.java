@@ -0,0 +1,124 @@
+package com.staffsystem.plugin.utils;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Prefix trie of command labels, each tagged with policy flags. An entry matches a
+ * command line when it covers whole words, so "msg" matches "/msg Bob hi" but not
+ * "/msgall", and "party chat" matches "/party chat hi". Namespaced labels such as
+ * "/minecraft:msg" are looked up without their namespace.
+ * Lookups walk the raw command line in place and never allocate.
+ */
+public class CommandPolicy {
+
+    public static final int ALLOWED_WHILE_FROZEN = 1;
+    public static final int BLOCKED_WHILE_MUTED = 1 << 1;
+
+    private final Node root = new Node();
+    private int size;
+
+    public void add(String command, int flags) {
+        String normalized = command.trim().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        if (normalized.isEmpty()) {
+            return;
+        }
+
+        Node node = root;
+        boolean space = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            // Collapse runs of spaces so "party  chat" and "party chat" are one entry
+            if (c == ' ') {
+                if (space) {
+                    continue;
+                }
+                space = true;
+            } else {
+                space = false;
+            }
+            node = node.getOrCreateChild(c);
+        }
+        if (node.flags == 0) {
+            size++;
+        }
+        node.flags |= flags;
+    }
+
+    /**
+     * @param commandLine The full command as typed, with or without the leading slash
+     * @return The flags of every entry that matches the start of the command, or 0
+     */
+    public int lookup(String commandLine) {
+        int length = commandLine.length();
+        int start = length > 0 && commandLine.charAt(0) == '/' ? 1 : 0;
+
+        // Drop a "namespace:" prefix from the label
+        int labelEnd = commandLine.indexOf(' ', start);
+        if (labelEnd < 0) {
+            labelEnd = length;
+        }
+        int colon = commandLine.lastIndexOf(':', labelEnd - 1);
+        if (colon >= start) {
+            start = colon + 1;
+        }
+
+        Node node = root;
+        int flags = 0;
+        boolean space = false;
+        for (int i = start; i < length; i++) {
+            char c = Character.toLowerCase(commandLine.charAt(i));
+            if (c == ' ') {
+                if (space) {
+                    continue;
+                }
+                // End of a word: any entry ending here matches
+                flags |= node.flags;
+                space = true;
+            } else {
+                space = false;
+            }
+
+            node = node.getChild(c);
+            if (node == null) {
+                return flags;
+            }
+        }
+        return flags | node.flags;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int flags;
+
+        private Node getChild(char c) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node getOrCreateChild(char c) {
+            Node child = getChild(c);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
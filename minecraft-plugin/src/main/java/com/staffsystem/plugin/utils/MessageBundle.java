@@ -0,0 +1,57 @@
+package com.staffsystem.plugin.utils;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * One language's messages, compiled into templates. Keys the language file does not
+ * define are copied from the fallback bundle, so a lookup is always a single map get.
+ */
+public class MessageBundle {
+
+    private final String locale;
+    private final String prefix;
+    private final Map<String, MessageTemplate> templates = new HashMap<>();
+    private final Map<String, MessageTemplate> templatesNoPrefix = new HashMap<>();
+
+    public MessageBundle(String locale, FileConfiguration config, MessageBundle fallback, UnaryOperator<String> colorizer) {
+        this.locale = locale;
+
+        String configPrefix = config.getString("prefix");
+        if (configPrefix == null) {
+            configPrefix = fallback != null ? fallback.prefix : "&8[&6StaffSystem&8] ";
+        }
+        this.prefix = configPrefix;
+
+        for (String path : config.getKeys(true)) {
+            if (config.isString(path)) {
+                String message = config.getString(path);
+                templates.put(path, MessageTemplate.compile(prefix + message, colorizer));
+                templatesNoPrefix.put(path, MessageTemplate.compile(message, colorizer));
+            }
+        }
+
+        if (fallback != null) {
+            fallback.templates.forEach(templates::putIfAbsent);
+            fallback.templatesNoPrefix.forEach(templatesNoPrefix::putIfAbsent);
+        }
+    }
+
+    public String getLocale() {
+        return locale;
+    }
+
+    /**
+     * @return the prefixed template, or null if no bundle in the chain defines the path
+     */
+    public MessageTemplate get(String path) {
+        return templates.get(path);
+    }
+
+    public MessageTemplate getNoPrefix(String path) {
+        return templatesNoPrefix.get(path);
+    }
+}
@@ -0,0 +1,140 @@
+package com.staffsystem.plugin.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * A message parsed once into pre-coloured literal segments and named {placeholder} slots.
+ * Rendering is a single pass that appends segments and placeholder values into a
+ * per-thread builder, instead of one String.replace per placeholder plus a colour pass.
+ */
+public final class MessageTemplate {
+
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String[] literals; // One more literal than slots; literals[i] precedes slots[i]
+    private final String[] slots;
+    private final UnaryOperator<String> colorizer;
+    private final int estimatedLength;
+    private volatile Object component;
+
+    private MessageTemplate(String[] literals, String[] slots, UnaryOperator<String> colorizer) {
+        this.literals = literals;
+        this.slots = slots;
+        this.colorizer = colorizer;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.estimatedLength = length + slots.length * 16;
+    }
+
+    /**
+     * Parse a raw message. Literal text is coloured now; placeholder values are only
+     * coloured at render time if they contain an '&', so reasons keep their colour codes.
+     */
+    public static MessageTemplate compile(String raw, UnaryOperator<String> colorizer) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < raw.length()) {
+            char c = raw.charAt(i);
+            int end = c == '{' ? findPlaceholderEnd(raw, i + 1) : -1;
+            if (end < 0) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            literals.add(colorizer.apply(literal.toString()));
+            slots.add(raw.substring(i + 1, end));
+            literal.setLength(0);
+            i = end + 1;
+        }
+        literals.add(colorizer.apply(literal.toString()));
+
+        return new MessageTemplate(literals.toArray(new String[0]), slots.toArray(new String[0]), colorizer);
+    }
+
+    /**
+     * Render with alternating placeholder names and values, e.g.
+     * {@code render("player", name, "count", 3)}. Unknown placeholders are left as-is.
+     */
+    public String render(Object... placeholders) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        builder.ensureCapacity(estimatedLength);
+
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]);
+            appendValue(builder, slots[i], placeholders);
+        }
+        builder.append(literals[slots.length]);
+
+        String result = builder.toString();
+        if (builder.capacity() > 4096) {
+            // Don't let one huge message pin a large buffer to the thread
+            BUILDER.remove();
+        }
+        return result;
+    }
+
+    public boolean hasPlaceholders() {
+        return slots.length > 0;
+    }
+
+    /**
+     * The message as an Adventure component, built on first use. Only for templates
+     * without placeholders, and only when {@link AdventureBridge#isAvailable()}.
+     */
+    public Object getComponent() {
+        Object cached = component;
+        if (cached == null) {
+            cached = AdventureBridge.fromLegacy(literals[0]);
+            component = cached;
+        }
+        return cached;
+    }
+
+    private void appendValue(StringBuilder builder, String slot, Object[] placeholders) {
+        for (int i = 0; i + 1 < placeholders.length; i += 2) {
+            if (!slot.equals(placeholders[i])) {
+                continue;
+            }
+
+            Object value = placeholders[i + 1];
+            if (value instanceof Integer number) {
+                builder.append(number.intValue());
+            } else if (value instanceof Long number) {
+                builder.append(number.longValue());
+            } else {
+                String text = String.valueOf(value);
+                builder.append(text.indexOf('&') >= 0 ? colorizer.apply(text) : text);
+            }
+            return;
+        }
+
+        builder.append('{').append(slot).append('}');
+    }
+
+    // Placeholder names are [a-z0-9_-]; anything else is literal text
+    private static int findPlaceholderEnd(String raw, int start) {
+        for (int i = start; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == '}') {
+                return i > start ? i : -1;
+            }
+            if (!(c >= 'a' && c <= 'z') && !(c >= '0' && c <= '9') && c != '_' && c != '-') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+}
@@ -3,10 +3,20 @@ package com.staffsystem.plugin.utils;
 import com.staffsystem.plugin.StaffSystemPlugin;
 
 import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -14,6 +24,11 @@ public class MessageUtil {
 
     private final StaffSystemPlugin plugin;
     private FileConfiguration messagesConfig;
+    private volatile MessageBundle defaultBundle;
+    private volatile Map<String, MessageBundle> bundles = Map.of();
+    private final Map<String, MessageBundle> resolvedLocales = new ConcurrentHashMap<>();
+    private volatile boolean localized;
+    private volatile boolean adventure;
     private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
 
     public MessageUtil(StaffSystemPlugin plugin) {
@@ -27,6 +42,34 @@ public class MessageUtil {
             plugin.saveResource("messages.yml", false);
         }
         messagesConfig = YamlConfiguration.loadConfiguration(messagesFile);
+        compileTemplates();
+    }
+
+    private void compileTemplates() {
+        String defaultLocale = normalizeLocale(plugin.getConfig().getString("localization.default-locale", "en_us"));
+        MessageBundle fallback = new MessageBundle(defaultLocale, messagesConfig, null, this::color);
+        Map<String, MessageBundle> loaded = new HashMap<>();
+        loaded.put(defaultLocale, fallback);
+
+        localized = plugin.getConfig().getBoolean("localization.enabled", true);
+        adventure = plugin.getConfig().getBoolean("performance.adventure-chat", true) && AdventureBridge.isAvailable();
+        File[] files = new File(plugin.getDataFolder(), "lang").listFiles(
+            (dir, name) -> name.startsWith("messages_") && name.endsWith(".yml"));
+        if (localized && files != null) {
+            // Language-only bundles (messages_de.yml) first, so regional ones can fall back to them
+            Arrays.sort(files, Comparator.comparingInt(file -> file.getName().length()));
+            for (File file : files) {
+                String name = file.getName();
+                String locale = normalizeLocale(name.substring("messages_".length(), name.length() - ".yml".length()));
+                MessageBundle parent = loaded.getOrDefault(getLanguage(locale), fallback);
+                loaded.put(locale, new MessageBundle(locale, YamlConfiguration.loadConfiguration(file), parent, this::color));
+            }
+            plugin.getLogger().info("Loaded " + loaded.size() + " message bundle(s)");
+        }
+
+        defaultBundle = fallback;
+        bundles = loaded;
+        resolvedLocales.clear();
     }
 
     public void reload() {
@@ -49,6 +92,120 @@ public class MessageUtil {
         return message;
     }
 
+    /**
+     * Prefixed, coloured message with placeholders filled from alternating name/value pairs.
+     */
+    public String format(String path, Object... placeholders) {
+        return getTemplate(defaultBundle, path).render(placeholders);
+    }
+
+    /**
+     * Like {@link #format(String, Object...)}, in the recipient's client language.
+     */
+    public String format(CommandSender recipient, String path, Object... placeholders) {
+        return getTemplate(getBundle(recipient), path).render(placeholders);
+    }
+
+    public String format(MessageBundle bundle, String path, Object... placeholders) {
+        return getTemplate(bundle, path).render(placeholders);
+    }
+
+    public String formatNoPrefix(String path, Object... placeholders) {
+        MessageTemplate template = defaultBundle.getNoPrefix(path);
+        return template != null ? template.render(placeholders) : "Message not found: " + path;
+    }
+
+    /**
+     * Send a message in the recipient's language. On Paper, messages without
+     * placeholders go out as cached components instead of being re-parsed per send.
+     */
+    public void send(CommandSender recipient, String path, Object... placeholders) {
+        MessageTemplate template = getTemplate(getBundle(recipient), path);
+        if (adventure && !template.hasPlaceholders()) {
+            AdventureBridge.send(recipient, template.getComponent());
+        } else {
+            recipient.sendMessage(template.render(placeholders));
+        }
+    }
+
+    /**
+     * Send a message to every recipient, rendering it once per language rather than once per player.
+     */
+    public void broadcast(Collection<? extends CommandSender> recipients, String path, Object... placeholders) {
+        Map<MessageBundle, Object> rendered = new IdentityHashMap<>();
+        for (CommandSender recipient : recipients) {
+            Object message = rendered.computeIfAbsent(getBundle(recipient), bundle -> {
+                String text = getTemplate(bundle, path).render(placeholders);
+                return adventure ? AdventureBridge.fromLegacy(text) : text;
+            });
+            if (adventure) {
+                AdventureBridge.send(recipient, message);
+            } else {
+                recipient.sendMessage((String) message);
+            }
+        }
+    }
+
+    /**
+     * Whether output is sent as Adventure components (running on Paper with adventure-chat on).
+     */
+    public boolean isAdventureEnabled() {
+        return adventure;
+    }
+
+    /**
+     * Whether messages are sent in each player's client language.
+     */
+    public boolean isLocalized() {
+        return localized;
+    }
+
+    public MessageBundle getBundle(CommandSender recipient) {
+        if (!localized || !(recipient instanceof Player player)) {
+            return defaultBundle;
+        }
+        return getBundle(player.getLocale());
+    }
+
+    /**
+     * Best bundle for a client locale: exact match, then the same language, then the default.
+     */
+    public MessageBundle getBundle(String locale) {
+        if (locale == null) {
+            return defaultBundle;
+        }
+        MessageBundle bundle = resolvedLocales.get(locale);
+        if (bundle != null) {
+            return bundle;
+        }
+
+        String normalized = normalizeLocale(locale);
+        Map<String, MessageBundle> loaded = bundles;
+        bundle = loaded.get(normalized);
+        if (bundle == null) {
+            bundle = loaded.getOrDefault(getLanguage(normalized), defaultBundle);
+        }
+        // Clients choose their locale string, so don't let odd ones grow the map without bound
+        if (resolvedLocales.size() < 256) {
+            resolvedLocales.put(locale, bundle);
+        }
+        return bundle;
+    }
+
+    private MessageTemplate getTemplate(MessageBundle bundle, String path) {
+        MessageTemplate template = bundle.get(path);
+        return template != null ? template : MessageTemplate.compile("Message not found: " + path, this::color);
+    }
+
+    private static String normalizeLocale(String locale) {
+        return locale.toLowerCase(Locale.ROOT).replace('-', '_');
+    }
+
+    private static String getLanguage(String locale) {
+        int separator = locale.indexOf('_');
+        return separator < 0 ? locale : locale.substring(0, separator);
+    }
+
     public String getPrefix() {
         return messagesConfig.getString("prefix", "&8[&6StaffSystem&8] ");
     }
@@ -57,6 +214,12 @@ public class MessageUtil {
         if (message == null) {
             return "";
         }
+        if (message.indexOf('&') < 0) {
+            return message;
+        }
+        if (!message.contains("&#")) {
+            return ChatColor.translateAlternateColorCodes('&', message);
+        }
         
         // Handle hex colors (&#RRGGBB format)
         Matcher matcher = HEX_PATTERN.matcher(message);
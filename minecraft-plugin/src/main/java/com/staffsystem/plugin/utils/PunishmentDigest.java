@@ -0,0 +1,57 @@
+package com.staffsystem.plugin.utils;
+
+import com.staffsystem.plugin.models.Punishment;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 64-bit fingerprints of punishment rows, computed the same way by the dashboard
+ * (web-dashboard/src/utils/merkle.js). A range of rows is fingerprinted by XOR-ing its
+ * row hashes, so ranges can be split and summed in any order.
+ */
+public final class PunishmentDigest {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JRE ships SHA-256
+        }
+    });
+
+    private PunishmentDigest() {
+    }
+
+    public static long hash(Punishment punishment) {
+        return hash(punishment, punishment.isActive());
+    }
+
+    /**
+     * Hash a punishment as if its active flag were the given value.
+     */
+    public static long hash(Punishment punishment, boolean active) {
+        return hash(punishment.getId(), punishment.getPlayerUuid().toString(), punishment.getStaffUuid().toString(),
+            punishment.getType().name(), punishment.getReason(), punishment.getTimestamp(),
+            punishment.getDuration(), punishment.getExpiration(), active);
+    }
+
+    public static long hash(long id, String playerUuid, String staffUuid, String type, String reason,
+                            long timestamp, long duration, long expiration, boolean active) {
+        String canonical = id + "|" + playerUuid + "|" + staffUuid + "|" + type + "|" + (reason != null ? reason : "") +
+            "|" + timestamp + "|" + duration + "|" + expiration + "|" + (active ? 1 : 0);
+        byte[] digest = SHA_256.get().digest(canonical.getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(digest).getLong();
+    }
+
+    public static String toHex(long hash) {
+        String hex = Long.toHexString(hash);
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    public static long fromHex(String hex) {
+        return Long.parseUnsignedLong(hex, 16);
+    }
+}
@@ -0,0 +1,185 @@
+package com.staffsystem.plugin.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel holding any number of timers without a task per timer.
+ * Scheduling and cancelling are O(1); each tick only touches the buckets that are due.
+ * Not thread-safe, callers synchronize.
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6; // 64^6 ticks, enough for any real punishment length
+
+    private final long tickMillis;
+    private final Timeout<T>[][] buckets;
+    private final List<Timeout<T>> overdue = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.buckets = new Timeout[LEVELS][SLOTS];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * The timer fires on the first advance at or after the deadline, never before it.
+     */
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        // Round up: a tick is reached at its start, so rounding down would fire up to a tick early
+        Timeout<T> timeout = new Timeout<>(payload, Math.max(0, (deadlineMillis + tickMillis - 1) / tickMillis));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.cancelled || timeout.fired) {
+            return false;
+        }
+        timeout.cancelled = true;
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance the wheel to the given time and return the payloads of every timer that fell due.
+     */
+    public List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        if (targetTick <= currentTick && overdue.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Cascade higher levels whose window starts at this tick, from the top down
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                long levelTick = currentTick >>> (SLOT_BITS * level);
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    int slot = (int) (levelTick & SLOT_MASK);
+                    Timeout<T> head = buckets[level][slot];
+                    buckets[level][slot] = null;
+                    while (head != null) {
+                        Timeout<T> next = head.next;
+                        head.prev = null;
+                        head.next = null;
+                        head.bucket = null;
+                        place(head);
+                        head = next;
+                    }
+                }
+            }
+
+            int slot = (int) (currentTick & SLOT_MASK);
+            Timeout<T> head = buckets[0][slot];
+            buckets[0][slot] = null;
+            while (head != null) {
+                Timeout<T> next = head.next;
+                fire(head, expired);
+                head = next;
+            }
+        }
+
+        // Timers scheduled in the past, or cascaded onto the current tick
+        for (Timeout<T> timeout : overdue) {
+            fire(timeout, expired);
+        }
+        overdue.clear();
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void fire(Timeout<T> timeout, List<T> expired) {
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = null;
+        timeout.fired = true;
+        size--;
+        expired.add(timeout.payload);
+    }
+
+    private void place(Timeout<T> timeout) {
+        long deadline = timeout.deadlineTick;
+        if (deadline <= currentTick) {
+            overdue.add(timeout);
+            return;
+        }
+
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            long windowStart = (currentTick >>> shift) << shift;
+            if (deadline < windowStart + (1L << (shift + SLOT_BITS)) || level == LEVELS - 1) {
+                int slot = (int) ((deadline >>> shift) & SLOT_MASK);
+                link(timeout, level, slot);
+                return;
+            }
+        }
+    }
+
+    private void link(Timeout<T> timeout, int level, int slot) {
+        Timeout<T> head = buckets[level][slot];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[level][slot] = timeout;
+        timeout.bucket = buckets[level];
+        timeout.slot = slot;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            overdue.remove(timeout);
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            timeout.bucket[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = null;
+    }
+
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private Timeout<T>[] bucket;
+        private int slot;
+        private boolean cancelled;
+        private boolean fired;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public boolean isPending() {
+            return !cancelled && !fired;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.staffsystem.plugin;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Plugin instances for tests and benchmarks. The real one can only be created by the server's
+ * plugin loader, so this is a mock serving the given config, data folder and a plain logger.
+ * Managers it should hand out are stubbed by the caller.
+ */
+public final class TestPlugins {
+
+    private TestPlugins() {
+    }
+
+    public static StaffSystemPlugin create(YamlConfiguration config, File dataFolder) {
+        StaffSystemPlugin plugin = mock(StaffSystemPlugin.class);
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("StaffSystem"));
+        return plugin;
+    }
+}
@@ -0,0 +1,215 @@
+package com.staffsystem.plugin.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.TestPlugins;
+import com.staffsystem.plugin.managers.DatabaseManager;
+import com.staffsystem.plugin.managers.PunishmentManager;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChangeFeedTest {
+
+    private static final String CURSOR = "change-feed.cursor";
+
+    @TempDir
+    File dataFolder;
+
+    private StaffSystemPlugin plugin;
+    private DatabaseManager database;
+    private PunishmentManager punishmentManager;
+    private MockWebServer server;
+    private ChangeFeed feed;
+
+    // Replies to the held long-poll, in order; a poll with nothing queued ends empty after its wait
+    private final BlockingQueue<MockResponse> replies = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("database.file", "database.db");
+        config.set("performance.change-feed.wait", 1);
+        config.set("performance.change-feed.batch-size", 100);
+        config.set("performance.change-feed.max-backoff", 1);
+        plugin = TestPlugins.create(config, dataFolder);
+
+        database = new DatabaseManager(plugin);
+        database.initialize();
+        when(plugin.getDatabaseManager()).thenReturn(database);
+
+        punishmentManager = mock(PunishmentManager.class);
+        when(punishmentManager.applyRemoteRevocations(anyList()))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.<List<?>>getArgument(0).size()));
+        when(plugin.getPunishmentManager()).thenReturn(punishmentManager);
+
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                // The dashboard's wait (web-dashboard/src/routes/sync.js)
+                MockResponse reply = replies.poll(1, TimeUnit.SECONDS);
+                if (reply != null) {
+                    return reply;
+                }
+                long after = Long.parseLong(request.getRequestUrl().queryParameter("after"));
+                return changes(after, after, new JsonArray());
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (feed != null) {
+            feed.shutdown();
+        }
+        server.shutdown();
+        database.close();
+    }
+
+    @Test
+    void revocationHeldByTheLongPollIsAppliedAndTheCursorStored() throws Exception {
+        feed = startFeed();
+
+        HttpUrl first = takePoll();
+        assertEquals("0", first.queryParameter("after"));
+        assertEquals("main", first.queryParameter("server"));
+        assertEquals("1", first.queryParameter("wait"));
+        assertEquals("100", first.queryParameter("limit"));
+
+        // Made on the dashboard while the poll is held open
+        JsonArray batch = new JsonArray();
+        batch.add(change(1, 17, "REVOKE", System.currentTimeMillis() - 50));
+        batch.add(change(2, 18, "UPDATE", 0));
+        replies.add(changes(2, 2, batch));
+
+        verify(punishmentManager, timeout(5000)).applyRemoteRevocations(List.of(17));
+        waitFor(() -> feed.getCursor() == 2);
+        assertEquals(2, database.getSyncState(CURSOR).join());
+        assertEquals(2, feed.getChangesApplied());
+        assertEquals(1, feed.getRevocationsApplied());
+        // Only the change with a timestamp counts towards the average
+        assertTrue(feed.getAverageDelayMillis() >= 50, "average delay " + feed.getAverageDelayMillis());
+
+        assertEquals("2", takePollAfter(first).queryParameter("after"));
+    }
+
+    @Test
+    void resumesFromTheStoredCursor() throws Exception {
+        database.setSyncState(CURSOR, 42).join();
+        feed = startFeed();
+
+        HttpUrl first = takePoll();
+        assertEquals("42", first.queryParameter("after"));
+
+        JsonArray batch = new JsonArray();
+        batch.add(change(45, 7, "REVOKE", 0));
+        replies.add(changes(45, 45, batch));
+
+        waitFor(() -> feed.getCursor() == 45);
+        assertEquals(45, database.getSyncState(CURSOR).join());
+        assertEquals("45", takePollAfter(first).queryParameter("after"));
+    }
+
+    @Test
+    void readsTheFeedAgainWhenTheDashboardEndsBeforeTheCursor() throws Exception {
+        // The dashboard was restored from a backup taken at change 10
+        database.setSyncState(CURSOR, 100).join();
+        feed = startFeed();
+
+        HttpUrl first = takePoll();
+        assertEquals("100", first.queryParameter("after"));
+        replies.add(changes(100, 10, new JsonArray()));
+
+        waitFor(() -> feed.getCursor() == 0);
+        HttpUrl restarted = takePollAfter(first);
+        assertEquals("0", restarted.queryParameter("after"));
+
+        JsonArray batch = new JsonArray();
+        batch.add(change(3, 21, "REVOKE", 0));
+        replies.add(changes(3, 10, batch));
+
+        verify(punishmentManager, timeout(5000)).applyRemoteRevocations(List.of(21));
+        waitFor(() -> feed.getCursor() == 3);
+        assertEquals(3, database.getSyncState(CURSOR).join());
+    }
+
+    private ChangeFeed startFeed() {
+        return new ChangeFeed(plugin, new OkHttpClient(), server.url("/api").toString(), "test-key");
+    }
+
+    private HttpUrl takePoll() throws InterruptedException {
+        RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+        assertNotNull(request, "no poll reached the dashboard");
+        assertEquals("/api/sync/changes", request.getRequestUrl().encodedPath());
+        assertEquals("Bearer test-key", request.getHeader("Authorization"));
+        return request.getRequestUrl();
+    }
+
+    // The first poll to move on from previous; a poll whose wait ran out empty repeats it
+    private HttpUrl takePollAfter(HttpUrl previous) throws InterruptedException {
+        String after = previous.queryParameter("after");
+        HttpUrl next;
+        do {
+            next = takePoll();
+        } while (after.equals(next.queryParameter("after")));
+        return next;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting");
+            Thread.sleep(10);
+        }
+    }
+
+    private static JsonObject change(long seq, int id, String action, long changedAt) {
+        JsonObject change = new JsonObject();
+        change.addProperty("seq", seq);
+        change.addProperty("id", id);
+        change.addProperty("action", action);
+        if (changedAt > 0) {
+            change.addProperty("changedAt", changedAt);
+        }
+        return change;
+    }
+
+    private static MockResponse changes(long cursor, long latest, JsonArray changes) {
+        JsonObject body = new JsonObject();
+        body.addProperty("success", true);
+        body.add("changes", changes);
+        body.addProperty("cursor", cursor);
+        body.addProperty("latest", latest);
+        return new MockResponse().setBody(body.toString());
+    }
+}
@@ -0,0 +1,135 @@
+package com.staffsystem.plugin.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.staffsystem.plugin.TestPlugins;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiscordWebhookTest {
+
+    private MockWebServer server;
+    private DiscordWebhook webhook;
+
+    // Responses in order, then 204s; each message's titles and arrival time as they reach the server
+    private final Queue<MockResponse> responses = new ConcurrentLinkedQueue<>();
+    private final List<List<String>> messages = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> arrivals = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                arrivals.add(System.nanoTime());
+                List<String> titles = new ArrayList<>();
+                JsonArray embeds = JsonParser.parseString(request.getBody().readUtf8()).getAsJsonObject().getAsJsonArray("embeds");
+                embeds.forEach(embed -> titles.add(embed.getAsJsonObject().get("title").getAsString()));
+                messages.add(titles);
+                MockResponse response = responses.poll();
+                return response != null ? response : new MockResponse().setResponseCode(204);
+            }
+        });
+        server.start();
+
+        webhook = new DiscordWebhook(TestPlugins.create(new YamlConfiguration(), new File(".")),
+            server.url("/webhook").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        webhook.shutdown(1, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Test
+    void rateLimitedMessageIsSentAgainAfterItsRetryAfter() throws Exception {
+        // The body's retry_after is the precise one; the header's whole seconds are ignored
+        responses.add(new MockResponse().setResponseCode(429)
+            .setHeader("Retry-After", "5")
+            .setBody("{\"message\": \"You are being rate limited.\", \"retry_after\": 0.4, \"global\": false}"));
+
+        webhook.send(embed("first"));
+        waitFor(() -> webhook.getMessagesSent() == 1);
+
+        assertEquals(List.of(List.of("first"), List.of("first")), messages);
+        long gap = millisBetweenMessages(0, 1);
+        assertTrue(gap >= 400 && gap < 4000, "sent again after " + gap + "ms");
+        assertEquals(1, webhook.getRateLimitedCount());
+        assertEquals(1, webhook.getEmbedsSent());
+        assertEquals(0, webhook.getDroppedCount());
+    }
+
+    @Test
+    void retryAfterHeaderIsUsedWithoutABody() throws Exception {
+        responses.add(new MockResponse().setResponseCode(429).setHeader("Retry-After", "1"));
+
+        webhook.send(embed("first"));
+        waitFor(() -> webhook.getMessagesSent() == 1);
+
+        assertEquals(2, messages.size());
+        assertTrue(millisBetweenMessages(0, 1) >= 1000, "sent again after " + millisBetweenMessages(0, 1) + "ms");
+    }
+
+    @Test
+    void pausesUntilAnEmptyBucketResetsAndSendsWhatQueuedMeanwhileTogether() throws Exception {
+        // The last request the bucket allows; nothing more until it resets
+        responses.add(new MockResponse().setResponseCode(204)
+            .setHeader("X-RateLimit-Remaining", "0")
+            .setHeader("X-RateLimit-Reset-After", "0.5"));
+
+        webhook.send(embed("first"));
+        waitFor(() -> webhook.getMessagesSent() == 1);
+        webhook.send(embed("second"));
+        webhook.send(embed("third"));
+        webhook.send(embed("fourth"));
+        waitFor(() -> webhook.getMessagesSent() == 2);
+
+        assertEquals(List.of(List.of("first"), List.of("second", "third", "fourth")), messages);
+        assertTrue(millisBetweenMessages(0, 1) >= 500, "sent after " + millisBetweenMessages(0, 1) + "ms");
+        // Paused rather than sent and refused
+        assertEquals(0, webhook.getRateLimitedCount());
+        assertEquals(4, webhook.getEmbedsSent());
+    }
+
+    private long millisBetweenMessages(int first, int second) {
+        return TimeUnit.NANOSECONDS.toMillis(arrivals.get(second) - arrivals.get(first));
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting");
+            Thread.sleep(10);
+        }
+    }
+
+    private static JsonObject embed(String title) {
+        JsonObject embed = new JsonObject();
+        embed.addProperty("title", title);
+        embed.add("footer", DiscordWebhook.footer());
+        return embed;
+    }
+}
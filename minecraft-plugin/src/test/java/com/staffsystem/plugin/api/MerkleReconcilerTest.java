@@ -0,0 +1,272 @@
+package com.staffsystem.plugin.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.TestPlugins;
+import com.staffsystem.plugin.managers.DatabaseManager;
+import com.staffsystem.plugin.models.Punishment;
+import com.staffsystem.plugin.models.RangeDigest;
+import com.staffsystem.plugin.utils.PunishmentDigest;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MerkleReconcilerTest {
+
+    private static final int ROWS = 5000;
+    private static final int FANOUT = 16;
+    private static final int LEAF_SIZE = 64;
+
+    @TempDir
+    File dataFolder;
+
+    private DatabaseManager database;
+    private MockWebServer server;
+    private MerkleReconciler reconciler;
+
+    // The dashboard's copy: row hash and active flag by id
+    private final NavigableMap<Long, long[]> remote = new TreeMap<>();
+    private final List<long[]> digestRequests = Collections.synchronizedList(new ArrayList<>());
+    private final List<long[]> rowRequests = Collections.synchronizedList(new ArrayList<>());
+    private final Set<Long> pushed = Collections.synchronizedSet(new TreeSet<>());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("database.file", "database.db");
+        config.set("performance.reconcile.interval", 0);
+        config.set("performance.reconcile.fanout", FANOUT);
+        config.set("performance.reconcile.leaf-size", LEAF_SIZE);
+        StaffSystemPlugin plugin = TestPlugins.create(config, dataFolder);
+
+        database = new DatabaseManager(plugin);
+        database.initialize();
+        insertPunishments(new File(dataFolder, "database.db"));
+        when(plugin.getDatabaseManager()).thenReturn(database);
+
+        // Start from an identical copy
+        for (Punishment punishment : database.getPunishmentsInIdRange(1, ROWS + 1).join()) {
+            remote.put((long) punishment.getId(), new long[]{PunishmentDigest.hash(punishment), 1});
+        }
+
+        WebApiManager webApiManager = mock(WebApiManager.class);
+        when(webApiManager.syncPunishment(any())).thenAnswer(invocation -> {
+            pushed.add((long) invocation.<Punishment>getArgument(0).getId());
+            return CompletableFuture.completedFuture(true);
+        });
+
+        server = new MockWebServer();
+        server.setDispatcher(new DashboardDispatcher());
+        server.start();
+        reconciler = new MerkleReconciler(plugin, webApiManager, new OkHttpClient(),
+            server.url("/api").toString(), "test-key");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        reconciler.shutdown();
+        server.shutdown();
+        database.close();
+    }
+
+    @Test
+    void identicalCopiesStopAfterTheRootDigest() throws Exception {
+        MerkleReconciler.Report report = reconcile();
+
+        assertTrue(report.isInSync());
+        assertEquals(1, report.getRounds());
+        assertEquals(1, server.getRequestCount());
+        assertTrue(digestRequests.isEmpty());
+        assertTrue(pushed.isEmpty());
+    }
+
+    @Test
+    void onlyTheSubtreeHoldingAChangedRowIsExchanged() throws Exception {
+        long changed = 2345;
+        remote.get(changed)[0] ^= 1; // The dashboard holds a different version of one row
+
+        MerkleReconciler.Report report = reconcile();
+
+        // Each level asks about the one range that differed, and it holds the changed row
+        assertEquals(2, digestRequests.size());
+        for (long[] range : digestRequests) {
+            assertTrue(range[0] <= changed && changed < range[1], "asked about [" + range[0] + ", " + range[1] + ")");
+        }
+        assertEquals(1, rowRequests.size());
+        long[] leaf = rowRequests.get(0);
+        assertTrue(leaf[0] <= changed && changed < leaf[1]);
+        assertTrue(leaf[1] - leaf[0] <= LEAF_SIZE);
+
+        assertEquals(Set.of(changed), pushed);
+        assertEquals(1, report.getRowsPushed());
+        // Root, then fanout children per level descended
+        assertEquals(1 + 2 * FANOUT, report.getRangesCompared());
+        assertTrue(report.getBytesSent() + report.getBytesReceived() < 8 * 1024,
+            "exchanged " + (report.getBytesSent() + report.getBytesReceived()) + " bytes");
+    }
+
+    @Test
+    void rangesMissingOnTheDashboardArePushedWithoutComparingRows() throws Exception {
+        Set<Long> missing = new TreeSet<>();
+        for (long id = 1000; id < 1100; id++) {
+            remote.remove(id);
+            missing.add(id);
+        }
+
+        MerkleReconciler.Report report = reconcile();
+
+        assertEquals(missing, pushed);
+        assertEquals(missing.size(), report.getRowsPushed());
+        // Only leaves straddling the edges of the gap are compared row by row
+        for (long[] leaf : rowRequests) {
+            assertTrue(leaf[0] < 1000 || leaf[1] > 1100, "compared rows of [" + leaf[0] + ", " + leaf[1] + ")");
+        }
+    }
+
+    @Test
+    void revocationsMadeOnTheDashboardAreCountedNotOverwritten() throws Exception {
+        Punishment revoked = database.getPunishmentsInIdRange(77, 78).join().get(0);
+        remote.put(77L, new long[]{PunishmentDigest.hash(revoked, false), 0});
+
+        MerkleReconciler.Report report = reconcile();
+
+        assertEquals(1, report.getRevokedOnDashboard());
+        assertTrue(pushed.isEmpty());
+    }
+
+    private MerkleReconciler.Report reconcile() throws Exception {
+        MerkleReconciler.Report report = reconciler.reconcile().get(30, TimeUnit.SECONDS);
+        assertNotNull(report);
+        return report;
+    }
+
+    private static void insertPunishments(File databaseFile) throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath())) {
+            conn.setAutoCommit(false);
+            String sql = "INSERT INTO punishments (player_uuid, player_name, staff_uuid, staff_name, type, reason, " +
+                "timestamp, duration, expiration, active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 1)";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < ROWS; i++) {
+                    stmt.setString(1, new UUID(i, 1).toString());
+                    stmt.setString(2, "player" + i);
+                    stmt.setString(3, new UUID(0, i % 10).toString());
+                    stmt.setString(4, "staff" + i % 10);
+                    stmt.setString(5, i % 3 == 0 ? "BAN" : "MUTE");
+                    stmt.setString(6, "reason " + i % 7);
+                    stmt.setLong(7, 1_700_000_000_000L + i);
+                    stmt.setLong(8, -1);
+                    stmt.setLong(9, -1);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    /**
+     * The dashboard's merkle endpoints (web-dashboard/src/routes/sync.js) over the remote map.
+     */
+    private final class DashboardDispatcher extends Dispatcher {
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            String path = request.getRequestUrl().encodedPath();
+            JsonObject response = new JsonObject();
+            if (path.equals("/api/sync/merkle") && request.getMethod().equals("GET")) {
+                long[] root = digest(1, Long.MAX_VALUE);
+                response.addProperty("maxId", remote.isEmpty() ? 0 : remote.lastKey());
+                response.addProperty("count", root[0]);
+                response.addProperty("hash", PunishmentDigest.toHex(root[1]));
+            } else if (path.equals("/api/sync/merkle")) {
+                JsonObject body = JsonParser.parseString(request.getBody().readUtf8()).getAsJsonObject();
+                int fanout = body.get("fanout").getAsInt();
+                JsonArray ranges = new JsonArray();
+                for (long[] range : readRanges(body)) {
+                    digestRequests.add(range);
+                    long[] bounds = RangeDigest.split(range[0], range[1], fanout);
+                    JsonArray children = new JsonArray();
+                    for (int i = 0; i + 1 < bounds.length; i++) {
+                        long[] child = digest(bounds[i], bounds[i + 1]);
+                        JsonArray pair = new JsonArray();
+                        pair.add(child[0]);
+                        pair.add(PunishmentDigest.toHex(child[1]));
+                        children.add(pair);
+                    }
+                    ranges.add(children);
+                }
+                response.add("ranges", ranges);
+            } else if (path.equals("/api/sync/merkle/rows")) {
+                JsonObject body = JsonParser.parseString(request.getBody().readUtf8()).getAsJsonObject();
+                JsonArray rows = new JsonArray();
+                for (long[] range : readRanges(body)) {
+                    rowRequests.add(range);
+                    for (Map.Entry<Long, long[]> row : remote.subMap(range[0], range[1]).entrySet()) {
+                        JsonArray entry = new JsonArray();
+                        entry.add(row.getKey());
+                        entry.add(PunishmentDigest.toHex(row.getValue()[0]));
+                        entry.add(row.getValue()[1]);
+                        rows.add(entry);
+                    }
+                }
+                response.add("rows", rows);
+            } else {
+                return new MockResponse().setResponseCode(404);
+            }
+            return new MockResponse().setBody(response.toString());
+        }
+
+        private long[] digest(long low, long high) {
+            long count = 0;
+            long hash = 0;
+            for (long[] row : remote.subMap(low, high).values()) {
+                count++;
+                hash ^= row[0];
+            }
+            return new long[]{count, hash};
+        }
+
+        private List<long[]> readRanges(JsonObject body) {
+            List<long[]> ranges = new ArrayList<>();
+            for (JsonElement element : body.getAsJsonArray("ranges")) {
+                JsonArray pair = element.getAsJsonArray();
+                ranges.add(new long[]{pair.get(0).getAsLong(), pair.get(1).getAsLong()});
+            }
+            return ranges;
+        }
+    }
+}
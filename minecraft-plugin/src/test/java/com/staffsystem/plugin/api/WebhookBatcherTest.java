@@ -0,0 +1,256 @@
+package com.staffsystem.plugin.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.staffsystem.plugin.TestPlugins;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebhookBatcherTest {
+
+    private MockWebServer server;
+    private WebhookBatcher batcher;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        if (batcher != null) {
+            batcher.shutdown(1, TimeUnit.SECONDS);
+        }
+        server.shutdown();
+    }
+
+    @Test
+    void sendsAFullBatchAsOneGzippedRequest() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200));
+        batcher = createBatcher(3, 60_000);
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(batcher.submit("key-" + i, "punishment", payload("player" + i)));
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS));
+        }
+
+        RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+        assertNotNull(request);
+        assertEquals("gzip", request.getHeader("Content-Encoding"));
+        assertEquals("Bearer test-key", request.getHeader("Authorization"));
+        assertTrue(request.getHeader("Content-Type").startsWith("application/json"));
+
+        JsonArray events = JsonParser.parseString(gunzip(request)).getAsJsonArray();
+        assertEquals(3, events.size());
+        for (int i = 0; i < 3; i++) {
+            JsonObject event = events.get(i).getAsJsonObject();
+            assertEquals("key-" + i, event.get("id").getAsString());
+            assertEquals("punishment", event.get("event").getAsString());
+            assertEquals("player" + i, event.getAsJsonObject("payload").get("player").getAsString());
+        }
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, batcher.getBatchesSent());
+        assertEquals(3, batcher.getEventsSent());
+        assertTrue(batcher.getCompressionRatio() > 0);
+    }
+
+    @Test
+    void sendsAPartialBatchAfterTheMaxDelay() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200));
+        batcher = createBatcher(50, 50);
+
+        CompletableFuture<Boolean> result = batcher.submit("punishment", payload("Steve"));
+        assertTrue(result.get(5, TimeUnit.SECONDS));
+
+        JsonArray events = JsonParser.parseString(gunzip(server.takeRequest())).getAsJsonArray();
+        assertEquals(1, events.size());
+        // No idempotency key, no id field
+        assertNull(events.get(0).getAsJsonObject().get("id"));
+    }
+
+    @Test
+    void fallsBackToJsonWhenTheDashboardRejectsMessagePack() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(415));
+        server.enqueue(new MockResponse().setResponseCode(200));
+        batcher = createBatcher(2, 60_000);
+        batcher.setCodec(MessagePackEventCodec.INSTANCE);
+
+        CompletableFuture<Boolean> first = batcher.submit("punishment", payload("Alex"));
+        CompletableFuture<Boolean> second = batcher.submit("punishment", payload("Steve"));
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+
+        RecordedRequest rejected = server.takeRequest();
+        assertEquals("application/msgpack", rejected.getHeader("Content-Type"));
+        RecordedRequest resent = server.takeRequest();
+        assertTrue(resent.getHeader("Content-Type").startsWith("application/json"));
+        assertEquals(2, JsonParser.parseString(gunzip(resent)).getAsJsonArray().size());
+
+        assertSame(JsonEventCodec.INSTANCE, batcher.getCodec());
+        assertEquals(1, batcher.getBatchesSent());
+        assertEquals(0, batcher.getBatchesFailed());
+        waitFor(() -> batcher.getInFlightCount() == 0);
+    }
+
+    @Test
+    void rejectedBatchCompletesItsEventsWithFalse() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        batcher = createBatcher(1, 60_000);
+
+        assertFalse(batcher.submit("punishment", payload("Steve")).get(5, TimeUnit.SECONDS));
+        assertEquals("HTTP 500", batcher.getLastError());
+        assertEquals(1, batcher.getBatchesFailed());
+        waitFor(() -> batcher.getInFlightCount() == 0);
+    }
+
+    @Test
+    void keepsAtMostMaxInFlightBatchesOutstanding() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger outstanding = new AtomicInteger();
+        AtomicInteger maxOutstanding = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+                release.await(10, TimeUnit.SECONDS);
+                outstanding.decrementAndGet();
+                return new MockResponse().setResponseCode(200);
+            }
+        });
+        batcher = createBatcher(1, 60_000, 2);
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(batcher.submit("punishment", payload("player" + i)));
+        }
+
+        // Two requests reach the server and the rest wait in the queue rather than as requests
+        waitFor(() -> server.getRequestCount() == 2);
+        Thread.sleep(200);
+        assertEquals(2, server.getRequestCount());
+        assertEquals(2, batcher.getInFlightCount());
+        assertEquals(4, batcher.getPendingCount());
+
+        release.countDown();
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, maxOutstanding.get());
+        assertEquals(6, batcher.getEventsSent());
+    }
+
+    @Test
+    void shutdownWaitsForSlowBatchesToFinish() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(200).setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        }
+        batcher = createBatcher(2, 60_000, 2);
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(batcher.submit("punishment", payload("player" + i)));
+        }
+        // The fifth event is still queued; shutdown sends it and waits for all three batches
+        batcher.shutdown(5, TimeUnit.SECONDS);
+
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.isDone());
+            assertTrue(result.get());
+        }
+        assertEquals(3, server.getRequestCount());
+        assertEquals(0, batcher.getInFlightCount());
+        batcher = null;
+    }
+
+    @Test
+    void shutdownCancelsBatchesStillRunningAtTheTimeout() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200).setHeadersDelay(2, TimeUnit.SECONDS));
+        batcher = createBatcher(1, 60_000, 1);
+
+        CompletableFuture<Boolean> result = batcher.submit("punishment", payload("Steve"));
+        waitFor(() -> server.getRequestCount() == 1);
+
+        long start = System.nanoTime();
+        batcher.shutdown(300, TimeUnit.MILLISECONDS);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "shutdown waited past its timeout");
+
+        assertFalse(result.get(5, TimeUnit.SECONDS));
+        batcher = null;
+    }
+
+    private WebhookBatcher createBatcher(int batchSize, long maxDelayMillis) {
+        return createBatcher(batchSize, maxDelayMillis, 4);
+    }
+
+    private WebhookBatcher createBatcher(int batchSize, long maxDelayMillis, int maxInFlight) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("performance.webhooks.batch-size", batchSize);
+        config.set("performance.webhooks.max-delay", maxDelayMillis);
+        config.set("performance.webhooks.max-in-flight", maxInFlight);
+        return new WebhookBatcher(TestPlugins.create(config, new File(".")), new OkHttpClient(),
+            server.url("/webhook/batch").toString(), "test-key");
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting");
+            Thread.sleep(10);
+        }
+    }
+
+    private static EventPayload payload(String player) {
+        return writer -> {
+            writer.beginObject(1);
+            writer.field("player", player);
+            writer.endObject();
+        };
+    }
+
+    private static String gunzip(RecordedRequest request) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(
+                new GZIPInputStream(request.getBody().inputStream()), StandardCharsets.UTF_8)) {
+            StringBuilder text = new StringBuilder();
+            char[] buffer = new char[4096];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                text.append(buffer, 0, read);
+            }
+            return text.toString();
+        }
+    }
+}
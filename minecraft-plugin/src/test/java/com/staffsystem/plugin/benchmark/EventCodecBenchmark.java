@@ -0,0 +1,119 @@
+package com.staffsystem.plugin.benchmark;
+
+import com.staffsystem.plugin.api.EventCodec;
+import com.staffsystem.plugin.api.EventPayload;
+import com.staffsystem.plugin.api.EventWriter;
+import com.staffsystem.plugin.api.JsonEventCodec;
+import com.staffsystem.plugin.api.MessagePackEventCodec;
+import com.staffsystem.plugin.api.WebApiManager;
+import com.staffsystem.plugin.models.Punishment;
+import com.staffsystem.plugin.models.Punishment.PunishmentType;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding one webhook batch of 50 events as JSON or MessagePack, with and without the gzip
+ * stream WebhookBatcher sends it through. The encoded size of each combination, i.e. the bytes
+ * on the wire, is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+    private static final String[] REASONS = {"Hacking", "Spamming in chat", "Griefing spawn", "Inappropriate language"};
+
+    @Param({"json", "msgpack"})
+    private String codecName;
+
+    @Param({"punishment", "sync"})
+    private String event;
+
+    private EventCodec codec;
+    private EventPayload[] payloads;
+    private final Buffer buffer = new Buffer();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        codec = codecName.equals("json") ? JsonEventCodec.INSTANCE : MessagePackEventCodec.INSTANCE;
+
+        Random random = new Random(42);
+        PunishmentType[] types = PunishmentType.values();
+        payloads = new EventPayload[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            PunishmentType type = types[random.nextInt(types.length)];
+            long duration = type == PunishmentType.TEMP_BAN || type == PunishmentType.TEMP_MUTE ? 86_400_000L : -1;
+            Punishment punishment = new Punishment(new UUID(random.nextLong(), random.nextLong()),
+                "Player" + random.nextInt(100_000), new UUID(random.nextLong(), random.nextLong()),
+                "Moderator" + random.nextInt(20), type, REASONS[random.nextInt(REASONS.length)], duration);
+            punishment.setId(100_000 + i);
+            punishment.setTimestamp(1_700_000_000_000L + i * 60_000L);
+            punishment.setExpiration(punishment.isPermanent() ? -1 : punishment.getTimestamp() + punishment.getDuration());
+            payloads[i] = event.equals("sync") ?
+                WebApiManager.toSyncPayload(punishment) :
+                WebApiManager.toPunishmentPayload(punishment, false, false);
+        }
+
+        long raw = encode();
+        long compressed = encodeGzip();
+        System.out.println("Batch of " + BATCH_SIZE + " " + event + " events as " + codecName + ": " +
+            raw + " bytes, " + compressed + " bytes gzipped");
+    }
+
+    @Benchmark
+    public long encode() throws IOException {
+        buffer.clear();
+        writeBatch(buffer);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public long encodeGzip() throws IOException {
+        buffer.clear();
+        BufferedSink gzip = Okio.buffer(new GzipSink(buffer));
+        writeBatch(gzip);
+        gzip.close();
+        return buffer.size();
+    }
+
+    // Same shape WebhookBatcher sends: an array of { id, event, payload }
+    private void writeBatch(BufferedSink sink) throws IOException {
+        try (EventWriter writer = codec.newWriter(sink)) {
+            writer.beginArray(payloads.length);
+            for (int i = 0; i < payloads.length; i++) {
+                writer.beginObject(3);
+                writer.field("id", "punishment:" + (100_000 + i));
+                writer.field("event", event);
+                writer.name("payload");
+                payloads[i].writeTo(writer);
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+        sink.flush();
+    }
+}
@@ -0,0 +1,132 @@
+package com.staffsystem.plugin.benchmark;
+
+import com.staffsystem.plugin.StaffSystemPlugin;
+import com.staffsystem.plugin.TestPlugins;
+import com.staffsystem.plugin.managers.DatabaseManager;
+import com.staffsystem.plugin.models.Punishment;
+import com.staffsystem.plugin.utils.BloomFilter;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login ban checks per second on the server thread, with and without the ban filter in front
+ * of the database (see PlayerJoinListener.onPlayerLogin). One login in a hundred is a banned player.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBanCheckBenchmark {
+
+    private static final int LOGINS = 1 << 16;
+
+    @Param({"100000", "1000000"})
+    private int bans;
+
+    private File dataFolder;
+    private DatabaseManager database;
+    private BloomFilter filter;
+    private UUID[] logins;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataFolder = Files.createTempDirectory("staffsystem-bench").toFile();
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("database.file", "database.db");
+        StaffSystemPlugin plugin = TestPlugins.create(config, dataFolder);
+
+        // Create the schema, bulk load the bans, then reopen so the planner sees the statistics
+        database = new DatabaseManager(plugin);
+        database.initialize();
+        Random random = new Random(42);
+        List<UUID> banned = insertBans(new File(dataFolder, "database.db"), random);
+        database.close();
+        database = new DatabaseManager(plugin);
+        database.initialize();
+
+        filter = new BloomFilter(bans, 0.01);
+        database.forEachActiveBan(filter::put).join();
+
+        logins = new UUID[LOGINS];
+        for (int i = 0; i < LOGINS; i++) {
+            logins[i] = random.nextInt(100) == 0 ? banned.get(random.nextInt(banned.size())) : UUID.randomUUID();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+        for (File file : dataFolder.listFiles()) {
+            file.delete();
+        }
+        dataFolder.delete();
+    }
+
+    @Benchmark
+    public Punishment withFilter() {
+        UUID player = nextLogin();
+        return filter.mightContain(player) ? database.getActiveBan(player).join() : null;
+    }
+
+    @Benchmark
+    public Punishment withoutFilter() {
+        return database.getActiveBan(nextLogin()).join();
+    }
+
+    private UUID nextLogin() {
+        return logins[next++ & (LOGINS - 1)];
+    }
+
+    private List<UUID> insertBans(File file, Random random) throws Exception {
+        List<UUID> banned = new ArrayList<>(bans);
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath())) {
+            conn.setAutoCommit(false);
+            PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO punishments (player_uuid, player_name, staff_uuid, staff_name, type, reason, " +
+                "timestamp, duration, expiration, active) VALUES (?, ?, ?, 'Staff', 'BAN', 'Benchmark', ?, -1, -1, 1)");
+            String staff = UUID.randomUUID().toString();
+            for (int i = 0; i < bans; i++) {
+                UUID player = new UUID(random.nextLong(), random.nextLong());
+                banned.add(player);
+                stmt.setString(1, player.toString());
+                stmt.setString(2, "Player" + i);
+                stmt.setString(3, staff);
+                stmt.setLong(4, System.currentTimeMillis());
+                stmt.addBatch();
+                if (i % 10000 == 9999) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+        }
+        return banned;
+    }
+}
@@ -0,0 +1,73 @@
+package com.staffsystem.plugin.benchmark;
+
+import com.staffsystem.plugin.utils.TimingWheel;
+import com.staffsystem.plugin.utils.TimingWheel.Timeout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the expiry wheel (see ExpiryManager) holding this many temp punishments, spread
+ * over 30 days: scheduling and cancelling one, and one tick of the clock with the expired
+ * ones replaced so the wheel stays the same size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimingWheelBenchmark {
+
+    private static final long TICK_MILLIS = 1000L;
+    private static final long SPREAD_MILLIS = 30L * 24 * 3600 * 1000;
+
+    @Param({"100000", "500000"})
+    private int timers;
+
+    private TimingWheel<Long> wheel;
+    private SplittableRandom random;
+    private long now;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        random = new SplittableRandom(7);
+        now = 1_700_000_000_000L;
+        wheel = new TimingWheel<>(TICK_MILLIS, now);
+        for (int i = 0; i < timers; i++) {
+            long deadline = now + 1 + random.nextLong(SPREAD_MILLIS);
+            wheel.schedule(deadline, deadline);
+        }
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        Timeout<Long> timeout = wheel.schedule(0L, now + 1 + random.nextLong(SPREAD_MILLIS));
+        return wheel.cancel(timeout);
+    }
+
+    @Benchmark
+    public int tick() {
+        now += TICK_MILLIS;
+        List<Long> expired = wheel.advance(now);
+        for (int i = 0; i < expired.size(); i++) {
+            long deadline = now + 1 + random.nextLong(SPREAD_MILLIS);
+            wheel.schedule(deadline, deadline);
+        }
+        return expired.size();
+    }
+}
@@ -0,0 +1,77 @@
+package com.staffsystem.plugin.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000L;
+
+    @Test
+    void firesOnTheFirstAdvanceAtOrAfterTheDeadline() {
+        long start = 1_700_000_000_123L;
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, start);
+        Random random = new Random(1);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Spread over 40 days, so timers start on every level of the wheel
+            long deadline = start + (long) (random.nextDouble() * 40L * 24 * 3600 * 1000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        int fired = 0;
+        long now = start;
+        while (wheel.size() > 0) {
+            now += 1 + random.nextInt(5000);
+            for (long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now, "fired " + (deadline - now) + "ms early");
+                assertTrue(now - deadline < TICK + 5000, "fired " + (now - deadline) + "ms late");
+                fired++;
+            }
+        }
+        assertEquals(deadlines.size(), fired);
+    }
+
+    @Test
+    void deadlineInsideTheCurrentSecondWaitsForIt() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 10_000L);
+        wheel.schedule("mute", 10_400L);
+
+        assertTrue(wheel.advance(10_399L).isEmpty());
+        assertEquals(List.of("mute"), wheel.advance(11_000L));
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 50_000L);
+        wheel.schedule("ban", 1_000L);
+
+        assertEquals(List.of("ban"), wheel.advance(50_000L));
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, 0L);
+        List<TimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            timeouts.add(wheel.schedule(i, (i + 1) * 7_919L));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(wheel.cancel(timeouts.get(i)));
+        }
+        assertFalse(wheel.cancel(timeouts.get(0)));
+
+        List<Integer> fired = wheel.advance(10_000_000L);
+        assertEquals(500, fired.size());
+        assertTrue(fired.stream().allMatch(i -> i % 2 == 1));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -12,6 +12,7 @@ const crypto = require('crypto');
 
 const db = require('./utils/database');
 const passportConfig = require('./utils/passport');
+const { hasValidApiKey } = require('./middleware/auth');
 
 // Import routes
 const authRoutes = require('./routes/auth');
@@ -19,6 +20,7 @@ const dashboardRoutes = require('./routes/dashboard');
 const staffRoutes = require('./routes/staff');
 const punishmentsRoutes = require('./routes/punishments');
 const apiRoutes = require('./routes/api');
+const syncRoutes = require('./routes/sync');
 const webhookRoutes = require('./routes/webhook');
 
 const app = express();
@@ -59,11 +61,13 @@ app.use(helmet({
     hsts: false,
 }));
 
-// Rate limiting for API endpoints
+// Rate limiting for API endpoints. The plugin's own traffic (event batches, sync pages)
+// carries the API key and paces itself, so it is not counted.
 const apiLimiter = rateLimit({
     windowMs: 15 * 60 * 1000, // 15 minutes
     max: 100, // limit each IP to 100 requests per windowMs
-    message: 'Too many requests, please try again later.'
+    message: 'Too many requests, please try again later.',
+    skip: hasValidApiKey
 });
 app.use('/api/', apiLimiter);
 
@@ -79,12 +83,14 @@ app.use('/auth/', authLimiter);
 const generalLimiter = rateLimit({
     windowMs: 15 * 60 * 1000, // 15 minutes
     max: 200, // limit each IP to 200 requests per windowMs
-    message: 'Too many requests, please try again later.'
+    message: 'Too many requests, please try again later.',
+    skip: hasValidApiKey
 });
 app.use(generalLimiter);
 
 // Body parsing
-app.use(express.json());
+// Plugin event batches can exceed the default 100kb once inflated
+app.use(express.json({ limit: '1mb' }));
 app.use(express.urlencoded({ extended: true }));
 app.use(cookieParser());
 
@@ -159,6 +165,9 @@ app.use('/auth', authRoutes);
 app.use('/dashboard', dashboardRoutes);
 app.use('/staff', staffRoutes);
 app.use('/punishments', punishmentsRoutes);
+app.use('/api/sync', syncRoutes);
+// The plugin builds webhook URLs from its api-url, which ends in /api
+app.use('/api/webhook', webhookRoutes);
 app.use('/api', apiRoutes);
 app.use('/webhook', webhookRoutes);
 
@@ -189,10 +198,14 @@ app.use((err, req, res, next) => {
 const PORT = process.env.PORT || 3000;
 
 db.initialize().then(() => {
-    app.listen(PORT, () => {
+    const server = app.listen(PORT, () => {
         console.log(`StaffSystem Dashboard running on port ${PORT}`);
         console.log(`Environment: ${process.env.NODE_ENV || 'development'}`);
     });
+
+    // Outlive the plugin's 55 second idle connection pool so its batches reuse connections
+    server.keepAliveTimeout = 65000;
+    server.headersTimeout = 66000;
 }).catch(err => {
     console.error('Failed to initialize database:', err);
     process.exit(1);
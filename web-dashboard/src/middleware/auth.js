@@ -68,19 +68,24 @@ const apiAuth = (req, res, next) => {
         return res.status(401).json({ error: 'No token provided' });
     }
     
-    const token = authHeader.split(' ')[1];
-    
-    if (token !== process.env.API_KEY) {
+    if (!hasValidApiKey(req)) {
         return res.status(401).json({ error: 'Invalid API key' });
     }
     
     next();
 };
 
+// Whether the request carries the plugin's API key
+const hasValidApiKey = (req) => {
+    const authHeader = req.headers.authorization;
+    return Boolean(process.env.API_KEY) && authHeader === `Bearer ${process.env.API_KEY}`;
+};
+
 module.exports = {
     ensureAuthenticated,
     ensureGuest,
     ensureTier,
     ensurePermission,
-    apiAuth
+    apiAuth,
+    hasValidApiKey
 };
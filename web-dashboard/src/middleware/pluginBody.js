@@ -0,0 +1,25 @@
+const express = require('express');
+const { decode } = require('@msgpack/msgpack');
+
+// Request bodies from the plugin: JSON (already parsed by the app-wide express.json()) or
+// MessagePack, usually gzip-encoded. Other content types get a 415, which makes the plugin
+// fall back to JSON.
+const pluginBody = [
+    express.raw({ type: 'application/msgpack', limit: '1mb' }),
+    (req, res, next) => {
+        if (req.is('application/msgpack')) {
+            try {
+                req.body = decode(req.body);
+            } catch (err) {
+                return res.status(400).json({ success: false, error: 'Malformed MessagePack body' });
+            }
+        } else if (!req.is('application/json')) {
+            return res.status(415).json({ success: false, error: 'Unsupported content type' });
+        }
+        next();
+    }
+];
+
+module.exports = {
+    pluginBody
+};
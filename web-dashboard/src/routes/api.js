@@ -2,12 +2,15 @@ const express = require('express');
 const router = express.Router();
 const db = require('../utils/database');
 const { apiAuth } = require('../middleware/auth');
+const { upsertPunishment, revokePunishment } = require('../utils/punishments');
 
 // Get API status
 router.get('/status', (req, res) => {
     res.json({
         status: 'online',
         version: '1.0.0',
+        // Batch body formats accepted by POST /webhook/batch
+        codecs: ['application/json', 'application/msgpack'],
         timestamp: Date.now()
     });
 });
@@ -129,34 +132,8 @@ router.get('/players/:uuid/muted', apiAuth, (req, res) => {
 // Sync punishment from Minecraft plugin
 router.post('/punishments/sync', apiAuth, (req, res) => {
     try {
-        const {
-            playerUuid, playerName, staffUuid, staffName,
-            type, reason, timestamp, duration, expiration, active, server
-        } = req.body;
-
-        // Check if punishment already exists
-        const existing = db.queryOne(
-            'SELECT id FROM punishments WHERE player_uuid = ? AND timestamp = ? AND type = ?',
-            [playerUuid, timestamp, type]
-        );
-
-        if (existing) {
-            // Update existing
-            db.query(`
-                UPDATE punishments SET active = ?, expiration = ? WHERE id = ?
-            `, [active ? 1 : 0, expiration, existing.id]);
-            
-            return res.json({ success: true, action: 'updated', id: existing.id });
-        }
-
-        // Create new
-        const result = db.query(`
-            INSERT INTO punishments 
-            (player_uuid, player_name, staff_uuid, staff_name, type, reason, timestamp, duration, expiration, active, server)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-        `, [playerUuid, playerName, staffUuid, staffName, type, reason, timestamp, duration, expiration, active ? 1 : 0, server || 'main']);
-
-        res.json({ success: true, action: 'created', id: result.lastInsertRowid });
+        const { action, id } = upsertPunishment(req.body);
+        res.json({ success: true, action, id });
     } catch (err) {
         console.error('API sync error:', err);
         res.status(500).json({ success: false, error: 'Internal server error' });
@@ -166,12 +143,9 @@ router.post('/punishments/sync', apiAuth, (req, res) => {
 // Revoke punishment via API
 router.post('/punishments/:id/revoke', apiAuth, (req, res) => {
     try {
-        const result = db.query(
-            'UPDATE punishments SET active = 0 WHERE id = ?',
-            [req.params.id]
-        );
+        const punishment = revokePunishment(req.params.id, 'api');
 
-        if (result.changes === 0) {
+        if (!punishment) {
             return res.status(404).json({ success: false, error: 'Punishment not found' });
         }
 
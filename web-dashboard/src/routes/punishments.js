@@ -2,6 +2,7 @@ const express = require('express');
 const router = express.Router();
 const db = require('../utils/database');
 const { ensureAuthenticated, ensurePermission } = require('../middleware/auth');
+const { revokePunishment } = require('../utils/punishments');
 
 // Punishments list
 router.get('/', ensureAuthenticated, (req, res) => {
@@ -96,15 +97,13 @@ router.get('/view/:id', ensureAuthenticated, (req, res) => {
 // Revoke punishment
 router.post('/revoke/:id', ensureAuthenticated, ensurePermission('ban'), (req, res) => {
     try {
-        const punishment = db.queryOne('SELECT * FROM punishments WHERE id = ?', [req.params.id]);
+        const punishment = revokePunishment(req.params.id, req.user.username);
         
         if (!punishment) {
             req.flash('error_msg', 'Punishment not found');
             return res.redirect('/punishments');
         }
 
-        db.query('UPDATE punishments SET active = 0 WHERE id = ?', [req.params.id]);
-
         // Log activity
         db.query(`
             INSERT INTO activity_log (staff_user_id, action, details, ip_address)
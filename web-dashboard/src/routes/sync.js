@@ -0,0 +1,198 @@
+const express = require('express');
+const router = express.Router();
+const db = require('../utils/database');
+const { apiAuth } = require('../middleware/auth');
+const { pluginBody } = require('../middleware/pluginBody');
+const { rowHash, toHex, digestChildren } = require('../utils/merkle');
+const { upsertPunishment } = require('../utils/punishments');
+const { waitForChanges } = require('../utils/changeFeed');
+
+const MAX_RANGES = 1024;
+const MAX_ROW_RANGE = 65536;
+// Rows hashed per query while digesting a range; the event loop runs between pages
+const DIGEST_PAGE_SIZE = 1000;
+
+const ROWS_IN_RANGE = `
+    SELECT plugin_id, player_uuid, staff_uuid, type, reason, timestamp, duration, expiration, active
+    FROM punishments
+    WHERE server = ? AND plugin_id >= ? AND plugin_id < ?
+    ORDER BY plugin_id
+`;
+
+const ROWS_PAGE = `${ROWS_IN_RANGE} LIMIT ?`;
+
+const yieldToEventLoop = () => new Promise((resolve) => setImmediate(resolve));
+
+// Rows of [low, high) in pages, so hashing a large range doesn't hold up other requests
+async function* pagedRows(server, low, high) {
+    const stmt = db.getDb().prepare(ROWS_PAGE);
+    let next = low;
+    for (;;) {
+        const page = stmt.all(server, next, high, DIGEST_PAGE_SIZE);
+        yield* page;
+        if (page.length < DIGEST_PAGE_SIZE) {
+            return;
+        }
+        next = page[page.length - 1].plugin_id + 1;
+        await yieldToEventLoop();
+    }
+}
+
+// Validate a list of [low, high) id ranges from the plugin
+const parseRanges = (ranges, maxSpan) => {
+    if (!Array.isArray(ranges) || ranges.length > MAX_RANGES) {
+        return null;
+    }
+    for (const range of ranges) {
+        if (!Array.isArray(range) || range.length !== 2 ||
+            !Number.isSafeInteger(range[0]) || !Number.isSafeInteger(range[1]) ||
+            range[0] >= range[1] || range[1] - range[0] > maxSpan) {
+            return null;
+        }
+    }
+    return ranges;
+};
+
+const getCursor = (server) => {
+    const cursor = db.queryOne('SELECT seq FROM sync_cursors WHERE server = ?', [server]);
+    return cursor ? cursor.seq : 0;
+};
+
+// The last plugin change applied, so the plugin knows where to resume
+router.get('/cursor', apiAuth, (req, res) => {
+    try {
+        res.json({ success: true, seq: getCursor(req.query.server || 'main') });
+    } catch (err) {
+        console.error('Sync cursor error:', err);
+        res.status(500).json({ success: false, error: 'Internal server error' });
+    }
+});
+
+// A page of punishments changed in (from, to] on the plugin. The page and the new cursor are
+// written in one transaction, so an interrupted sync resumes after the last applied page.
+// A page that starts past the cursor would leave a gap; it is refused with the cursor.
+router.post('/punishments', apiAuth, pluginBody, (req, res) => {
+    const { server = 'main', from, to, rows } = req.body;
+    if (!Number.isSafeInteger(from) || !Number.isSafeInteger(to) || from > to || !Array.isArray(rows)) {
+        return res.status(400).json({ success: false, error: 'Invalid sync page' });
+    }
+
+    try {
+        const applyPage = db.getDb().transaction(() => {
+            const cursor = getCursor(server);
+            if (from > cursor) {
+                return cursor;
+            }
+            for (const row of rows) {
+                upsertPunishment({ ...row, server });
+            }
+            db.query(`
+                INSERT INTO sync_cursors (server, seq, updated_at) VALUES (?, ?, ?)
+                ON CONFLICT(server) DO UPDATE SET seq = MAX(seq, excluded.seq), updated_at = excluded.updated_at
+            `, [server, to, Date.now()]);
+            return to;
+        });
+        const seq = applyPage();
+
+        if (seq !== to) {
+            return res.status(409).json({ success: false, error: 'Page starts past the cursor', seq });
+        }
+        res.json({ success: true, seq });
+    } catch (err) {
+        console.error('Sync page error:', err);
+        res.status(500).json({ success: false, error: 'Internal server error' });
+    }
+});
+
+// Punishments revoked on the dashboard after the plugin's cursor. With wait=N (up to 25) the
+// request is held until there is a change or N seconds pass, so revocations reach the plugin
+// as soon as they are made without it polling in a tight loop.
+router.get('/changes', apiAuth, async (req, res) => {
+    const server = req.query.server || 'main';
+    const after = Number(req.query.after ?? 0);
+    if (!Number.isSafeInteger(after) || after < 0) {
+        return res.status(400).json({ success: false, error: 'Invalid cursor' });
+    }
+
+    try {
+        const changes = await waitForChanges(server, after, Number(req.query.wait) || 0, Number(req.query.limit), res);
+        if (res.destroyed) {
+            return;
+        }
+        const cursor = changes.length > 0 ? changes[changes.length - 1].seq : after;
+        // Lets the plugin notice a cursor past the end of the feed (a dashboard restored from a backup)
+        const { latest } = db.queryOne(
+            'SELECT COALESCE(MAX(seq), 0) AS latest FROM punishment_changes WHERE server = ?',
+            [server]
+        );
+        res.json({ success: true, changes, cursor, latest });
+    } catch (err) {
+        console.error('Change feed error:', err);
+        res.status(500).json({ success: false, error: 'Internal server error' });
+    }
+});
+
+// Digest of every punishment the plugin has synced: the starting point of a reconciliation
+router.get('/merkle', apiAuth, async (req, res) => {
+    try {
+        const server = req.query.server || 'main';
+        const { maxId } = db.queryOne(
+            'SELECT COALESCE(MAX(plugin_id), 0) AS maxId FROM punishments WHERE server = ?',
+            [server]
+        );
+
+        const [[count, hash]] = maxId > 0
+            ? await digestChildren(pagedRows(server, 1, maxId + 1), 1, maxId + 1, 1)
+            : [[0, toHex(0n)]];
+
+        res.json({ success: true, maxId, count, hash });
+    } catch (err) {
+        console.error('Merkle summary error:', err);
+        res.status(500).json({ success: false, error: 'Internal server error' });
+    }
+});
+
+// Child digests of each requested range, so the plugin can descend into the ones that differ
+router.post('/merkle', apiAuth, async (req, res) => {
+    const { server = 'main', fanout } = req.body;
+    const ranges = parseRanges(req.body.ranges, Number.MAX_SAFE_INTEGER);
+    if (!ranges || !Number.isInteger(fanout) || fanout < 2 || fanout > 64) {
+        return res.status(400).json({ success: false, error: 'Invalid ranges or fanout' });
+    }
+
+    try {
+        const digests = [];
+        for (const [low, high] of ranges) {
+            digests.push(await digestChildren(pagedRows(server, low, high), low, high, fanout));
+        }
+        res.json({ success: true, ranges: digests });
+    } catch (err) {
+        console.error('Merkle digest error:', err);
+        res.status(500).json({ success: false, error: 'Internal server error' });
+    }
+});
+
+// Row hashes in small ranges whose digests differ: [pluginId, hash, active]
+router.post('/merkle/rows', apiAuth, (req, res) => {
+    const { server = 'main' } = req.body;
+    const ranges = parseRanges(req.body.ranges, MAX_ROW_RANGE);
+    if (!ranges) {
+        return res.status(400).json({ success: false, error: 'Invalid ranges' });
+    }
+
+    try {
+        const stmt = db.getDb().prepare(ROWS_IN_RANGE);
+        const rows = [];
+        for (const [low, high] of ranges) {
+            for (const row of stmt.iterate(server, low, high)) {
+                rows.push([row.plugin_id, toHex(rowHash(row)), row.active ? 1 : 0]);
+            }
+        }
+        res.json({ success: true, rows });
+    } catch (err) {
+        console.error('Merkle rows error:', err);
+        res.status(500).json({ success: false, error: 'Internal server error' });
+    }
+});
+
+module.exports = router;
@@ -2,51 +2,13 @@ const express = require('express');
 const router = express.Router();
 const db = require('../utils/database');
 const { apiAuth } = require('../middleware/auth');
+const { upsertPunishment } = require('../utils/punishments');
+const { pluginBody } = require('../middleware/pluginBody');
 
 // Webhook endpoint for punishment notifications from Minecraft plugin
 router.post('/punishment', apiAuth, (req, res) => {
     try {
-        const {
-            type,
-            punishmentType,
-            playerUuid,
-            playerName,
-            staffUuid,
-            staffName,
-            reason,
-            duration,
-            timestamp,
-            server
-        } = req.body;
-
-        // Save to database
-        db.query(`
-            INSERT INTO punishments 
-            (player_uuid, player_name, staff_uuid, staff_name, type, reason, timestamp, duration, expiration, active, server)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-        `, [
-            playerUuid, playerName, staffUuid, staffName, punishmentType, reason,
-            timestamp, duration, duration === -1 ? -1 : timestamp + duration, 1, server || 'main'
-        ]);
-
-        // Send to Discord webhook if configured
-        if (process.env.DISCORD_WEBHOOK_URL) {
-            sendDiscordNotification({
-                type: 'punishment',
-                punishmentType,
-                playerName,
-                staffName,
-                reason,
-                duration
-            });
-        }
-
-        // Log activity
-        db.query(`
-            INSERT INTO activity_log (action, details, ip_address)
-            VALUES (?, ?, ?)
-        `, ['WEBHOOK_PUNISHMENT', `${punishmentType} issued to ${playerName} by ${staffName}`, req.ip]);
-
+        recordPunishment(req.body, req.ip);
         res.json({ success: true, message: 'Punishment logged' });
     } catch (err) {
         console.error('Webhook punishment error:', err);
@@ -57,24 +19,7 @@ router.post('/punishment', apiAuth, (req, res) => {
 // Webhook endpoint for freeze notifications
 router.post('/freeze', apiAuth, (req, res) => {
     try {
-        const { playerName, staffName, frozen, timestamp } = req.body;
-
-        // Send to Discord webhook if configured
-        if (process.env.DISCORD_WEBHOOK_URL) {
-            sendDiscordNotification({
-                type: 'freeze',
-                playerName,
-                staffName,
-                frozen
-            });
-        }
-
-        // Log activity
-        db.query(`
-            INSERT INTO activity_log (action, details, ip_address)
-            VALUES (?, ?, ?)
-        `, ['WEBHOOK_FREEZE', `${playerName} ${frozen ? 'frozen' : 'unfrozen'} by ${staffName}`, req.ip]);
-
+        recordFreeze(req.body, req.ip);
         res.json({ success: true, message: 'Freeze notification logged' });
     } catch (err) {
         console.error('Webhook freeze error:', err);
@@ -82,6 +27,135 @@ router.post('/freeze', apiAuth, (req, res) => {
     }
 });
 
+// Batched events from the plugin: a (usually gzip-encoded) JSON or MessagePack array of
+// { id, event, payload }. The whole batch is applied in one transaction. Events carrying an id
+// (idempotency key) that was already applied are skipped, so the plugin can safely resend a
+// batch after a failure.
+router.post('/batch', apiAuth, pluginBody, (req, res) => {
+    if (!Array.isArray(req.body)) {
+        return res.status(400).json({ success: false, error: 'Expected an array of events' });
+    }
+
+    try {
+        const applyBatch = db.getDb().transaction((events) => {
+            let applied = 0;
+            for (const { id, event, payload } of events) {
+                if (id && db.query(
+                    'INSERT OR IGNORE INTO processed_events (event_id, processed_at) VALUES (?, ?)',
+                    [id, Date.now()]
+                ).changes === 0) {
+                    continue;
+                }
+
+                switch (event) {
+                    case 'punishment':
+                        recordPunishment(payload, req.ip);
+                        break;
+                    case 'freeze':
+                        recordFreeze(payload, req.ip);
+                        break;
+                    case 'digest':
+                        recordDigest(payload, req.ip);
+                        break;
+                    case 'sync':
+                        upsertPunishment(payload);
+                        break;
+                    default:
+                        console.warn('Unknown webhook batch event:', event);
+                }
+                applied++;
+            }
+            return applied;
+        });
+        const applied = applyBatch(req.body);
+
+        res.json({ success: true, processed: applied, duplicates: req.body.length - applied });
+    } catch (err) {
+        console.error('Webhook batch error:', err);
+        res.status(500).json({ success: false, error: 'Internal server error' });
+    }
+});
+
+function recordPunishment(data, ip) {
+    const {
+        id,
+        punishmentType,
+        playerUuid,
+        playerName,
+        staffUuid,
+        staffName,
+        reason,
+        duration,
+        timestamp,
+        server,
+        digested,
+        postedToDiscord
+    } = data;
+
+    // Save to database; ignored if a sync already brought this punishment over
+    db.query(`
+        INSERT OR IGNORE INTO punishments 
+        (player_uuid, player_name, staff_uuid, staff_name, type, reason, timestamp, duration, expiration, active, server, plugin_id)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+    `, [
+        playerUuid, playerName, staffUuid, staffName, punishmentType, reason,
+        timestamp, duration, duration === -1 ? -1 : timestamp + duration, 1, server || 'main', id ?? null
+    ]);
+
+    // Send to Discord webhook if configured; digested punishments are posted in the plugin's digest,
+    // and the plugin's own webhook may have posted it already
+    if (process.env.DISCORD_WEBHOOK_URL && !digested && !postedToDiscord) {
+        sendDiscordNotification({
+            type: 'punishment',
+            punishmentType,
+            playerName,
+            staffName,
+            reason,
+            duration
+        });
+    }
+
+    // Log activity
+    db.query(`
+        INSERT INTO activity_log (action, details, ip_address)
+        VALUES (?, ?, ?)
+    `, ['WEBHOOK_PUNISHMENT', `${punishmentType} issued to ${playerName} by ${staffName}`, ip]);
+}
+
+function recordFreeze(data, ip) {
+    const { playerName, staffName, frozen, postedToDiscord } = data;
+
+    // Send to Discord webhook if configured and the plugin's own webhook did not post it
+    if (process.env.DISCORD_WEBHOOK_URL && !postedToDiscord) {
+        sendDiscordNotification({
+            type: 'freeze',
+            playerName,
+            staffName,
+            frozen
+        });
+    }
+
+    // Log activity
+    db.query(`
+        INSERT INTO activity_log (action, details, ip_address)
+        VALUES (?, ?, ?)
+    `, ['WEBHOOK_FREEZE', `${playerName} ${frozen ? 'frozen' : 'unfrozen'} by ${staffName}`, ip]);
+}
+
+// A summary of the punishments the plugin sent marked as digested, grouped by type, staff and reason
+function recordDigest(data, ip) {
+    // Send to Discord webhook if configured and the plugin's own webhook did not post it
+    if (process.env.DISCORD_WEBHOOK_URL && !data.postedToDiscord) {
+        sendDiscordNotification({ type: 'digest', ...data });
+    }
+
+    // Log activity
+    db.query(`
+        INSERT INTO activity_log (action, details, ip_address)
+        VALUES (?, ?, ?)
+    `, ['WEBHOOK_DIGEST', `Digest of ${data.total} punishments in ${data.groups.length} groups`, ip]);
+}
+
 // Helper function to send Discord notifications
 async function sendDiscordNotification(data) {
     const webhookUrl = process.env.DISCORD_WEBHOOK_URL;
@@ -114,6 +188,8 @@ async function sendDiscordNotification(data) {
             timestamp: new Date().toISOString(),
             footer: { text: 'StaffSystem' }
         };
+    } else if (data.type === 'digest') {
+        embed = formatDigestEmbed(data);
     }
 
     try {
@@ -131,6 +207,34 @@ async function sendDiscordNotification(data) {
     }
 }
 
+// Same layout as the plugin's own digest embed (DigestManager)
+function formatDigestEmbed(data) {
+    const { from, to, total, totals, groups } = data;
+    let description = `<t:${Math.floor(from / 1000)}:t> - <t:${Math.floor(to / 1000)}:t>\n`;
+    let listed = 0;
+    for (const group of groups) {
+        const reason = group.reason.length > 100 ? `${group.reason.slice(0, 97)}...` : group.reason;
+        const others = group.count - group.players.length;
+        const players = group.players.join(', ') + (others > 0 ? ` +${others}` : '');
+        const line = `\n**${group.punishmentType.replace('_', ' ')}** x${group.count} by ${group.staffName}: ${reason} (${players})`;
+        if (description.length + line.length > 3800) break;
+        description += line;
+        listed += group.count;
+    }
+    if (listed < total) {
+        description += `\n...and ${total - listed} more`;
+    }
+
+    return {
+        title: `Moderation digest - ${total} ${total === 1 ? 'punishment' : 'punishments'}`,
+        color: 0x5865F2,
+        description,
+        fields: Object.entries(totals).map(([type, count]) => ({ name: type.replace('_', ' '), value: String(count), inline: true })),
+        timestamp: new Date(to).toISOString(),
+        footer: { text: 'StaffSystem' }
+    };
+}
+
 function getPunishmentColor(type) {
     switch (type) {
         case 'BAN':
@@ -0,0 +1,58 @@
+const { EventEmitter } = require('events');
+const db = require('./database');
+
+// Dashboard-side changes to plugin punishments, for the plugin to apply to its own database.
+// Each change is a row in punishment_changes; waiting long-polls are woken when one is added.
+
+const MAX_WAIT_SECONDS = 25;
+const MAX_CHANGES = 500;
+
+const feed = new EventEmitter();
+feed.setMaxListeners(0);
+
+// Record a change; call inside the transaction that made it
+const recordChange = (server, pluginId, action, changedBy) => {
+    db.query(`
+        INSERT INTO punishment_changes (server, plugin_id, action, changed_at, changed_by)
+        VALUES (?, ?, ?, ?, ?)
+    `, [server, pluginId, action, Date.now(), changedBy ?? null]);
+};
+
+// Wake long-polls for a server; call once the transaction has committed
+const notifyChanged = (server) => feed.emit(server);
+
+const getChanges = (server, after, limit) => db.query(`
+    SELECT seq, plugin_id AS id, action, changed_at AS changedAt
+    FROM punishment_changes
+    WHERE server = ? AND seq > ?
+    ORDER BY seq
+    LIMIT ?
+`, [server, after, limit]);
+
+// Changes after a cursor, waiting up to waitSeconds for one if there are none yet.
+// Resolves with an empty list when the wait runs out or the client goes away (res closes).
+const waitForChanges = (server, after, waitSeconds, limit, res) => new Promise((resolve) => {
+    limit = Math.max(1, Math.min(limit || MAX_CHANGES, MAX_CHANGES));
+    const changes = getChanges(server, after, limit);
+    const wait = Math.max(0, Math.min(waitSeconds || 0, MAX_WAIT_SECONDS));
+    if (changes.length > 0 || wait === 0) {
+        return resolve(changes);
+    }
+
+    let timer;
+    const finish = () => {
+        clearTimeout(timer);
+        feed.removeListener(server, finish);
+        res.removeListener('close', finish);
+        resolve(res.destroyed ? [] : getChanges(server, after, limit));
+    };
+    timer = setTimeout(finish, wait * 1000);
+    feed.on(server, finish);
+    res.on('close', finish);
+});
+
+module.exports = {
+    recordChange,
+    notifyChanged,
+    waitForChanges
+};
@@ -5,6 +5,12 @@ const fs = require('fs');
 
 let db;
 
+// Forget idempotency keys after 30 days; the plugin gives up on an event long before that
+const PROCESSED_EVENT_RETENTION = 30 * 24 * 60 * 60 * 1000;
+const PRUNE_INTERVAL = 60 * 60 * 1000;
+// Rows deleted per statement, so a large backlog doesn't hold the event loop in one go
+const PRUNE_CHUNK = 5000;
+
 const initialize = async () => {
     // Ensure data directory exists
     const dbPath = process.env.DB_PATH || './data/staffsystem.db';
@@ -23,6 +29,10 @@ const initialize = async () => {
     
     // Create default admin if not exists
     createDefaultAdmin();
+
+    // The dashboard can run for months, so expire idempotency keys while it runs, not just at startup
+    pruneProcessedEvents();
+    setInterval(pruneProcessedEvents, PRUNE_INTERVAL).unref();
     
     console.log('SQLite database initialized successfully at:', dbPath);
 };
@@ -71,6 +81,13 @@ const createTables = () => {
     db.exec(`CREATE INDEX IF NOT EXISTS idx_active ON punishments(active)`);
     db.exec(`CREATE INDEX IF NOT EXISTS idx_type ON punishments(type)`);
 
+    // The plugin's id for punishments it sent, used to reconcile the two copies
+    const punishmentColumns = db.prepare('PRAGMA table_info(punishments)').all();
+    if (!punishmentColumns.some((column) => column.name === 'plugin_id')) {
+        db.exec('ALTER TABLE punishments ADD COLUMN plugin_id INTEGER');
+    }
+    db.exec(`CREATE UNIQUE INDEX IF NOT EXISTS idx_plugin_id ON punishments(server, plugin_id) WHERE plugin_id IS NOT NULL`);
+
     // Activity log table
     db.exec(`
         CREATE TABLE IF NOT EXISTS activity_log (
@@ -84,6 +101,38 @@ const createTables = () => {
         )
     `);
 
+    // Idempotency keys of plugin events already applied, so redelivered events are skipped
+    db.exec(`
+        CREATE TABLE IF NOT EXISTS processed_events (
+            event_id TEXT PRIMARY KEY,
+            processed_at INTEGER NOT NULL
+        )
+    `);
+    db.exec(`CREATE INDEX IF NOT EXISTS idx_processed_events_at ON processed_events(processed_at)`);
+
+    // Highest plugin change sequence applied per server, written with each sync page
+    db.exec(`
+        CREATE TABLE IF NOT EXISTS sync_cursors (
+            server TEXT PRIMARY KEY,
+            seq INTEGER NOT NULL,
+            updated_at INTEGER NOT NULL
+        )
+    `);
+
+    // Changes made on the dashboard to punishments the plugin synced, read by the plugin's
+    // change feed in seq order
+    db.exec(`
+        CREATE TABLE IF NOT EXISTS punishment_changes (
+            seq INTEGER PRIMARY KEY AUTOINCREMENT,
+            server TEXT NOT NULL,
+            plugin_id INTEGER NOT NULL,
+            action TEXT NOT NULL,
+            changed_at INTEGER NOT NULL,
+            changed_by TEXT
+        )
+    `);
+    db.exec(`CREATE INDEX IF NOT EXISTS idx_changes_server ON punishment_changes(server, seq)`);
+
     // Staff tiers configuration
     db.exec(`
         CREATE TABLE IF NOT EXISTS staff_tiers (
@@ -127,6 +176,21 @@ const createDefaultAdmin = () => {
     }
 };
 
+const pruneProcessedEvents = async () => {
+    try {
+        const prune = db.prepare(`
+            DELETE FROM processed_events WHERE rowid IN
+            (SELECT rowid FROM processed_events WHERE processed_at < ? LIMIT ?)
+        `);
+        const cutoff = Date.now() - PROCESSED_EVENT_RETENTION;
+        while (prune.run(cutoff, PRUNE_CHUNK).changes === PRUNE_CHUNK) {
+            await new Promise((resolve) => setImmediate(resolve));
+        }
+    } catch (err) {
+        console.error('Failed to prune processed events:', err);
+    }
+};
+
 const getDb = () => db;
 
 const query = (sql, params = []) => {
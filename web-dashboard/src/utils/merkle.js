@@ -0,0 +1,51 @@
+const crypto = require('crypto');
+
+// Digests of punishment id ranges for reconciliation with the plugin. A row hash is the
+// first 8 bytes of SHA-256 over the row's fields; a range digest is the row count and the
+// XOR of its row hashes. Must match PunishmentDigest and RangeDigest in the plugin.
+
+const rowHash = (row) => {
+    const canonical = [
+        row.plugin_id, row.player_uuid, row.staff_uuid, row.type, row.reason ?? '',
+        row.timestamp, row.duration, row.expiration, row.active ? 1 : 0
+    ].join('|');
+    return crypto.createHash('sha256').update(canonical, 'utf8').digest().readBigUInt64BE(0);
+};
+
+const toHex = (hash) => hash.toString(16).padStart(16, '0');
+
+// Boundaries of the (at most fanout) equal children of [low, high)
+const split = (low, high, fanout) => {
+    const span = Math.max(1, Math.ceil((high - low) / fanout));
+    const children = Math.ceil((high - low) / span);
+    const bounds = [];
+    for (let i = 0; i < children; i++) {
+        bounds.push(low + i * span);
+    }
+    bounds.push(high);
+    return bounds;
+};
+
+// [count, hash] of each child of [low, high), given the range's rows in plugin_id order
+// (any iterable, including an async one that reads them in pages)
+const digestChildren = async (rows, low, high, fanout) => {
+    const bounds = split(low, high, fanout);
+    const children = bounds.length - 1;
+    const span = children > 1 ? bounds[1] - bounds[0] : Infinity;
+    const counts = new Array(children).fill(0);
+    const hashes = new Array(children).fill(0n);
+
+    for await (const row of rows) {
+        const child = Math.min(Math.floor((row.plugin_id - low) / span), children - 1);
+        counts[child]++;
+        hashes[child] ^= rowHash(row);
+    }
+    return counts.map((count, i) => [count, toHex(hashes[i])]);
+};
+
+module.exports = {
+    rowHash,
+    toHex,
+    split,
+    digestChildren
+};
@@ -0,0 +1,81 @@
+const db = require('./database');
+const { recordChange, notifyChanged } = require('./changeFeed');
+
+// Insert a punishment synced from the plugin, or update it if it is already known.
+// Punishments are matched by the plugin's id, or by player, time and type for rows
+// recorded before plugin ids were kept. The plugin is the source of truth for every
+// field except active: punishments are never reactivated, so a revocation made on
+// the dashboard is kept.
+const upsertPunishment = (data) => {
+    const {
+        id: pluginId, playerUuid, playerName, staffUuid, staffName,
+        type, reason, timestamp, duration, expiration, active
+    } = data;
+    const server = data.server || 'main';
+
+    // Check if punishment already exists
+    const existing = (pluginId != null && db.queryOne(
+        'SELECT id FROM punishments WHERE server = ? AND plugin_id = ?',
+        [server, pluginId]
+    )) || db.queryOne(
+        'SELECT id FROM punishments WHERE player_uuid = ? AND timestamp = ? AND type = ? AND plugin_id IS NULL',
+        [playerUuid, timestamp, type]
+    );
+
+    if (existing) {
+        // Update existing
+        db.query(`
+            UPDATE punishments SET
+                player_uuid = ?, player_name = ?, staff_uuid = ?, staff_name = ?, type = ?, reason = ?,
+                timestamp = ?, duration = ?, expiration = ?, active = MIN(active, ?), plugin_id = ?
+            WHERE id = ?
+        `, [
+            playerUuid, playerName, staffUuid, staffName, type, reason,
+            timestamp, duration, expiration, active ? 1 : 0, pluginId ?? null, existing.id
+        ]);
+
+        return { action: 'updated', id: existing.id };
+    }
+
+    // Create new
+    const result = db.query(`
+        INSERT INTO punishments 
+        (player_uuid, player_name, staff_uuid, staff_name, type, reason, timestamp, duration, expiration, active, server, plugin_id)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+    `, [
+        playerUuid, playerName, staffUuid, staffName, type, reason,
+        timestamp, duration, expiration, active ? 1 : 0, server, pluginId ?? null
+    ]);
+
+    return { action: 'created', id: result.lastInsertRowid };
+};
+
+// Revoke a punishment on the dashboard. If it came from the plugin, the revocation is
+// added to the change feed in the same transaction so the plugin applies it too.
+// Returns the punishment, or null if there is none with that id.
+const revokePunishment = (id, changedBy) => {
+    const revoke = db.getDb().transaction(() => {
+        const punishment = db.queryOne('SELECT * FROM punishments WHERE id = ?', [id]);
+        if (!punishment) {
+            return null;
+        }
+        if (punishment.active) {
+            db.query('UPDATE punishments SET active = 0 WHERE id = ?', [id]);
+            if (punishment.plugin_id != null) {
+                recordChange(punishment.server || 'main', punishment.plugin_id, 'REVOKE', changedBy);
+            }
+        }
+        return punishment;
+    });
+
+    const punishment = revoke();
+    if (punishment && punishment.active && punishment.plugin_id != null) {
+        notifyChanged(punishment.server || 'main');
+    }
+    return punishment;
+};
+
+module.exports = {
+    upsertPunishment,
+    revokePunishment
+};